@@ -0,0 +1,25 @@
+package benchmarks;
+
+import analyser.SymbolTable;
+import compiler.CompilationUnit;
+import compiler.Compiler;
+import compiler.CompilerSettings;
+import ast.ProgramNode;
+import stdlib.DefaultJvmStandardLibrary;
+
+/**
+ * A source-file which has been parsed to an AST and analysed already, the input of the code generation benchmarks.
+ */
+public class AnalysedProgram {
+
+  public final CompilationUnit unit;
+  public final ProgramNode program;
+  public final SymbolTable symbolTable;
+
+  public AnalysedProgram(String source) {
+    this.unit = new CompilationUnit( new CompilerSettings().forSource(source, null) );
+    this.program = Compiler.parse(unit);
+    this.symbolTable = Compiler.analyse(unit, program, DefaultJvmStandardLibrary.instance);
+  }
+
+}
@@ -0,0 +1,53 @@
+package benchmarks;
+
+import ast.ProgramNode;
+import compiler.CompilationUnit;
+import compiler.Compiler;
+import compiler.CompilerSettings;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+import stdlib.DefaultJvmStandardLibrary;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Walks the parse-trees of the sources with the {@code Analyser}, the sources are parsed upfront.
+ * Each source is analysed with the unit it was parsed with, since the AST refers to the name IDs of the unit.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class AnalyserBenchmark {
+
+  @Param({ Inputs.TESTFILES, Inputs.SYNTHETIC_SMALL, Inputs.SYNTHETIC_LARGE })
+  public String input;
+
+  protected List<CompilationUnit> units;
+  protected List<ProgramNode> programs;
+
+  @Setup
+  public void setup() throws IOException {
+    this.units = new ArrayList<>();
+    this.programs = new ArrayList<>();
+
+    for (String source : Inputs.load(input)) {
+      final CompilationUnit unit = new CompilationUnit( new CompilerSettings().forSource(source, null) );
+      units.add(unit);
+      programs.add( Compiler.parse(unit) );
+    }
+  }
+
+  @Benchmark
+  public void analyse(Blackhole blackhole) {
+    for (int idx = 0; idx < programs.size(); idx++) {
+      blackhole.consume( Compiler.analyse(units.get(idx), programs.get(idx), DefaultJvmStandardLibrary.instance) );
+    }
+  }
+
+}
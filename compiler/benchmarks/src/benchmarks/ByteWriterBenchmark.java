@@ -0,0 +1,79 @@
+package benchmarks;
+
+import jvm_class_generator.impl.helpers.ByteWriter;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Writes a method body like the {@code Code} attribute does, i.e. mostly single opcodes with some 1 and 2 byte operands,
+ * then patches the jumps and hands the bytes on to the enclosing structure.
+ * Compares the {@code ByteWriter} with the {@code DynamicByteBuffer} it replaced.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ByteWriterBenchmark {
+
+  /**
+   * The number of instructions of the method body.
+   */
+  @Param({ "100", "10000" })
+  public int instructions;
+
+  @Benchmark
+  public void dynamicByteBuffer(Blackhole blackhole) {
+    final DynamicByteBuffer code = new DynamicByteBuffer();
+
+    for (int idx = 0; idx < instructions; idx++) {
+      code.writeByte(0x15); // iload
+      code.writeByte(idx & 0xff);
+
+      if ((idx & 7) == 0) {
+        code.writeByte(0xa7); // goto
+        code.writeShort(0xdead);
+      }
+    }
+
+    // backpatching needs a copy, which is copied again into the enclosing structure
+    final byte[] bytes = code.toByteArray();
+    for (int idx = 0; idx + 2 < bytes.length; idx += 48) {
+      bytes[idx + 1] = 0;
+      bytes[idx + 2] = 16;
+    }
+
+    final DynamicByteBuffer attribute = new DynamicByteBuffer();
+    attribute.writeInt(bytes.length);
+    attribute.write(bytes);
+    blackhole.consume( attribute.toByteArray() );
+  }
+
+  @Benchmark
+  public void byteWriter(Blackhole blackhole) {
+    final ByteWriter code = new ByteWriter();
+
+    for (int idx = 0; idx < instructions; idx++) {
+      code.writeByte(0x15); // iload
+      code.writeByte(idx & 0xff);
+
+      if ((idx & 7) == 0) {
+        code.writeByte(0xa7); // goto
+        code.writeShort(0xdead);
+      }
+    }
+
+    for (int idx = 0; idx + 2 < code.size(); idx += 48) {
+      code.patchShort(idx + 1, 16);
+    }
+
+    final ByteWriter attribute = new ByteWriter(code.size() + 4);
+    attribute.writeInt(code.size());
+    attribute.write(code);
+    blackhole.consume( attribute.toByteArray() );
+  }
+
+}
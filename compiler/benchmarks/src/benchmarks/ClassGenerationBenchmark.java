@@ -0,0 +1,88 @@
+package benchmarks;
+
+import generator.CodeGeneratorDriver;
+import generator.JvmCodeGenerator;
+import jvm_class_generator.impl.helpers.ByteWriter;
+import jvm_class_generator.specs.JvmClass;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+import stdlib.DefaultJvmStandardLibrary;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Serializes the classes of the sources with {@code JvmClass.generate()}, the classes are built upfront.
+ * The {@code generateInto} benchmark writes all classes into one reused {@code ByteWriter} instead,
+ * so only the arrays for the class bodies are allocated.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ClassGenerationBenchmark {
+
+  @Param({ Inputs.TESTFILES, Inputs.SYNTHETIC_SMALL, Inputs.SYNTHETIC_LARGE })
+  public String input;
+
+  protected List<JvmClass> classes;
+  protected ByteWriter bytecode;
+
+  @Setup
+  public void setup() throws IOException {
+    this.classes = new ArrayList<>();
+
+    for (String source : Inputs.load(input)) {
+      final AnalysedProgram program = new AnalysedProgram(source);
+      final CapturingCodeGenerator codeGenerator = new CapturingCodeGenerator();
+      new CodeGeneratorDriver(program.unit, program.symbolTable, codeGenerator).visit(program.program);
+      classes.addAll(codeGenerator.classes);
+    }
+
+    this.bytecode = new ByteWriter();
+  }
+
+  @Benchmark
+  public void generate(Blackhole blackhole) {
+    for (JvmClass cls : classes) {
+      blackhole.consume( cls.generate() );
+    }
+  }
+
+  @Benchmark
+  public int generateInto() {
+    bytecode.reset();
+
+    for (JvmClass cls : classes) {
+      cls.generate(bytecode);
+    }
+
+    return bytecode.size();
+  }
+
+
+
+  /**
+   * Keeps the built classes instead of generating them.
+   */
+  protected static class CapturingCodeGenerator extends JvmCodeGenerator {
+
+    public final List<JvmClass> classes = new ArrayList<>();
+
+    public CapturingCodeGenerator() {
+      super(DefaultJvmStandardLibrary.instance, (className, bytes) -> {});
+    }
+
+    @Override
+    public void exitProgram() {
+      classes.addAll(records);
+      classes.add(program);
+    }
+
+  }
+
+}
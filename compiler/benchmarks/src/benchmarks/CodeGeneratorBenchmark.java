@@ -0,0 +1,48 @@
+package benchmarks;
+
+import generator.CodeGeneratorDriver;
+import generator.JvmCodeGenerator;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+import stdlib.DefaultJvmStandardLibrary;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Runs the {@code CodeGeneratorDriver} with the {@code JvmCodeGenerator} on the analysed sources,
+ * including the generation of the class-files, which are consumed instead of written to disk.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class CodeGeneratorBenchmark {
+
+  @Param({ Inputs.TESTFILES, Inputs.SYNTHETIC_SMALL, Inputs.SYNTHETIC_LARGE })
+  public String input;
+
+  protected List<AnalysedProgram> programs;
+
+  @Setup
+  public void setup() throws IOException {
+    this.programs = new ArrayList<>();
+
+    for (String source : Inputs.load(input)) {
+      programs.add( new AnalysedProgram(source) );
+    }
+  }
+
+  @Benchmark
+  public void generate(Blackhole blackhole) {
+    for (AnalysedProgram program : programs) {
+      final JvmCodeGenerator codeGenerator = new JvmCodeGenerator(DefaultJvmStandardLibrary.instance, (className, bytes) -> blackhole.consume(bytes));
+      new CodeGeneratorDriver(program.unit, program.symbolTable, codeGenerator).visit(program.program);
+    }
+  }
+
+}
@@ -0,0 +1,76 @@
+package benchmarks;
+
+import jvm_class_generator.impl.data_areas.ConstantPool;
+import jvm_class_generator.specs.helpers.Descriptor;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Looks up existing field and method references, like the code generator does for every variable access and call.
+ * The {@code stringKeys} benchmark is the lookup by concatenated keys which the nested tables of the {@code ConstantPool} replaced.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ConstantPoolBenchmark {
+
+  /**
+   * The number of distinct fields and methods.
+   */
+  @Param({ "10", "1000" })
+  public int references;
+
+  protected final String className = "Program";
+  protected final String methodType = Descriptor.METHOD(Descriptor.VOID, Descriptor.INT);
+  protected String[] names;
+
+  protected ConstantPool pool;
+  protected Map<String, Integer> stringKeys;
+
+  @Setup
+  public void setup() {
+    this.names = new String[references];
+    this.pool = new ConstantPool();
+    this.stringKeys = new HashMap<>();
+
+    for (int idx = 0; idx < references; idx++) {
+      names[idx] = "name" + idx;
+
+      int fieldref = pool.addFieldref(className, names[idx], Descriptor.INT);
+      int methodref = pool.addMethodref(className, names[idx], methodType);
+      stringKeys.put("<Fieldref>" + className + "." + names[idx] + ":" + Descriptor.INT, fieldref);
+      stringKeys.put("<Methodref>" + className + "." + names[idx] + ":" + methodType, methodref);
+    }
+  }
+
+  @Benchmark
+  public int tables() {
+    int sum = 0;
+
+    for (String name : names) {
+      sum += pool.addFieldref(className, name, Descriptor.INT);
+      sum += pool.addMethodref(className, name, methodType);
+    }
+
+    return sum;
+  }
+
+  @Benchmark
+  public int stringKeys() {
+    int sum = 0;
+
+    for (String name : names) {
+      sum += stringKeys.get("<Fieldref>" + className + "." + name + ":" + Descriptor.INT);
+      sum += stringKeys.get("<Methodref>" + className + "." + name + ":" + methodType);
+    }
+
+    return sum;
+  }
+
+}
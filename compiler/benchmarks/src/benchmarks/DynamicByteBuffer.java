@@ -1,4 +1,4 @@
-package jvm_class_generator.impl.helpers;
+package benchmarks;
 
 import java.io.ByteArrayOutputStream;
 import java.io.DataOutput;
@@ -7,6 +7,8 @@ import java.io.IOException;
 
 /**
  * Combines the DataOutput interface with the ByteArrayOutputStream.
+ * <br><br>
+ * The class-file generator used it before the {@code ByteWriter}, it is only kept as the baseline of the {@code ByteWriterBenchmark}.
  */
 public class DynamicByteBuffer implements DataOutput {
   
@@ -0,0 +1,74 @@
+package benchmarks;
+
+import compiler.CompilationException;
+import compiler.Compiler;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Provides the source-files the benchmarks are run on, all benchmarks expect to be run from the compiler directory.
+ * <ul>
+ *  <li>{@code testfiles}: all source-files of the {@code testfiles} corpus which compile without errors</li>
+ *  <li>{@code synthetic-small}, {@code synthetic-large}: a generated program with 20 and 400 procedures</li>
+ * </ul>
+ */
+public class Inputs {
+
+  public static final String TESTFILES = "testfiles";
+  public static final String SYNTHETIC_SMALL = "synthetic-small";
+  public static final String SYNTHETIC_LARGE = "synthetic-large";
+
+  public static List<String> load(String input) throws IOException {
+    switch (input) {
+      case TESTFILES: return loadTestfiles(Paths.get("testfiles"));
+      case SYNTHETIC_SMALL: return List.of( generate(20) );
+      case SYNTHETIC_LARGE: return List.of( generate(400) );
+      default: throw new IllegalArgumentException("Unknown benchmark input '" + input + "'!");
+    }
+  }
+
+  protected static String generate(int procedures) {
+    final ProgramGenerator generator = new ProgramGenerator();
+    generator.procedures = procedures;
+    return generator.generate();
+  }
+
+  /**
+   * Loads all source-files of the corpus, which compile successfully, so every phase can be benchmarked on them.
+   */
+  public static List<String> loadTestfiles(Path corpus) throws IOException {
+    final List<Path> files;
+    try (Stream<Path> paths = Files.walk(corpus)) {
+      files = paths.filter(path -> path.toString().endsWith(".yapl")).sorted().collect(Collectors.toList());
+    }
+
+    final List<String> sources = new ArrayList<>();
+    for (Path file : files) {
+      final String source = Files.readString(file);
+      if (compiles(source)) sources.add(source);
+    }
+
+    return sources;
+  }
+
+  /**
+   * Whether the source compiles without errors, internal errors of the compiler are thrown instead of silently emptying the corpus.
+   */
+  protected static boolean compiles(String source) {
+    try {
+      Compiler.compileToMemory(source);
+      return true;
+    }
+    catch (CompilationException ex) {
+      return false;
+    }
+  }
+
+}
@@ -0,0 +1,42 @@
+package benchmarks;
+
+import org.antlr.v4.runtime.CharStreams;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+import parser.YaplLexer;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Tokenizes the sources with the {@code YaplLexer}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class LexerBenchmark {
+
+  @Param({ Inputs.TESTFILES, Inputs.SYNTHETIC_SMALL, Inputs.SYNTHETIC_LARGE })
+  public String input;
+
+  protected List<String> sources;
+
+  @Setup
+  public void setup() throws IOException {
+    this.sources = Inputs.load(input);
+  }
+
+  @Benchmark
+  public void tokenize(Blackhole blackhole) {
+    for (String source : sources) {
+      final YaplLexer lexer = new YaplLexer( CharStreams.fromString(source) );
+      lexer.removeErrorListeners();
+      blackhole.consume( lexer.getAllTokens() );
+    }
+  }
+
+}
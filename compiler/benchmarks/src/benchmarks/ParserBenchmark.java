@@ -0,0 +1,66 @@
+package benchmarks;
+
+import compiler.Compiler;
+import org.antlr.v4.runtime.CharStreams;
+import org.antlr.v4.runtime.CommonTokenStream;
+import org.antlr.v4.runtime.ConsoleErrorListener;
+import org.antlr.v4.runtime.ListTokenSource;
+import org.antlr.v4.runtime.Token;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+import parser.YaplLexer;
+import parser.YaplParser;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Runs {@code YaplParser.program()} on the sources, which are tokenized upfront so only the parser is measured.
+ * The {@code prediction} parameter compares plain full LL parsing with the two-stage parsing of the compiler,
+ * which tries SLL first and only falls back to full LL on syntax errors.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ParserBenchmark {
+
+  @Param({ Inputs.TESTFILES, Inputs.SYNTHETIC_SMALL, Inputs.SYNTHETIC_LARGE })
+  public String input;
+
+  @Param({ "LL", "SLL-then-LL" })
+  public String prediction;
+
+  protected List<List<? extends Token>> tokens;
+
+  @Setup
+  public void setup() throws IOException {
+    this.tokens = new ArrayList<>();
+
+    for (String source : Inputs.load(input)) {
+      final YaplLexer lexer = new YaplLexer( CharStreams.fromString(source) );
+      lexer.removeErrorListeners();
+      tokens.add( lexer.getAllTokens() );
+    }
+  }
+
+  @Benchmark
+  public void parse(Blackhole blackhole) {
+    for (List<? extends Token> programTokens : tokens) {
+      final YaplParser parser = new YaplParser( new CommonTokenStream(new ListTokenSource(programTokens)) );
+
+      if (prediction.equals("LL")) {
+        parser.removeErrorListeners();
+        blackhole.consume( parser.program() );
+      }
+      else {
+        blackhole.consume( Compiler.parseProgram(parser, ConsoleErrorListener.INSTANCE) );
+      }
+    }
+  }
+
+}
@@ -0,0 +1,202 @@
+package benchmarks;
+
+import java.util.Random;
+
+/**
+ * Generates valid Yapl programs of configurable size, to exercise the compiler far beyond the size of the
+ * {@code testfiles} corpus. The same configuration and seed always generate the same program.
+ * <br><br>
+ * The generated programs also terminate when run: loops are bounded by their own counter and
+ * each procedure only calls its predecessor once, outside of any loop.
+ */
+public class ProgramGenerator {
+
+  protected static final int ARRAY_SIZE = 10;
+  protected static final int NESTED_STATEMENTS = 2;
+  protected static final String[] ARITHMETIC_OPS = { "+", "-", "*", "/", "%" };
+  protected static final String[] COMPARISON_OPS = { "<", "<=", ">", ">=", "==", "!=" };
+
+  /**
+   * The number of procedures, every procedure is called from the main program.
+   */
+  public int procedures = 10;
+
+  /**
+   * The number of record types, each record has a field of the previous record type.
+   */
+  public int records = 2;
+
+  /**
+   * The maximal nesting depth of if, while and block statements.
+   * Nested statement-lists contain {@value NESTED_STATEMENTS} statements, only the first of them nests further,
+   * so the program grows linearly with the nesting depth.
+   */
+  public int nestingDepth = 2;
+
+  /**
+   * The number of binary operators in each generated arithmetic expression.
+   */
+  public int expressionSize = 4;
+
+  /**
+   * The number of top-level statements in each procedure.
+   */
+  public int statements = 10;
+
+  public long seed = 42;
+
+  protected Random random;
+  protected StringBuilder program;
+
+
+
+  public String generate() {
+    this.random = new Random(seed);
+    this.program = new StringBuilder();
+
+    line(0, "Program generated");
+    line(0, "Declare");
+    line(1, "Const limit = 100;");
+    line(1, "Const flag = True;");
+    for (int r = 0; r < records; r++) {
+      generateRecord(r);
+    }
+    line(1, "int total;");
+    line(1, "int[] data;");
+
+    for (int p = 0; p < procedures; p++) {
+      generateProcedure(p);
+    }
+
+    line(0, "");
+    line(0, "Begin");
+    line(1, "data := new int[" + ARRAY_SIZE + "];");
+    line(1, "total := 0;");
+    for (int p = 0; p < procedures; p++) {
+      line(1, "total := total + proc" + p + "(" + p + ", total % " + ARRAY_SIZE + ");");
+    }
+    line(1, "writeint(total);");
+    line(1, "writeln();");
+    line(0, "End generated.");
+
+    return program.toString();
+  }
+
+  protected void generateRecord(int r) {
+    line(1, "Record Rec" + r);
+    line(2, "int value;");
+    line(2, "bool valid;");
+    if (r > 0) line(2, "Rec" + (r - 1) + " prev;");
+    line(1, "EndRecord;");
+  }
+
+  protected void generateProcedure(int p) {
+    line(0, "");
+    line(0, "Procedure int proc" + p + "(int a, int b)");
+    line(0, "Declare");
+    line(1, "int x, y;");
+    for (int depth = 0; depth <= nestingDepth; depth++) {
+      line(1, "int i" + depth + ";");
+    }
+    if (records > 0) line(1, "Rec" + (records - 1) + " rec;");
+    line(0, "Begin");
+    line(1, "x := a;");
+    line(1, "y := b;");
+    if (records > 0) line(1, "rec := new Rec" + (records - 1) + ";");
+    if (p > 0) line(1, "x := x + proc" + (p - 1) + "(y, x % " + ARRAY_SIZE + ");");
+
+    generateStatements(1, 0, statements);
+
+    line(1, "Return " + intExpression(expressionSize) + ";");
+    line(0, "End proc" + p + ";");
+  }
+
+  protected void generateStatements(int indent, int depth, int count) {
+    for (int s = 0; s < count; s++) {
+      final boolean mayNest = depth < nestingDepth && (depth == 0 || s == 0);
+      final int kind = random.nextInt( mayNest ? 6 : 3 );
+
+      switch (kind) {
+        case 0 -> line(indent, (random.nextBoolean() ? "x" : "y") + " := " + intExpression(expressionSize) + ";");
+        case 1 -> line(indent, "data[" + random.nextInt(ARRAY_SIZE) + "] := " + intExpression(expressionSize) + ";");
+        case 2 -> generateRecordStatement(indent);
+        case 3 -> {
+          line(indent, "If " + boolExpression() + " Then");
+          generateStatements(indent + 1, depth + 1, NESTED_STATEMENTS);
+          line(indent, "Else");
+          generateStatements(indent + 1, nestingDepth, NESTED_STATEMENTS);
+          line(indent, "EndIf;");
+        }
+        case 4 -> {
+          final String counter = "i" + depth;
+          line(indent, counter + " := 0;");
+          line(indent, "While " + counter + " < 2 And (" + boolExpression() + ") Do");
+          line(indent + 1, counter + " := " + counter + " + 1;");
+          generateStatements(indent + 1, depth + 1, NESTED_STATEMENTS);
+          line(indent, "EndWhile;");
+        }
+        default -> {
+          line(indent, "Begin");
+          generateStatements(indent + 1, depth + 1, NESTED_STATEMENTS);
+          line(indent, "End;");
+        }
+      }
+    }
+  }
+
+  protected void generateRecordStatement(int indent) {
+    if (records == 0) {
+      line(indent, "writeint(" + intExpression(expressionSize) + ");");
+      return;
+    }
+
+    line(indent, "rec.value := " + intExpression(expressionSize) + ";");
+    line(indent, "rec.valid := " + boolExpression() + ";");
+  }
+
+  /**
+   * Generates an int expression with the given number of binary operators, as a randomly shaped tree.
+   */
+  protected String intExpression(int operators) {
+    if (operators == 0) return intOperand();
+
+    final String op = ARITHMETIC_OPS[ random.nextInt(ARITHMETIC_OPS.length) ];
+    final boolean isDivision = op.equals("/") || op.equals("%");
+    final int left = isDivision ? operators - 1 : random.nextInt(operators);
+
+    // never divide by a possibly zero value
+    final String right = isDivision
+      ? String.valueOf( 1 + random.nextInt(9) )
+      : intExpression(operators - 1 - left);
+
+    final String expr = intExpression(left) + " " + op + " " + right;
+    return random.nextInt(3) == 0 ? "(" + expr + ")" : expr;
+  }
+
+  protected String intOperand() {
+    return switch (random.nextInt(7)) {
+      case 0 -> String.valueOf( random.nextInt(1000) );
+      case 1 -> "a";
+      case 2 -> "b";
+      case 3 -> "-x";
+      case 4 -> "data[" + random.nextInt(ARRAY_SIZE) + "]";
+      case 5 -> "#data";
+      default -> "limit";
+    };
+  }
+
+  protected String boolExpression() {
+    final String comparison = "x " + COMPARISON_OPS[ random.nextInt(COMPARISON_OPS.length) ] + " " + intOperand();
+
+    return switch (random.nextInt(3)) {
+      case 0 -> comparison;
+      case 1 -> comparison + " Or flag";
+      default -> comparison + " And y != " + random.nextInt(10);
+    };
+  }
+
+  protected void line(int indent, String code) {
+    program.append("  ".repeat(indent)).append(code).append('\n');
+  }
+
+}
@@ -0,0 +1,173 @@
+package benchmarks;
+
+import compiler.CompilationUnit;
+import compiler.Compiler;
+import compiler.CompilerMetrics;
+import compiler.CompilerSettings;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.List;
+
+/**
+ * Compiles generated programs of growing size and records compile time and allocated memory against the program size.
+ * One dimension of the {@code ProgramGenerator} is doubled in each step, while all others keep their defaults.
+ * <br><br>
+ * The results are written as CSV, together with a gnuplot script plotting time and memory against the number of tokens
+ * on log-log scales, so superlinear behavior shows up as a slope steeper than 1. Steps whose time per token is more than
+ * twice the time per token of the first step are flagged in the printed table.
+ * A step which crashes the compiler ends its series and is reported as well.
+ */
+public class ScalingHarness {
+
+  public static final List<String> DIMENSIONS = List.of("procedures", "records", "nesting", "expression", "statements");
+
+  protected static final int REPETITIONS = 3;
+  protected static final int WARMUP_COMPILATIONS = 20;
+
+  public static void main(String[] args) throws IOException {
+    if (args.length < 2 || args.length > 3 || (!args[0].equals("all") && !DIMENSIONS.contains(args[0]))) {
+      System.out.println("[USAGE]\r\nScalingHarness <all|" + String.join("|", DIMENSIONS) + "> <output-directory> [steps]");
+      System.exit(1);
+    }
+
+    final List<String> dimensions = args[0].equals("all") ? DIMENSIONS : List.of(args[0]);
+    final Path outputDir = Paths.get(args[1]);
+    final int steps = (args.length == 3) ? Integer.parseInt(args[2]) : 8;
+
+    Files.createDirectories(outputDir);
+    warmup();
+
+    for (String dimension : dimensions) {
+      final StringBuilder csv = new StringBuilder("value,lines,tokens,parse_ms,analyse_ms,compile_ms,total_ms,allocated_mb,ns_per_token,bytes_per_token\n");
+      runSeries(dimension, steps, csv);
+
+      Files.writeString( outputDir.resolve("scaling-" + dimension + ".csv"), csv );
+      Files.writeString( outputDir.resolve("scaling-" + dimension + ".gp"), getGnuplotScript(dimension) );
+    }
+
+    System.out.println();
+    System.out.println("Results written to " + outputDir + ", plot them with: gnuplot scaling-<dimension>.gp");
+  }
+
+  protected static void runSeries(String dimension, int steps, StringBuilder csv) {
+    System.out.println();
+    System.out.println("[" + dimension + "]");
+    System.out.println(String.format("%8s %9s %10s %11s %11s %9s   %s", "value", "lines", "tokens", "total ms", "alloc MB", "ns/token", "growth"));
+
+    double firstNanosPerToken = -1;
+    for (int step = 0; step < steps; step++) {
+      final ProgramGenerator generator = new ProgramGenerator();
+      final int value = setDimension(generator, dimension, step);
+      final String source = generator.generate();
+
+      final CompilerMetrics metrics;
+      try {
+        metrics = measure(source);
+      }
+      catch (RuntimeException | StackOverflowError | OutOfMemoryError ex) {
+        System.out.println(String.format("%8d [FAILED] %s", value, ex));
+        return;
+      }
+
+      final long lines = source.lines().count();
+      final long total = metrics.phases.stream().mapToLong(phase -> phase.wallNanos).sum();
+      final long allocated = metrics.phases.stream().mapToLong(phase -> phase.allocatedBytes).sum();
+      final double nanosPerToken = (double) total / metrics.tokens;
+      if (firstNanosPerToken < 0) firstNanosPerToken = nanosPerToken;
+
+      final double growth = nanosPerToken / firstNanosPerToken;
+      System.out.println(String.format("%8d %9d %10d %11.2f %11.2f %9.1f   %.2fx%s",
+        value, lines, metrics.tokens, total / 1e6, allocated / 1e6, nanosPerToken, growth, (growth > 2) ? "  SUPERLINEAR?" : ""));
+
+      csv.append(value).append(',').append(lines).append(',').append(metrics.tokens).append(',')
+        .append( getMillis(metrics, "parse") ).append(',')
+        .append( getMillis(metrics, "analyse") ).append(',')
+        .append( getMillis(metrics, "compile") ).append(',')
+        .append(total / 1e6).append(',')
+        .append(allocated / 1e6).append(',')
+        .append(nanosPerToken).append(',')
+        .append((double) allocated / metrics.tokens).append('\n');
+    }
+  }
+
+  protected static int setDimension(ProgramGenerator generator, String dimension, int step) {
+    final int factor = 1 << step;
+
+    switch (dimension) {
+      case "procedures": return generator.procedures *= factor;
+      case "records": return generator.records *= factor;
+      case "nesting": return generator.nestingDepth *= factor;
+      case "expression": return generator.expressionSize *= factor;
+      case "statements": return generator.statements *= factor;
+      default: throw new IllegalArgumentException("Unknown dimension '" + dimension + "'!");
+    }
+  }
+
+  /**
+   * Compiles the source several times and returns the metrics of the fastest compilation.
+   */
+  protected static CompilerMetrics measure(String source) {
+    CompilerMetrics fastest = null;
+
+    for (int i = 0; i < REPETITIONS; i++) {
+      final CompilerMetrics metrics = compile(source);
+      if (fastest == null || getTotalNanos(metrics) < getTotalNanos(fastest)) fastest = metrics;
+    }
+
+    return fastest;
+  }
+
+  protected static CompilerMetrics compile(String source) {
+    final CompilerSettings settings = new CompilerSettings().forSource(source, null);
+    settings.compile = true;
+
+    final CompilationUnit unit = new CompilationUnit(settings);
+    Compiler.run(unit, (className, bytes) -> {});
+
+    if (unit.hasErrors()) {
+      throw new IllegalStateException("The generated program does not compile: " + unit.errors.get(0).toString(unit));
+    }
+
+    return unit.metrics;
+  }
+
+  protected static void warmup() {
+    final String source = new ProgramGenerator().generate();
+
+    for (int i = 0; i < WARMUP_COMPILATIONS; i++) {
+      compile(source);
+    }
+  }
+
+  protected static long getTotalNanos(CompilerMetrics metrics) {
+    return metrics.phases.stream().mapToLong(phase -> phase.wallNanos).sum();
+  }
+
+  protected static double getMillis(CompilerMetrics metrics, String phaseName) {
+    return metrics.phases.stream().filter(phase -> phase.name.equals(phaseName)).mapToLong(phase -> phase.wallNanos).sum() / 1e6;
+  }
+
+  protected static String getGnuplotScript(String dimension) {
+    return String.join("\n",
+      "set datafile separator ','",
+      "set terminal pngcairo size 1200,500",
+      "set output 'scaling-" + dimension + ".png'",
+      "set multiplot layout 1,2 title 'Scaling with " + dimension + "'",
+      "set logscale xy",
+      "set xlabel 'tokens'",
+      "set key left top",
+      "set ylabel 'time [ms]'",
+      "plot 'scaling-" + dimension + ".csv' using 3:7 with linespoints title 'total', \\",
+      "     '' using 3:4 with linespoints title 'parse', \\",
+      "     '' using 3:5 with linespoints title 'analyse', \\",
+      "     '' using 3:6 with linespoints title 'compile'",
+      "set ylabel 'allocated [MB]'",
+      "plot 'scaling-" + dimension + ".csv' using 3:8 with linespoints title 'allocated'",
+      "unset multiplot",
+      "");
+  }
+
+}
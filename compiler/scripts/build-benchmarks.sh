@@ -0,0 +1,15 @@
+./scripts/build.sh
+
+echo Building benchmarks...
+
+antlrJar="./lib/antlr.jar"
+jmhJars="./lib/jmh-core.jar:./lib/jmh-generator-annprocess.jar:./lib/jopt-simple.jar:./lib/commons-math3.jar"
+
+src="./benchmarks/src"
+bin="./bin"
+benchmarksBin="./benchmarks/bin"
+
+# the JMH annotation processor generates the benchmark harness into the benchmarks bin
+javac -sourcepath $src -classpath $antlrJar:$jmhJars:$bin -d $benchmarksBin $(find $src -name "*.java")
+
+echo Benchmarks built successfully!
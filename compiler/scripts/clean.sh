@@ -1,9 +1,11 @@
 echo Cleaning workspace...
 
 bin="./bin"
+benchmarksBin="./benchmarks/bin"
 parserDir="./src/parser"
 
 rm -rf $bin
+rm -rf $benchmarksBin
 rm -rf $parserDir/Yapl*.java
 
 echo Workspace cleaned successfully!
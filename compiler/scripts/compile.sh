@@ -0,0 +1,34 @@
+# thin client for the compile daemon, takes the same arguments as run.sh
+port="${YAPL_DAEMON_PORT:-7531}"
+tokenFile="$HOME/.yapl-daemon-$port.token"
+
+if [ ! -r "$tokenFile" ]; then
+  echo "[ERROR] Cannot read the token-file $tokenFile of the compile daemon, start one with ./scripts/start-daemon.sh"
+  exit 1
+fi
+
+if ! exec 3<>/dev/tcp/127.0.0.1/$port; then
+  echo "[ERROR] No compile daemon is listening on port $port, start one with ./scripts/start-daemon.sh"
+  exit 1
+fi
+
+{
+  cat "$tokenFile"
+  echo
+  pwd
+  for arg in "$@"; do
+    echo "$arg"
+  done
+  echo
+} >&3
+
+status=1
+while IFS= read -r line <&3; do
+  case "$line" in
+    "#YAPL-EXIT "*) status="${line#\#YAPL-EXIT }" ;;
+    *) echo "$line" ;;
+  esac
+done
+
+exec 3<&-
+exit $status
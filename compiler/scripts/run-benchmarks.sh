@@ -0,0 +1,9 @@
+# runs all benchmarks, or the ones matching the given JMH arguments, e.g. ParserBenchmark -p input=synthetic-large
+antlrJar="./lib/antlr.jar"
+jmhJars="./lib/jmh-core.jar:./lib/jmh-generator-annprocess.jar:./lib/jopt-simple.jar:./lib/commons-math3.jar"
+
+bin="./bin"
+benchmarksBin="./benchmarks/bin"
+mainClass="org.openjdk.jmh.Main"
+
+java -classpath $antlrJar:$jmhJars:$bin:$benchmarksBin $mainClass "$@"
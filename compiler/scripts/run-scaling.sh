@@ -0,0 +1,8 @@
+# compiles generated programs of growing size, e.g. ./scripts/run-scaling.sh all ./scaling 8
+antlrJar="./lib/antlr.jar"
+
+bin="./bin"
+benchmarksBin="./benchmarks/bin"
+mainClass="benchmarks.ScalingHarness"
+
+java -Xss16m -classpath $antlrJar:$bin:$benchmarksBin $mainClass "$@"
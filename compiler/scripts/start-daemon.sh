@@ -0,0 +1,7 @@
+antlrJar="./lib/antlr.jar"
+
+bin="./bin"
+mainClass="compiler.Compiler"
+port="${1:-7531}"
+
+java -classpath $antlrJar:$bin $mainClass --daemon $port
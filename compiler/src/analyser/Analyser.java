@@ -1,26 +1,26 @@
 package analyser;
 
-import compiler.Compiler;
+import ast.*;
+import compiler.CompilationUnit;
 import information.YaplConstants;
 import information.CompilerError;
-import org.antlr.v4.runtime.ParserRuleContext;
-import org.antlr.v4.runtime.Token;
-import org.antlr.v4.runtime.tree.ParseTree;
-import org.antlr.v4.runtime.tree.TerminalNode;
-import parser.YaplBaseListener;
-import parser.YaplParser;
-import parser.YaplParser.*;
 import information.*;
 import information.Record;
 import stdlib.StandardLibrary;
 
 import java.util.Stack;
 
-public class Analyser extends YaplBaseListener {
+public class Analyser extends AstBaseVisitor<Void> {
 
-  public SymbolTable symboltable = new SymbolTable();
+  public SymbolTable symboltable;
+  protected final CompilationUnit unit;
+  protected final ConstantFolder folder;
+
+  public Analyser(CompilationUnit unit, StandardLibrary stdlib) {
+    this.unit = unit;
+    this.symboltable = new SymbolTable(unit.names);
+    this.folder = new ConstantFolder(symboltable);
 
-  public Analyser(StandardLibrary stdlib) {
     for (Symbol sym : stdlib.getPredefinedSymbols()) {
       if (sym.is(Procedure.class)) sym.as(Procedure.class).isStdLib = true;
       symboltable.add(sym);
@@ -30,7 +30,7 @@ public class Analyser extends YaplBaseListener {
 
 
   /**
-   * Since a super pattern does not have a way to return information to parent nodes,
+   * Since the visit methods do not return information to parent nodes,
    * this stack is used to share information between nodes.
    */
   protected Stack<Information> informationStack = new Stack<>();
@@ -57,74 +57,90 @@ public class Analyser extends YaplBaseListener {
   protected boolean isPure = true;
 
   /**
-   * Indicates if the {@code afterProcedureId} listener has already been called for the current procedure.
+   * Indicates if {@code afterProcedureId} has already been called for the current procedure.
    */
   protected boolean procedureIdSet = false;
 
-  @Override
-  public void enterProgram(ProgramContext ctx) {
-    symboltable.openScope();
-  }
+  /**
+   * The name of the program, which the JVM class names of its records are derived from.
+   */
+  protected String programName = null;
 
   @Override
-  public void exitProgram(ProgramContext ctx) {
-    final String name = ctx.Id(0).getText();
-    final String endName = ctx.Id(1).getText();
+  public Void visitProgram(ProgramNode node) {
+    this.programName = node.name.text;
+    symboltable.openScope(node);
+    visitAll(node.declarations);
+
+    this.isLocal = true;
+    visitAll(node.statements);
+    this.isLocal = false;
+
+    final String name = node.name.text;
+    final String endName = node.endName.text;
 
     if (!endName.equals(name)) {
-      Compiler.errors.add(CompilerError.EndIdentMismatch(name, endName, "program", ctx, ctx.Id(1).getSymbol()));
+      unit.addError(CompilerError.EndIdentMismatch(name, endName, "program", node, node.endName));
     }
 
     symboltable.closeScope();
+    return null;
   }
 
   @Override
-  public void exitVarDeclaration(VarDeclarationContext ctx) {
+  public Void visitVarDeclaration(VarDeclarationNode node) {
+    visit(node.type);
+
     final Information typeInfo = informationStack.pop();
-    final String type = (typeInfo.is(CompilerError.class)) ? YaplConstants.UNDEFINED : typeInfo.as(Variable.class).dataType;
+    final Type type = (typeInfo.is(CompilerError.class)) ? Type.UNDEFINED : typeInfo.as(Variable.class).dataType;
 
-    for (TerminalNode id : ctx.Id()) {
-      String name = id.getText();
+    for (Span id : node.names) {
+      String name = id.text;
 
-      if (symboltable.currScope.contains(name)) {
-        Compiler.errors.add(CompilerError.SymbolExists(name, symboltable.get(name).symbolType, ctx, id.getSymbol()));
+      if (symboltable.currScope.contains(id.nameId)) {
+        unit.addError(CompilerError.SymbolExists(name, symboltable.get(id.nameId).symbolType, node, id));
       }
 
       final Symbol symbol = new Variable(name, type, isLocal);
       symboltable.add(symbol);
     }
+
+    return null;
   }
 
   @Override
-  public void exitConstDeclaration(ConstDeclarationContext ctx) {
-    final String name = ctx.Id().getText();
-    ConstantExpression rhs = informationStack.pop().as(ConstantExpression.class);
+  public Void visitConstDeclaration(ConstDeclarationNode node) {
+    visit(node.value);
 
-    if (symboltable.currScope.contains(name)) {
-      Compiler.errors.add(CompilerError.SymbolExists(name, symboltable.get(name).symbolType, ctx, ctx.Id().getSymbol()));
+    final String name = node.name.text;
+    final Information value = informationStack.pop();
+    // a too large int literal is reported already, the constant is still declared to avoid follow-up errors on its uses
+    final ConstantExpression rhs = value.is(CompilerError.class) ? new ConstantExpression(node.value, Type.INT, 0) : value.as(ConstantExpression.class);
+
+    if (symboltable.currScope.contains(node.name.nameId)) {
+      unit.addError(CompilerError.SymbolExists(name, symboltable.get(node.name.nameId).symbolType, node, node.name));
     }
 
     symboltable.add(new Constant(name, rhs.dataType, rhs.value, isLocal));
+    return null;
   }
 
   @Override
-  public void enterRecordDeclaration(RecordDeclarationContext ctx) {
-    final String recordName = ctx.Id().getText();
+  public Void visitRecordDeclaration(RecordDeclarationNode node) {
+    final String recordName = node.name.text;
 
-    if (symboltable.currScope.contains(recordName)) {
-      Compiler.errors.add(CompilerError.SymbolExists(recordName, symboltable.get(recordName).symbolType, ctx, ctx.Id().getSymbol()));
+    if (symboltable.currScope.contains(node.name.nameId)) {
+      unit.addError(CompilerError.SymbolExists(recordName, symboltable.get(node.name.nameId).symbolType, node, node.name));
     }
 
-    symboltable.add(new Record(recordName));
-    symboltable.openScope();
+    symboltable.add(new Record(recordName, programName));
+    symboltable.openScope(node);
     wasLocal = isLocal;
     isLocal = false;
-  }
 
-  @Override
-  public void exitRecordDeclaration(RecordDeclarationContext ctx) {
-    final String recordName = ctx.Id().getText();
-    Record record = symboltable.get(recordName).as(Record.class);
+    visitAll(node.fields);
+
+    Record record = symboltable.get(node.name.nameId).as(Record.class);
 
     for (Symbol sym : symboltable.currScope.symbols.values()) {
       record.fields.put(sym.name, sym.as(Variable.class));
@@ -132,673 +148,635 @@ public class Analyser extends YaplBaseListener {
 
     symboltable.closeScope();
     isLocal = wasLocal;
+    return null;
   }
 
-  public void afterProcedureId(ProcedureContext ctx) {
-    final String procedureName = ctx.Id(0).getText();
+  public void afterProcedureId(ProcedureNode node) {
+    final String procedureName = node.name.text;
     final Information typeInfo = informationStack.pop();
-    final String type = (typeInfo.is(CompilerError.class)) ? YaplConstants.UNDEFINED : typeInfo.as(Variable.class).dataType;
+    final Type type = (typeInfo.is(CompilerError.class)) ? Type.UNDEFINED : typeInfo.as(Variable.class).dataType;
     this.isPure = true;
 
-    if (symboltable.currScope.contains(procedureName)) {
-      Compiler.errors.add(CompilerError.SymbolExists(procedureName, symboltable.get(procedureName).symbolType, ctx, ctx.Id(0).getSymbol()));
+    if (symboltable.currScope.contains(node.name.nameId)) {
+      unit.addError(CompilerError.SymbolExists(procedureName, symboltable.get(node.name.nameId).symbolType, node, node.name));
     }
 
-    symboltable.add(new Procedure(procedureName, type));
-    symboltable.openScope();
+    final Procedure procedure = new Procedure(procedureName, type);
+    symboltable.add(procedure);
+    symboltable.bind(node, procedure);
+    symboltable.openScope(node);
     this.hasReturn = false;
   }
 
   @Override
-  public void exitProcedure(ProcedureContext ctx) {
-    final String name = ctx.Id(0).getText();
-    final String endName = ctx.Id(1).getText();
+  public Void visitProcedure(ProcedureNode node) {
+    visit(node.returnType);
+    visitAll(node.params);
+    visit(node.block);
+
+    final String name = node.name.text;
+    final String endName = node.endName.text;
 
     if (!endName.equals(name)) {
-      Compiler.errors.add(CompilerError.EndIdentMismatch(name, endName, symboltable.get(name).symbolType, ctx, ctx.Id(1).getSymbol()));
+      unit.addError(CompilerError.EndIdentMismatch(name, endName, symboltable.get(node.name.nameId).symbolType, node, node.endName));
     }
 
     symboltable.closeScope();
     isLocal = false;
 
-    if (!symboltable.get(name).as(Procedure.class).returnType.equals(YaplConstants.VOID) && !hasReturn) {
-      Compiler.errors.add(CompilerError.MissingReturn(name, ctx, ctx.block().stop));
+    final Procedure procedure = symboltable.getBinding(node).as(Procedure.class);
+    if (procedure.returnType != Type.VOID && !hasReturn) {
+      unit.addError(CompilerError.MissingReturn(name, node, node.block.stop));
     }
 
-    symboltable.get(name).as(Procedure.class).isPure = isPure;
+    procedure.isPure = isPure;
     this.isPure = true;
     this.procedureIdSet = false;
+    return null;
   }
 
   @Override
-  public void enterBlock(BlockContext ctx) {
-    if (!procedureIdSet && ctx.getParent() instanceof ProcedureContext) {
-      afterProcedureId((ProcedureContext)ctx.getParent());
+  public Void visitBlock(BlockNode node) {
+    if (!procedureIdSet && node.getParent() instanceof ProcedureNode) {
+      afterProcedureId((ProcedureNode)node.getParent());
       this.procedureIdSet = true;
     }
 
-    symboltable.openScope();
-    if (ctx.getParent() instanceof ProcedureContext) {
+    symboltable.openScope(node);
+    if (node.getParent() instanceof ProcedureNode) {
       this.isLocal = true;
     }
-  }
 
-  @Override
-  public void exitBlock(BlockContext ctx) {
+    super.visitBlock(node);
     symboltable.closeScope();
+    return null;
   }
 
   @Override
-  public void enterStatementList(StatementListContext ctx) {
-    if (ctx.getParent() instanceof ProgramContext) {
-      this.isLocal = true;
-    }
-  }
-
-  @Override
-  public void exitStatementList(StatementListContext ctx) {
-    if (ctx.getParent() instanceof ProgramContext) {
-      this.isLocal = false;
-    }
-  }
+  public Void visitAssignment(AssignmentNode node) {
+    visit(node.target);
+    visit(node.value);
 
-  @Override
-  public void exitAssignment(AssignmentContext ctx) {
     final Information rhs = informationStack.pop();
     final Information lhs = informationStack.pop();
 
-    if (!lhs.is(CompilerError.class) && !rhs.is(CompilerError.class) && !lhs.as(Variable.class).dataType.equals(rhs.as(Variable.class).dataType)) {
-      Compiler.errors.add( CompilerError.TypeMismatchAssign(ctx, ctx.op) );
+    if (!lhs.is(CompilerError.class) && !rhs.is(CompilerError.class) && lhs.as(Variable.class).dataType != rhs.as(Variable.class).dataType) {
+      unit.addError( CompilerError.TypeMismatchAssign(node, node.op) );
     }
+
+    return null;
   }
 
   @Override
-  public void exitReturnStatement(ReturnStatementContext ctx) {
-    final String procedureName = CompilerContext.getProcedureName(ctx);
+  public Void visitReturnStatement(ReturnStatementNode node) {
+    visitIfPresent(node.value);
+
+    final String procedureName = CompilerContext.getProcedureName(node);
     this.hasReturn = true;
 
     // inside the main code, return has an expression
-    if (procedureName == null && ctx.expression() != null) {
-      Compiler.errors.add( CompilerError.IllegalRetValMain(ctx.expression(), ctx.expression().start) );
+    if (procedureName == null && node.value != null) {
+      unit.addError( CompilerError.IllegalRetValMain(node.value, node.value.start) );
     }
     // inside a function, return has an expression
-    else if (procedureName != null && ctx.expression() != null) {
+    else if (procedureName != null && node.value != null) {
       final Variable returnSym = informationStack.pop().as(Variable.class);
       final Procedure procedure = symboltable.get(procedureName).as(Procedure.class);
 
       // function has return type void
-      if (procedure.returnType.equals(YaplConstants.VOID)) {
-        Compiler.errors.add( CompilerError.IllegalRetValProc(procedureName, ctx.expression(), ctx.expression().start) );
+      if (procedure.returnType == Type.VOID) {
+        unit.addError( CompilerError.IllegalRetValProc(procedureName, node.value, node.value.start) );
       }
       // return type and expression type do not match
-      else if (!returnSym.dataType.equals(procedure.returnType) && !returnSym.is(CompilerError.class) && !procedure.returnType.equals(YaplConstants.UNDEFINED)) {
-        Compiler.errors.add(
-          (ctx.expression() != null)
-            ? CompilerError.InvalidReturnType(procedureName, ctx.expression(), ctx.expression().start)
-            : CompilerError.InvalidReturnType(procedureName, ctx, ctx.stop)
+      else if (returnSym.dataType != procedure.returnType && !returnSym.is(CompilerError.class) && procedure.returnType != Type.UNDEFINED) {
+        unit.addError(
+          (node.value != null)
+            ? CompilerError.InvalidReturnType(procedureName, node.value, node.value.start)
+            : CompilerError.InvalidReturnType(procedureName, node, node.stop)
         );
       }
     }
     // inside a function, return has no expression, function has a return type other than void
-    else if (ctx.expression() == null && procedureName != null && !symboltable.get(procedureName).as(Procedure.class).returnType.equals(YaplConstants.VOID) && !symboltable.get(procedureName).as(Procedure.class).returnType.equals(YaplConstants.UNDEFINED)) {
-      Compiler.errors.add(
-        (ctx.expression() != null)
-        ? CompilerError.InvalidReturnType(procedureName, ctx.expression(), ctx.expression().start)
-        : CompilerError.InvalidReturnType(procedureName, ctx, ctx.stop)
+    else if (node.value == null && procedureName != null && symboltable.get(procedureName).as(Procedure.class).returnType != Type.VOID && symboltable.get(procedureName).as(Procedure.class).returnType != Type.UNDEFINED) {
+      unit.addError(
+        (node.value != null)
+        ? CompilerError.InvalidReturnType(procedureName, node.value, node.value.start)
+        : CompilerError.InvalidReturnType(procedureName, node, node.stop)
       );
     }
+
+    return null;
   }
 
   @Override
-  public void exitWriteStatement(WriteStatementContext ctx) {
+  public Void visitWriteStatement(WriteStatementNode node) {
     this.isPure = false;
+    return null;
   }
 
   @Override
-  public void exitIfStatement(IfStatementContext ctx) {
+  public Void visitIfStatement(IfStatementNode node) {
+    super.visitIfStatement(node);
     Information condInfo = informationStack.pop();
 
-    if (!condInfo.is(CompilerError.class) && !condInfo.as(Variable.class).dataType.equals(YaplConstants.BOOL)) {
-      Compiler.errors.add( CompilerError.CondNotBool(ctx.expression(), ctx.expression().start) );
+    if (!condInfo.is(CompilerError.class) && condInfo.as(Variable.class).dataType != Type.BOOL) {
+      unit.addError( CompilerError.CondNotBool(node.condition, node.condition.start) );
     }
+
+    return null;
   }
 
   @Override
-  public void exitWhileStatement(WhileStatementContext ctx) {
+  public Void visitWhileStatement(WhileStatementNode node) {
+    super.visitWhileStatement(node);
     Information condInfo = informationStack.pop();
 
-    if (!condInfo.is(CompilerError.class) && !condInfo.as(Variable.class).dataType.equals(YaplConstants.BOOL)) {
-      Compiler.errors.add( CompilerError.CondNotBool(ctx.expression(), ctx.expression().start) );
+    if (!condInfo.is(CompilerError.class) && condInfo.as(Variable.class).dataType != Type.BOOL) {
+      unit.addError( CompilerError.CondNotBool(node.condition, node.condition.start) );
     }
+
+    return null;
   }
 
   @Override
-  public void exitUnaryExpr(UnaryExprContext ctx) {
+  public Void visitUnaryExpr(UnaryExprNode node) {
+    visit(node.operand);
     final Information expr = informationStack.peek();
 
-    if (ctx.sign != null && !expr.is(CompilerError.class) && !expr.as(Variable.class).dataType.equals(YaplConstants.INT)) {
-      final CompilerError error = CompilerError.IllegalOp1Type(ctx.sign.getText(), ctx, ctx.start);
-      Compiler.errors.add(error);
+    if (node.sign != null && !expr.is(CompilerError.class) && expr.as(Variable.class).dataType != Type.INT) {
+      final CompilerError error = CompilerError.IllegalOp1Type(node.sign.text, node, node.start);
+      unit.addError(error);
       informationStack.pop();
       informationStack.push(error);
     }
 
-    if (ctx.sign != null && expr.is(Constant.class)) {
-      Constant csym = expr.as(Constant.class);
-
-      if (!csym.is(ConstantExpression.class)) {
-        informationStack.pop();
-        csym = new ConstantExpression(ctx, csym.dataType, csym.value);
-        informationStack.push(csym);
-      }
-
-
-      if(!(csym.value.startsWith("-") || csym.value.startsWith("+"))) {
-        csym.value = ctx.sign.getText() + csym.value;
-      }
-      else if (csym.value.charAt(0) != ctx.sign.getText().charAt(0)) {
-        csym.value = "-" + csym.value.substring(1);
-      }
-      else {
-        csym.value = csym.value.substring(1);
-      }
+    if (expr.is(Constant.class) && (node.sign == null || expr.as(Constant.class).dataType == Type.INT)) {
+      informationStack.pop();
+      informationStack.push(folder.unary(node, expr.as(Constant.class)));
     }
 
-    afterExpression(ctx);
-  }
-
-  public void afterExpression(ExpressionContext ctx) {
-    if (ctx.getParent() instanceof SelectorContext) {
-      beforeSelector(ctx.getParent());
-    }
+    return null;
   }
 
   @Override
-  public void exitArithmeticExpr(ArithmeticExprContext ctx) {
+  public Void visitArithmeticExpr(ArithmeticExprNode node) {
+    visit(node.left);
+    visit(node.right);
+
     final Information rhs = informationStack.pop();
     final Information lhs = informationStack.pop();
 
-    if (!lhs.is(CompilerError.class) && !rhs.is(CompilerError.class) && !(lhs.as(Variable.class).dataType.equals(YaplConstants.INT) && rhs.as(Variable.class).dataType.equals(YaplConstants.INT))) {
-      final CompilerError error = CompilerError.IllegalOp2Type(ctx.op.getText(), ctx, ctx.op);
-      Compiler.errors.add(error);
+    if (!lhs.is(CompilerError.class) && !rhs.is(CompilerError.class) && !(lhs.as(Variable.class).dataType == Type.INT && rhs.as(Variable.class).dataType == Type.INT)) {
+      final CompilerError error = CompilerError.IllegalOp2Type(node.op.text, node, node.op);
+      unit.addError(error);
       informationStack.push(error);
-      afterExpression(ctx);
-      return;
+      return null;
     }
 
-    if (lhs.is(Constant.class) && rhs.is(Constant.class)) {
-      // remove sub expressions to clean up the symboltable
-      if (lhs.is(ConstantExpression.class)) symboltable.remove(lhs.as(Symbol.class).name);
-      if (rhs.is(ConstantExpression.class)) symboltable.remove(rhs.as(Symbol.class).name);
-
-      Information expr = fold(ctx, ctx.op, lhs.as(Constant.class), rhs.as(Constant.class));
-      informationStack.push(expr);
-      if (!expr.is(CompilerError.class)) symboltable.add(expr.as(Symbol.class));
+    if (folder.dividesByZero(node, rhs)) {
+      // not folded, the division throws an ArithmeticException at runtime
+      unit.addWarning(CompilerError.DivisionByZero(node.op.text, node, node.op));
+      informationStack.push(new Expression(node, Type.INT));
+    }
+    else if (lhs.is(Constant.class) && rhs.is(Constant.class)) {
+      informationStack.push( fold(node, lhs.as(Constant.class), rhs.as(Constant.class)) );
     }
     else {
-      informationStack.push(new Expression(ctx, YaplConstants.INT));
+      final Constant simplified = folder.simplify(node, lhs, rhs);
+      informationStack.push( (simplified != null) ? simplified : new Expression(node, Type.INT) );
     }
 
-    afterExpression(ctx);
+    return null;
   }
 
   @Override
-  public void exitComparison(ComparisonContext ctx) {
+  public Void visitComparison(ComparisonNode node) {
+    visit(node.left);
+    visit(node.right);
+
     final Information rhs = informationStack.pop();
     final Information lhs = informationStack.pop();
 
-    if (!lhs.is(CompilerError.class) && !rhs.is(CompilerError.class) && !(lhs.as(Variable.class).dataType.equals(YaplConstants.INT) && rhs.as(Variable.class).dataType.equals(YaplConstants.INT))) {
-      final CompilerError error = CompilerError.IllegalRelOpType(ctx.op.getText(), ctx, ctx.op);
-      Compiler.errors.add(error);
+    if (!lhs.is(CompilerError.class) && !rhs.is(CompilerError.class) && !(lhs.as(Variable.class).dataType == Type.INT && rhs.as(Variable.class).dataType == Type.INT)) {
+      final CompilerError error = CompilerError.IllegalRelOpType(node.op.text, node, node.op);
+      unit.addError(error);
       informationStack.push(error);
-      afterExpression(ctx);
-      return;
+      return null;
     }
 
     if (lhs.is(Constant.class) && rhs.is(Constant.class)) {
-      // remove sub expressions to clean up the symboltable
-      if (lhs.is(ConstantExpression.class)) symboltable.remove(lhs.as(Symbol.class).name);
-      if (rhs.is(ConstantExpression.class)) symboltable.remove(rhs.as(Symbol.class).name);
-
-      Information expr = fold(ctx, ctx.op, lhs.as(Constant.class), rhs.as(Constant.class));
-      informationStack.push(expr);
-      if (!expr.is(CompilerError.class)) symboltable.add(expr.as(Symbol.class));
+      informationStack.push( fold(node, lhs.as(Constant.class), rhs.as(Constant.class)) );
     }
     else {
-      informationStack.push(new Expression(ctx, YaplConstants.BOOL) );
+      final Constant simplified = folder.simplify(node, lhs, rhs);
+      informationStack.push( (simplified != null) ? simplified : new Expression(node, Type.BOOL) );
     }
 
-    afterExpression(ctx);
+    return null;
   }
 
   @Override
-  public void exitEqualityComparison(EqualityComparisonContext ctx) {
+  public Void visitEqualityComparison(EqualityComparisonNode node) {
+    visit(node.left);
+    visit(node.right);
+
     final Information rhs = informationStack.pop();
     final Information lhs = informationStack.pop();
 
-    if (!lhs.is(CompilerError.class) && !rhs.is(CompilerError.class) && !(lhs.as(Variable.class).dataType.equals(rhs.as(Variable.class).dataType))) {
-      final CompilerError error = CompilerError.IllegalEqualOpType(ctx.op.getText(), ctx, ctx.op);
-      Compiler.errors.add(error);
+    if (!lhs.is(CompilerError.class) && !rhs.is(CompilerError.class) && lhs.as(Variable.class).dataType != rhs.as(Variable.class).dataType) {
+      final CompilerError error = CompilerError.IllegalEqualOpType(node.op.text, node, node.op);
+      unit.addError(error);
       informationStack.push(error);
-      afterExpression(ctx);
-      return;
+      return null;
     }
 
     if (lhs.is(Constant.class) && rhs.is(Constant.class)) {
-      // remove sub expressions to clean up the symboltable
-      if (lhs.is(ConstantExpression.class)) symboltable.remove(lhs.as(Symbol.class).name);
-      if (rhs.is(ConstantExpression.class)) symboltable.remove(rhs.as(Symbol.class).name);
-
-      Information expr = fold(ctx, ctx.op, lhs.as(Constant.class), rhs.as(Constant.class));
-      informationStack.push(expr);
-      if (!expr.is(CompilerError.class)) symboltable.add(expr.as(Symbol.class));
+      informationStack.push( fold(node, lhs.as(Constant.class), rhs.as(Constant.class)) );
     }
     else {
-      informationStack.push(new Expression(ctx, YaplConstants.BOOL) );
+      final Constant simplified = folder.simplify(node, lhs, rhs);
+      informationStack.push( (simplified != null) ? simplified : new Expression(node, Type.BOOL) );
     }
 
-    afterExpression(ctx);
+    return null;
   }
 
   @Override
-  public void exitBooleanExpr(BooleanExprContext ctx) {
+  public Void visitBooleanExpr(BooleanExprNode node) {
+    visit(node.left);
+    visit(node.right);
+
     final Information rhs = informationStack.pop();
     final Information lhs = informationStack.pop();
 
-    if (!lhs.is(CompilerError.class) && !rhs.is(CompilerError.class) && !(lhs.as(Variable.class).dataType.equals(YaplConstants.BOOL) && rhs.as(Variable.class).dataType.equals(YaplConstants.BOOL))) {
-      final CompilerError error = CompilerError.IllegalOp2Type(ctx.op.getText(), ctx, ctx.op);
-      Compiler.errors.add(error);
+    if (!lhs.is(CompilerError.class) && !rhs.is(CompilerError.class) && !(lhs.as(Variable.class).dataType == Type.BOOL && rhs.as(Variable.class).dataType == Type.BOOL)) {
+      final CompilerError error = CompilerError.IllegalOp2Type(node.op.text, node, node.op);
+      unit.addError(error);
       informationStack.push(error);
-      afterExpression(ctx);
-      return;
+      return null;
     }
 
     if (lhs.is(Constant.class) && rhs.is(Constant.class)) {
-      // remove sub expressions to clean up the symboltable
-      if (lhs.is(ConstantExpression.class)) symboltable.remove(lhs.as(Symbol.class).name);
-      if (rhs.is(ConstantExpression.class)) symboltable.remove(rhs.as(Symbol.class).name);
-
-      Information expr = fold(ctx, ctx.op, lhs.as(Constant.class), rhs.as(Constant.class));
-      informationStack.push(expr);
-      if (!expr.is(CompilerError.class)) symboltable.add(expr.as(Symbol.class));
+      informationStack.push( fold(node, lhs.as(Constant.class), rhs.as(Constant.class)) );
     }
     else {
-      informationStack.push(new Expression(ctx, YaplConstants.BOOL) );
+      final Constant simplified = folder.simplify(node, lhs, rhs);
+      informationStack.push( (simplified != null) ? simplified : new Expression(node, Type.BOOL) );
     }
 
-    afterExpression(ctx);
+    return null;
   }
 
   @Override
-  public void exitCreationExpr(CreationExprContext ctx) {
+  public Void visitCreationExpr(CreationExprNode node) {
+    visit(node.baseType);
+    visitAll(node.dimensions);
+
     CompilerError error = null;
-    StringBuilder arraySuffix = new StringBuilder();
 
-    for (int i = 0; i < ctx.expression().size(); i++) {
+    for (int i = 0; i < node.dimensions.size(); i++) {
       final Information expr = informationStack.pop();
 
-      if (!expr.is(CompilerError.class) && !expr.as(Variable.class).dataType.equals(YaplConstants.INT)) {
-        error = CompilerError.BadArraySelector(ctx.expression(ctx.expression().size() - 1 - i), ctx.expression(ctx.expression().size() - 1 - i).start);
-        Compiler.errors.add(error);
+      if (!expr.is(CompilerError.class) && expr.as(Variable.class).dataType != Type.INT) {
+        final ExpressionNode dimension = node.dimensions.get(node.dimensions.size() - 1 - i);
+        error = CompilerError.BadArraySelector(dimension, dimension.start);
+        unit.addError(error);
       }
-
-      arraySuffix.append("[]");
     }
 
     final Information baseType = informationStack.pop();
-    if (ctx.expression().size() == 0 && !baseType.is(CompilerError.class) && baseType.as(Variable.class).isPrimitive()) {
-      error = CompilerError.InvalidNewType(ctx.baseType(), ctx.baseType().start);
-      Compiler.errors.add(error);
+    if (node.dimensions.size() == 0 && !baseType.is(CompilerError.class) && baseType.as(Variable.class).isPrimitive()) {
+      error = CompilerError.InvalidNewType(node.baseType, node.baseType.start);
+      unit.addError(error);
     }
 
-    informationStack.push( (error != null) ? error : new Expression(ctx,baseType.as(Variable.class).dataType + arraySuffix) );
-    afterExpression(ctx);
+    // an unknown base type was already reported when it was resolved
+    if (error == null && baseType.is(CompilerError.class)) error = baseType.as(CompilerError.class);
+
+    if (error != null) {
+      informationStack.push(error);
+      return null;
+    }
+
+    final Expression expr = new Expression(node, baseType.as(Variable.class).dataType.arrayOf(node.dimensions.size()));
+    symboltable.bind(node, expr);
+    informationStack.push(expr);
+    return null;
   }
 
   @Override
-  public void exitArrayLength(ArrayLengthContext ctx) {
+  public Void visitArrayLength(ArrayLengthNode node) {
+    visit(node.array);
     final Information id = informationStack.pop();
 
     if (!id.is(CompilerError.class) && !id.as(Variable.class).isArray()) {
-      final CompilerError error = CompilerError.ArrayLenNotArray(ctx.fullIdentifier(), ctx.fullIdentifier().start);
-      Compiler.errors.add(error);
+      final CompilerError error = CompilerError.ArrayLenNotArray(node.array, node.array.start);
+      unit.addError(error);
       informationStack.push(error);
     }
 
-    informationStack.push( new Expression(ctx, YaplConstants.INT) );
+    informationStack.push( new Expression(node, Type.INT) );
+    return null;
   }
 
   @Override
-  public void exitProcedureCall(ProcedureCallContext ctx) {
-    final String fnName = ctx.Id().getText();
+  public Void visitProcedureCall(ProcedureCallNode node) {
+    visitAll(node.arguments);
+
+    final String fnName = node.name.text;
+    final Symbol fnSymbol = symboltable.get(node.name.nameId);
     CompilerError error = null;
 
-    if (!symboltable.contains(fnName)) {
-      error = CompilerError.IdentNotDecl(fnName, ctx, ctx.Id().getSymbol());
-      Compiler.errors.add(error);
+    if (fnSymbol == null) {
+      error = CompilerError.IdentNotDecl(fnName, node, node.name);
+      unit.addError(error);
     }
 
-    if (error == null && !symboltable.get(fnName).is(Procedure.class)) {
-      error = CompilerError.SymbolIllegalUse(fnName, symboltable.get(fnName).symbolType, ctx, ctx.Id().getSymbol());
-      Compiler.errors.add(error);
+    if (error == null && !fnSymbol.is(Procedure.class)) {
+      error = CompilerError.SymbolIllegalUse(fnName, fnSymbol.symbolType, node, node.name);
+      unit.addError(error);
     }
 
     if (error != null) {
       // clean up symboltrace
-      for (int i = 0; i < ctx.expression().size(); i++) informationStack.pop();
+      for (int i = 0; i < node.arguments.size(); i++) informationStack.pop();
 
       // expressions should return a symbol for the type checks
-      if (ctx.getParent() instanceof PrimaryExprContext) informationStack.push(error);
-      return;
+      if (!node.isStatement) informationStack.push(error);
+      return null;
     }
 
-    Procedure fn = symboltable.get(fnName).as(Procedure.class);
+    Procedure fn = fnSymbol.as(Procedure.class);
+    symboltable.bind(node, fn);
 
-    if (ctx.expression().size() < fn.params.size()) {
-      error = CompilerError.TooFewArgs(fnName, ctx, ctx.stop);
-      Compiler.errors.add(error);
+    if (node.arguments.size() < fn.params.size()) {
+      error = CompilerError.TooFewArgs(fnName, node, node.stop);
+      unit.addError(error);
 
       // clean up symboltrace
-      for (int i = 0; i < ctx.expression().size(); i++) informationStack.pop();
+      for (int i = 0; i < node.arguments.size(); i++) informationStack.pop();
 
       // expressions should return a symbol for the type checks
-      if (ctx.getParent() instanceof PrimaryExprContext) informationStack.push(error);
-      return;
+      if (!node.isStatement) informationStack.push(error);
+      return null;
     }
 
     // reverse the argument symbols since a stack is LIFO
     Stack<Information> args = new Stack<>();
-    for (int i = 0; i < ctx.expression().size(); i++)
+    for (int i = 0; i < node.arguments.size(); i++)
       args.push( informationStack.pop() );
 
     int idx = 0;
     while (args.size() > 0) {
       final Information arg = args.pop();
 
-      if (!arg.is(CompilerError.class) && (idx >= fn.params.size() || !fn.params.get(idx).dataType.equals(arg.as(Variable.class).dataType))) {
-        error = CompilerError.ArgNotApplicable(fnName, idx + 1, ctx.expression(idx), ctx.expression(idx).start);
-        Compiler.errors.add(error);
+      if (!arg.is(CompilerError.class) && (idx >= fn.params.size() || fn.params.get(idx).dataType != arg.as(Variable.class).dataType)) {
+        error = CompilerError.ArgNotApplicable(fnName, idx + 1, node.arguments.get(idx), node.arguments.get(idx).start);
+        unit.addError(error);
       }
 
       idx++;
     }
 
-    if (fn.returnType.equals(YaplConstants.VOID) && ctx.getParent() instanceof PrimaryExprContext) {
-      error = CompilerError.ProcNotFuncExpr(fnName, ctx, ctx.Id().getSymbol());
-      Compiler.errors.add(error);
+    if (fn.returnType == Type.VOID && !node.isStatement) {
+      error = CompilerError.ProcNotFuncExpr(fnName, node, node.name);
+      unit.addError(error);
     }
 
     fn.uses++;
     if (!fn.isPure) this.isPure = false;
 
     // expressions should put information on the symboltrace for type checks
-    if (ctx.getParent() instanceof PrimaryExprContext) {
+    if (!node.isStatement) {
       if (error != null) informationStack.push(error);
       else informationStack.push(
-        (fn.returnType.equals(YaplConstants.UNDEFINED))
+        (fn.returnType == Type.UNDEFINED)
         ? CompilerError.Internal("The Datatype of '" + fn.name + "' was erroneous on declaration, ignore further datatype errors!")
-        : new Expression(ctx, fn.returnType)
+        : new Expression(node, fn.returnType)
       );
     }
+
+    return null;
   }
 
   @Override
-  public void enterParam(ParamContext ctx) {
+  public Void visitParam(ParamNode node) {
     if (!procedureIdSet) {
-      afterProcedureId((ProcedureContext)ctx.getParent());
+      afterProcedureId((ProcedureNode)node.getParent());
       this.procedureIdSet = true;
     }
-  }
 
-  @Override
-  public void exitParam(ParamContext ctx) {
-    final String name = ctx.Id().getText();
+    visit(node.type);
+
+    final String name = node.name.text;
     final Parameter sym = new Parameter(name, informationStack.pop().as(Variable.class).dataType);
 
-    if (symboltable.currScope.contains(name)) {
-      Compiler.errors.add(CompilerError.SymbolExists(name, symboltable.get(name).symbolType, ctx, ctx.Id().getSymbol()));
+    if (symboltable.currScope.contains(node.name.nameId)) {
+      unit.addError(CompilerError.SymbolExists(name, symboltable.get(node.name.nameId).symbolType, node, node.name));
     }
     else {
       symboltable.add(sym);
     }
 
-    final Procedure procedure = symboltable.get(CompilerContext.getProcedureName(ctx), symboltable.currScope.parent).as(Procedure.class);
+    final Procedure procedure = symboltable.getBinding(node.getParent()).as(Procedure.class);
     procedure.params.add(sym);
+    return null;
   }
 
   @Override
-  public void exitReturnType(ReturnTypeContext ctx) {
-    if (ctx.type() != null && !informationStack.peek().is(CompilerError.class)) {
-      informationStack.pop();
-      informationStack.push(new Expression(ctx, ctx.getText()));
+  public Void visitReturnType(ReturnTypeNode node) {
+    visitIfPresent(node.type);
+
+    if (node.type != null && !informationStack.peek().is(CompilerError.class)) {
+      informationStack.push(new Expression(node, informationStack.pop().as(Variable.class).dataType));
     }
-    else if (ctx.type() == null) {
-      informationStack.push(new Expression(ctx, YaplConstants.VOID));
+    else if (node.type == null) {
+      informationStack.push(new Expression(node, Type.VOID));
     }
+
+    return null;
   }
 
   @Override
-  public void exitType(TypeContext ctx) {
+  public Void visitType(TypeNode node) {
+    visit(node.baseType);
+
     if (!informationStack.peek().is(CompilerError.class)) {
-      informationStack.pop();
-      informationStack.push(new Expression(ctx, ctx.getText()));
+      final Type baseType = informationStack.pop().as(Variable.class).dataType;
+      informationStack.push(new Expression(node, baseType.arrayOf(node.dimensions)));
     }
+
+    return null;
   }
 
   @Override
-  public void exitBaseType(BaseTypeContext ctx) {
-    final String type = ctx.getText();
+  public Void visitBaseType(BaseTypeNode node) {
+    final String type = node.getText();
+    final Symbol record = node.isIdentifier ? symboltable.get(node.start.nameId) : null;
 
-    if (ctx.Id() != null && !symboltable.contains(type)) {
-      final CompilerError error = CompilerError.IdentNotDecl(type, ctx, ctx.Id().getSymbol());
-      Compiler.errors.add(error);
+    if (node.isIdentifier && record == null) {
+      final CompilerError error = CompilerError.IdentNotDecl(type, node, node.start);
+      unit.addError(error);
       informationStack.push(error);
     }
-    else if (ctx.Id() != null && !symboltable.get(type).is(Record.class)) {
-      final CompilerError error = CompilerError.SymbolIllegalUse(type, symboltable.get(type).symbolType, ctx, ctx.Id().getSymbol());
-      Compiler.errors.add(error);
+    else if (node.isIdentifier && !record.is(Record.class)) {
+      final CompilerError error = CompilerError.SymbolIllegalUse(type, record.symbolType, node, node.start);
+      unit.addError(error);
       informationStack.push(error);
     }
+    else if (node.isIdentifier) {
+      informationStack.push(new Expression(node, record.as(Record.class).type));
+    }
     else {
-      informationStack.push(new Expression(ctx, type));
+      informationStack.push(new Expression(node, type.equals(YaplConstants.INT) ? Type.INT : Type.BOOL));
     }
+
+    return null;
   }
 
   @Override
-  public void exitLiteral(LiteralContext ctx) {
-    informationStack.push(
-      (ctx.Boolean() != null)
-      ? new ConstantExpression(ctx, YaplConstants.BOOL, ctx.Boolean().getText())
-      : new ConstantExpression(ctx, YaplConstants.INT, ctx.Number().getText())
-    );
+  public Void visitLiteral(LiteralNode node) {
+    final ConstantExpression constant = folder.literal(node);
+
+    if (constant == null) {
+      final CompilerError error = CompilerError.IntLiteralTooLarge(node.getValue(), node, node.start);
+      unit.addError(error);
+      informationStack.push(error);
+    }
+    else {
+      informationStack.push(constant);
+    }
+
+    return null;
+  }
+
+  @Override
+  public Void visitFullIdentifier(FullIdentifierNode node) {
+    selectIdentifier(node);
+    visitIfPresent(node.selector);
+    return null;
   }
 
   @Override
-  public void visitTerminal(TerminalNode node) {
-    final boolean isId = (node.getSymbol().getType() == YaplParser.Id);
-    if (isId && (node.getParent() instanceof SelectorContext || node.getParent() instanceof FullIdentifierContext)) {
-      beforeSelector(node.getParent());
+  public Void visitSelector(SelectorNode node) {
+    if (node.field != null) {
+      selectRecordField(node);
     }
+    else {
+      visit(node.index);
+      selectArrayElement(node);
+    }
+
+    visitIfPresent(node.next);
+    return null;
   }
 
-  public void beforeSelector(ParseTree ctx) {
-    // first part of the full identifier
-    if (ctx instanceof FullIdentifierContext) {
-      FullIdentifierContext fictx = (FullIdentifierContext)ctx;
-      final String name = fictx.Id().getText();
+  /**
+   * First part of a full identifier.
+   */
+  protected void selectIdentifier(FullIdentifierNode node) {
+    final String name = node.name.text;
+    // resolved once by the ID of the name, without hashing the name
+    final Symbol symbol = symboltable.get(node.name.nameId);
+
+    if (symbol == null) {
+      CompilerError error = CompilerError.IdentNotDecl(name, node, node.name);
+      unit.addError(error);
+      informationStack.push(error);
+      return;
+    }
 
-      if (!symboltable.contains(name)) {
-        CompilerError error = CompilerError.IdentNotDecl(name, fictx, fictx.Id().getSymbol());
-        Compiler.errors.add(error);
-        informationStack.push(error);
-        return;
-      }
+    final boolean constAllowed = !(node.getParent() instanceof AssignmentNode || node.getParent() instanceof ArrayLengthNode);
+    if (!(symbol.isUserDefinedVariable() && (constAllowed || !symbol.is(Constant.class)))) {
+      CompilerError error = CompilerError.SymbolIllegalUse(name, symbol.symbolType, node, node.name);
+      unit.addError(error);
+      informationStack.push(error);
+      return;
+    }
 
-      final boolean constAllowed = !(fictx.getParent() instanceof AssignmentContext || fictx.getParent() instanceof ArrayLengthContext);
-      if (!(symboltable.get(name).isUserDefinedVariable() && (constAllowed || !symboltable.get(name).is(Constant.class)))) {
-        CompilerError error = CompilerError.SymbolIllegalUse(name, symboltable.get(name).symbolType, fictx, fictx.Id().getSymbol());
-        Compiler.errors.add(error);
-        informationStack.push(error);
-        return;
-      }
+    if (!symbol.is(Constant.class) && !symbol.as(Variable.class).isLocal)
+      this.isPure = false;
 
-      if (!symboltable.get(name).is(Constant.class) && !symboltable.get(name).as(Variable.class).isLocal)
-        this.isPure = false;
+    symboltable.bind(node, symbol);
 
-      informationStack.push(
-        (symboltable.get(name).as(Variable.class).dataType.equals(YaplConstants.UNDEFINED))
-        ? CompilerError.Internal("The Datatype of '" + name + "' was erroneous on declaration, ignore further datatype errors!")
-        : symboltable.get(name)
-      );
+    informationStack.push(
+      (symbol.as(Variable.class).dataType == Type.UNDEFINED)
+      ? CompilerError.Internal("The Datatype of '" + name + "' was erroneous on declaration, ignore further datatype errors!")
+      : symbol
+    );
+  }
+
+  /**
+   * Record selector of a full identifier.
+   */
+  protected void selectRecordField(SelectorNode node) {
+    Information id = informationStack.pop();
+
+    if (!id.is(CompilerError.class) && !id.as(Variable.class).dataType.isRecord()) {
+      final CompilerError error = CompilerError.SelectorNotRecord(node, node.field);
+      unit.addError(error);
+      informationStack.push(error);
+      return;
     }
-    // (optional) selector part(s) of a full identifier
-    else {
-      SelectorContext sctx = (SelectorContext)ctx;
 
-      // record selector
-      if (sctx.Id() != null) {
-        Information id = informationStack.pop();
+    Symbol selId = id.as(Variable.class).selectField(node.field.text);
 
-        if (!id.is(CompilerError.class) && (!symboltable.contains(id.as(Variable.class).dataType) || !symboltable.get(id.as(Variable.class).dataType).is(Record.class))) {
-          final CompilerError error = CompilerError.SelectorNotRecord(sctx, sctx.Id().getSymbol());
-          Compiler.errors.add(error);
-          informationStack.push(error);
-          return;
-        }
+    if (selId == null) {
+      final CompilerError error = CompilerError.InvalidRecordField(node.field.text, id.as(Variable.class).dataType.name, node, node.field);
+      unit.addError(error);
+      informationStack.push(error);
+      return;
+    }
 
-        Symbol selId = id.as(Variable.class).selectField(symboltable, sctx.Id().getText());
+    symboltable.bind(node, selId);
+    informationStack.push(selId);
+  }
 
-        if (selId == null) {
-          final CompilerError error = CompilerError.InvalidRecordField(sctx.Id().getText(), id.as(Variable.class).dataType, sctx, sctx.Id().getSymbol());
-          Compiler.errors.add(error);
-          informationStack.push(error);
-          return;
-        }
+  /**
+   * Array selector of a full identifier, after its index expression.
+   */
+  protected void selectArrayElement(SelectorNode node) {
+    Information expr = informationStack.pop();
+    Information id = informationStack.peek();
 
-        informationStack.push(selId);
-      }
-      // array selector
-      else {
-        Information expr = informationStack.pop();
-        Information id = informationStack.peek();
-
-        if (!id.is(CompilerError.class) && !id.as(Variable.class).isArray()) {
-          final CompilerError error = CompilerError.SelectorNotArray(sctx, sctx.start);
-          Compiler.errors.add(error);
-          informationStack.pop();
-          informationStack.push(error);
-          return;
-        }
-
-        if (!expr.is(CompilerError.class) && !expr.as(Variable.class).dataType.equals(YaplConstants.INT)) {
-          final CompilerError error = CompilerError.BadArraySelector(sctx.expression(), sctx.expression().start);
-          Compiler.errors.add(error);
-          informationStack.pop();
-          informationStack.push(error);
-          return;
-        }
-
-        if (!expr.is(CompilerError.class) && !id.is(CompilerError.class)) {
-          informationStack.pop();
-          informationStack.push( id.as(Variable.class).selectElement() );
-        }
-        else if (expr.is(CompilerError.class)) {
-          informationStack.pop();
-          informationStack.push(expr);
-        }
-      }
+    if (!id.is(CompilerError.class) && !id.as(Variable.class).isArray()) {
+      final CompilerError error = CompilerError.SelectorNotArray(node, node.start);
+      unit.addError(error);
+      informationStack.pop();
+      informationStack.push(error);
+      return;
     }
-  }
 
-  public Information fold(ParserRuleContext context, Token op, Constant lhs, Constant rhs) {
-    int ilhs, irhs;
-    boolean blhs, brhs;
-
-    switch (op.getText()) {
-      case "+":
-        ilhs = Integer.parseInt(lhs.value);
-        irhs = Integer.parseInt(rhs.value);
-        return new ConstantExpression(context, YaplConstants.INT, "" + (ilhs + irhs));
-
-      case "-":
-        ilhs = Integer.parseInt(lhs.value);
-        irhs = Integer.parseInt(rhs.value);
-        return new ConstantExpression(context, YaplConstants.INT, "" + (ilhs - irhs));
-
-      case "*":
-        ilhs = Integer.parseInt(lhs.value);
-        irhs = Integer.parseInt(rhs.value);
-        return new ConstantExpression(context, YaplConstants.INT, "" + (ilhs * irhs));
-
-      case "/":
-        ilhs = Integer.parseInt(lhs.value);
-        irhs = Integer.parseInt(rhs.value);
-        return new ConstantExpression(context, YaplConstants.INT, "" + (ilhs / irhs));
-
-      case "%":
-        ilhs = Integer.parseInt(lhs.value);
-        irhs = Integer.parseInt(rhs.value);
-        return new ConstantExpression(context, YaplConstants.INT, "" + (ilhs % irhs));
-
-      case "==":
-        if (lhs.dataType.equals(YaplConstants.INT)) {
-          ilhs = Integer.parseInt(lhs.value);
-          irhs = Integer.parseInt(rhs.value);
-          return new ConstantExpression(context, YaplConstants.BOOL, (ilhs == irhs) ? YaplConstants.TRUE : YaplConstants.FALSE);
-        }
-        else {
-          blhs = lhs.value.equals(YaplConstants.TRUE);
-          brhs = rhs.value.equals(YaplConstants.TRUE);
-          return new ConstantExpression(context, YaplConstants.BOOL, (blhs == brhs) ? YaplConstants.TRUE : YaplConstants.FALSE);
-        }
-
-      case "!=":
-        if (lhs.dataType.equals(YaplConstants.INT)) {
-          ilhs = Integer.parseInt(lhs.value);
-          irhs = Integer.parseInt(rhs.value);
-          return new ConstantExpression(context, YaplConstants.BOOL, (ilhs != irhs) ? YaplConstants.TRUE : YaplConstants.FALSE);
-        }
-        else {
-          blhs = lhs.value.equals(YaplConstants.TRUE);
-          brhs = rhs.value.equals(YaplConstants.TRUE);
-          return new ConstantExpression(context, YaplConstants.BOOL, (blhs != brhs) ? YaplConstants.TRUE : YaplConstants.FALSE);
-        }
-
-      case "<":
-        ilhs = Integer.parseInt(lhs.value);
-        irhs = Integer.parseInt(rhs.value);
-        return new ConstantExpression(context, YaplConstants.BOOL, (ilhs < irhs) ? YaplConstants.TRUE : YaplConstants.FALSE);
-
-      case ">":
-        ilhs = Integer.parseInt(lhs.value);
-        irhs = Integer.parseInt(rhs.value);
-        return new ConstantExpression(context, YaplConstants.BOOL, (ilhs > irhs) ? YaplConstants.TRUE : YaplConstants.FALSE);
-
-      case "<=":
-        ilhs = Integer.parseInt(lhs.value);
-        irhs = Integer.parseInt(rhs.value);
-        return new ConstantExpression(context, YaplConstants.BOOL, (ilhs <= irhs) ? YaplConstants.TRUE : YaplConstants.FALSE);
-
-      case ">=":
-        ilhs = Integer.parseInt(lhs.value);
-        irhs = Integer.parseInt(rhs.value);
-        return new ConstantExpression(context, YaplConstants.BOOL, (ilhs >= irhs) ? YaplConstants.TRUE : YaplConstants.FALSE);
-
-      case "And":
-        blhs = lhs.value.equals(YaplConstants.TRUE);
-        brhs = rhs.value.equals(YaplConstants.TRUE);
-        return new ConstantExpression(context, YaplConstants.BOOL, (blhs && brhs) ? YaplConstants.TRUE : YaplConstants.FALSE);
-
-      case "Or":
-        blhs = lhs.value.equals(YaplConstants.TRUE);
-        brhs = rhs.value.equals(YaplConstants.TRUE);
-        return new ConstantExpression(context, YaplConstants.BOOL, (blhs || brhs) ? YaplConstants.TRUE : YaplConstants.FALSE);
-
-      default:
-        CompilerError error = CompilerError.Internal("Unknown op '" + op.getText() + "' for constant folding!", context, op);
-        Compiler.errors.add(error);
-        return error;
+    if (!expr.is(CompilerError.class) && expr.as(Variable.class).dataType != Type.INT) {
+      final CompilerError error = CompilerError.BadArraySelector(node.index, node.index.start);
+      unit.addError(error);
+      informationStack.pop();
+      informationStack.push(error);
+      return;
+    }
+
+    if (!expr.is(CompilerError.class) && !id.is(CompilerError.class)) {
+      informationStack.pop();
+      final Variable element = id.as(Variable.class).selectElement();
+      symboltable.bind(node, element);
+      informationStack.push(element);
     }
+    else if (expr.is(CompilerError.class)) {
+      informationStack.pop();
+      informationStack.push(expr);
+    }
+  }
+
+  /**
+   * Folds an expression with two constant operands, see {@code ConstantFolder}.
+   */
+  public Information fold(BinaryExprNode node, Constant lhs, Constant rhs) {
+    final ConstantExpression constant = folder.binary(node, lhs, rhs);
+    if (constant != null) return constant;
+
+    CompilerError error = CompilerError.Internal("Unknown op '" + node.op.text + "' for constant folding!", node, node.op);
+    unit.addError(error);
+    return error;
   }
 
 }
@@ -0,0 +1,265 @@
+package analyser;
+
+import ast.*;
+import information.*;
+
+/**
+ * Folds constant expressions during the analysis, the folded constants are stored by their expression node in the symbol table.
+ * <br><br>
+ * All values are computed on primitives with the semantics of the JVM, i.e. {@code int} arithmetic wraps around on overflow
+ * and {@code bool} values are 1 for {@code True} and 0 for {@code False}.
+ * Expressions with a single constant operand are simplified by algebraic identities:
+ * <ul>
+ *   <li>absorbing operands make the expression constant, e.g. {@code x * 0} or {@code x Or True}, if the other operand has no side effects</li>
+ *   <li>neutral operands are dropped, e.g. {@code x + 0}, {@code x * 1} or {@code x And True}</li>
+ *   <li>constant addends and factors of nested expressions are combined, e.g. {@code (x + 1) - 3} to {@code x - 2}</li>
+ * </ul>
+ */
+public class ConstantFolder {
+
+  protected final SymbolTable symboltable;
+
+  public ConstantFolder(SymbolTable symboltable) {
+    this.symboltable = symboltable;
+  }
+
+
+
+  /**
+   * The magnitude of {@code Integer.MIN_VALUE}, the largest int literal, which is only valid as the operand of a unary minus.
+   */
+  protected static final long MAX_LITERAL = 2147483648L;
+
+  /**
+   * Folds the literal, {@code null} if it is an int literal too large for the int type.
+   * {@code 2147483648} folds to {@code Integer.MIN_VALUE}, which the unary minus keeps, so {@code -2147483648} is exact.
+   */
+  public ConstantExpression literal(LiteralNode node) {
+    final ConstantExpression constant;
+
+    if (node.isBoolean) {
+      constant = new ConstantExpression(node, node.getValue().equals(YaplConstants.TRUE));
+    }
+    else {
+      final long value = parseInt(node.getValue());
+      if (value > Integer.MAX_VALUE && !(value == MAX_LITERAL && isNegated(node))) return null;
+      constant = new ConstantExpression(node, Type.INT, (int)value);
+    }
+
+    symboltable.addConstant(node, constant);
+    return constant;
+  }
+
+  /**
+   * The value of the digits, any value above {@code MAX_LITERAL} is returned as {@code MAX_LITERAL + 1}.
+   */
+  protected static long parseInt(String digits) {
+    long value = 0;
+
+    for (int i = 0; i < digits.length(); i++) {
+      value = 10 * value + (digits.charAt(i) - '0');
+      if (value > MAX_LITERAL) return MAX_LITERAL + 1;
+    }
+
+    return value;
+  }
+
+  /**
+   * Whether the literal is the direct operand of a unary minus, like in Java {@code -(2147483648)} is not.
+   */
+  protected static boolean isNegated(LiteralNode node) {
+    return node.getParent() instanceof UnaryExprNode
+      && ((UnaryExprNode)node.getParent()).sign != null
+      && ((UnaryExprNode)node.getParent()).sign.text.equals("-");
+  }
+
+  /**
+   * Applies the sign of the unary expression to its constant operand, which has to be an {@code int} if there is a sign.
+   */
+  public Constant unary(UnaryExprNode node, Constant operand) {
+    final Constant constant = (node.sign != null && node.sign.text.equals("-"))
+      ? new ConstantExpression(node, Type.INT, -operand.value)
+      : operand;
+
+    symboltable.addConstant(node, constant);
+    return constant;
+  }
+
+  /**
+   * Whether the expression divides by a constant zero, such expressions are not folded but left to throw at runtime.
+   */
+  public boolean dividesByZero(BinaryExprNode node, Information rhs) {
+    return (node.op.text.equals("/") || node.op.text.equals("%")) && rhs.is(Constant.class) && rhs.as(Constant.class).value == 0;
+  }
+
+  /**
+   * Folds an expression with two constant operands, {@code null} if the operator is unknown.
+   * Divisions by zero have to be excluded by {@code dividesByZero} first.
+   */
+  public ConstantExpression binary(BinaryExprNode node, Constant lhs, Constant rhs) {
+    final ConstantExpression constant = compute(node, lhs.value, rhs.value);
+    if (constant == null) return null;
+
+    // the folded operands are never generated
+    symboltable.removeConstant(node.left).removeConstant(node.right);
+    symboltable.addConstant(node, constant);
+    return constant;
+  }
+
+  protected ConstantExpression compute(BinaryExprNode node, int lhs, int rhs) {
+    switch (node.op.text) {
+      case "+": return new ConstantExpression(node, Type.INT, lhs + rhs);
+      case "-": return new ConstantExpression(node, Type.INT, lhs - rhs);
+      case "*": return new ConstantExpression(node, Type.INT, lhs * rhs);
+      case "/": return new ConstantExpression(node, Type.INT, lhs / rhs);
+      case "%": return new ConstantExpression(node, Type.INT, lhs % rhs);
+
+      // bool values are compared as ints
+      case "==": return new ConstantExpression(node, lhs == rhs);
+      case "!=": return new ConstantExpression(node, lhs != rhs);
+
+      case "<": return new ConstantExpression(node, lhs < rhs);
+      case ">": return new ConstantExpression(node, lhs > rhs);
+      case "<=": return new ConstantExpression(node, lhs <= rhs);
+      case ">=": return new ConstantExpression(node, lhs >= rhs);
+
+      case "And": return new ConstantExpression(node, lhs != 0 && rhs != 0);
+      case "Or": return new ConstantExpression(node, lhs != 0 || rhs != 0);
+
+      default: return null;
+    }
+  }
+
+
+
+  /**
+   * Simplifies an expression with exactly one constant operand, the simplification is stored by the expression node.
+   *
+   * @return the constant the expression was folded to, {@code null} if it is still an expression
+   */
+  public Constant simplify(BinaryExprNode node, Information lhs, Information rhs) {
+    if (lhs.is(CompilerError.class) || rhs.is(CompilerError.class) || lhs.is(Constant.class) == rhs.is(Constant.class)) return null;
+
+    final boolean isConstantLeft = lhs.is(Constant.class);
+    final int value = (isConstantLeft ? lhs : rhs).as(Constant.class).value;
+    final ExpressionNode operand = isConstantLeft ? node.right : node.left;
+
+    switch (node.op.text) {
+      case "+":
+        return add(node, operand, value);
+
+      case "-":
+        return isConstantLeft ? null : add(node, operand, -value);
+
+      case "*":
+        return multiply(node, operand, value);
+
+      case "/":
+        if (!isConstantLeft && value == 1) symboltable.addSimplification(node, new Simplification(operand));
+        return null;
+
+      case "%":
+        return (!isConstantLeft && (value == 1 || value == -1)) ? absorb(node, operand, new ConstantExpression(node, Type.INT, 0)) : null;
+
+      // the right operand of a short-circuited operator is never evaluated, so a constant left operand always absorbs it
+      case "And":
+        if (value != 0) symboltable.addSimplification(node, new Simplification(operand));
+        else if (isConstantLeft) return fold(node, new ConstantExpression(node, false));
+        else return absorb(node, operand, new ConstantExpression(node, false));
+        return null;
+
+      case "Or":
+        if (value == 0) symboltable.addSimplification(node, new Simplification(operand));
+        else if (isConstantLeft) return fold(node, new ConstantExpression(node, true));
+        else return absorb(node, operand, new ConstantExpression(node, true));
+        return null;
+
+      default:
+        return null;
+    }
+  }
+
+  /**
+   * {@code operand + addend}, combined with the constant addend of the operand if it was simplified itself.
+   */
+  protected Constant add(BinaryExprNode node, ExpressionNode operand, int addend) {
+    ExpressionNode base = operand;
+    int sum = addend;
+
+    final Simplification nested = symboltable.getSimplification(unwrap(operand));
+    if (nested != null && (nested.op == null || nested.op.equals("+") || nested.op.equals("-"))) {
+      base = nested.operand;
+      if (nested.op != null) sum += nested.op.equals("+") ? nested.constant.value : -nested.constant.value;
+    }
+
+    if (sum == 0) symboltable.addSimplification(node, new Simplification(base));
+    else if (sum < 0 && sum != Integer.MIN_VALUE) symboltable.addSimplification(node, new Simplification(base, "-", new ConstantExpression(node, Type.INT, -sum)));
+    else symboltable.addSimplification(node, new Simplification(base, "+", new ConstantExpression(node, Type.INT, sum)));
+    return null;
+  }
+
+  /**
+   * {@code operand * factor}, combined with the constant factor of the operand if it was simplified itself.
+   */
+  protected Constant multiply(BinaryExprNode node, ExpressionNode operand, int factor) {
+    ExpressionNode base = operand;
+    int product = factor;
+
+    final Simplification nested = symboltable.getSimplification(unwrap(operand));
+    if (nested != null && (nested.op == null || nested.op.equals("*"))) {
+      base = nested.operand;
+      if (nested.op != null) product *= nested.constant.value;
+    }
+
+    if (product == 1) symboltable.addSimplification(node, new Simplification(base));
+    else if (product == 0 && !hasSideEffects(base)) return fold(node, new ConstantExpression(node, Type.INT, 0));
+    else symboltable.addSimplification(node, new Simplification(base, "*", new ConstantExpression(node, Type.INT, product)));
+    return null;
+  }
+
+  /**
+   * The constant absorbs the operand, unless evaluating the operand has side effects which have to be kept.
+   */
+  protected Constant absorb(BinaryExprNode node, ExpressionNode operand, ConstantExpression constant) {
+    return hasSideEffects(operand) ? null : fold(node, constant);
+  }
+
+  protected Constant fold(BinaryExprNode node, ConstantExpression constant) {
+    symboltable.addConstant(node, constant);
+    return constant;
+  }
+
+  /**
+   * Parentheses without a sign generate just their expression.
+   */
+  protected ExpressionNode unwrap(ExpressionNode node) {
+    while (node instanceof UnaryExprNode && ((UnaryExprNode)node).sign == null && ((UnaryExprNode)node).operand instanceof ParenthesizedExprNode) {
+      node = ((ParenthesizedExprNode)((UnaryExprNode)node).operand).expression;
+    }
+
+    return node;
+  }
+
+  /**
+   * Whether evaluating the node could have side effects, i.e. call a procedure, allocate memory or throw an exception.
+   * Only literals, constants, plain variables and operators which cannot throw are free of side effects.
+   */
+  protected boolean hasSideEffects(Node node) {
+    if (symboltable.getConstant(node) != null || node instanceof LiteralNode) return false;
+
+    // selectors can throw on null references or indices out of bounds
+    if (node instanceof FullIdentifierNode) return ((FullIdentifierNode)node).selector != null;
+    if (node instanceof UnaryExprNode) return hasSideEffects(((UnaryExprNode)node).operand);
+    if (node instanceof ParenthesizedExprNode) return hasSideEffects(((ParenthesizedExprNode)node).expression);
+
+    if (node instanceof BinaryExprNode) {
+      final BinaryExprNode binary = (BinaryExprNode)node;
+      // divisions can throw on a zero divisor
+      if (binary.op.text.equals("/") || binary.op.text.equals("%")) return true;
+      return hasSideEffects(binary.left) || hasSideEffects(binary.right);
+    }
+
+    return true;
+  }
+
+}
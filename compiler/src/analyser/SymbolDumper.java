@@ -1,37 +1,40 @@
 package analyser;
 
-import org.antlr.v4.runtime.tree.ParseTree;
-import org.antlr.v4.runtime.tree.TerminalNode;
-
-import parser.YaplBaseVisitor;
-import parser.YaplParser.*;
+import ast.*;
 import information.*;
 
-public class SymbolDumper extends YaplBaseVisitor<Void> {
+import java.io.PrintStream;
+
+public class SymbolDumper extends AstBaseVisitor<Void> {
 
   protected SymbolTable symboltable = null;
+  protected PrintStream out = null;
   protected String indent = "";
 
   public SymbolDumper(SymbolTable symbolTable) {
+    this(symbolTable, System.out);
+  }
+
+  public SymbolDumper(SymbolTable symbolTable, PrintStream out) {
     this.symboltable = symbolTable;
+    this.out = out;
     symbolTable.resetCursor();
   }
 
   @Override
-  public Void visitProgram(ProgramContext ctx) {
-    final String name = ctx.Id(0).getText();
-    System.out.println("PROGRAM " + name + ":");
+  public Void visitProgram(ProgramNode node) {
+    final String name = node.name.text;
+    out.println("PROGRAM " + name + ":");
 
-    symboltable.enterScope();
+    symboltable.enterScope(node);
     indent += "  ";
 
     // Declarations and Procedures
-    for (ParseTree child : ctx.children) {
-      if (child instanceof StatementListContext) break;
-      visit(child);
-    }
+    visitAll(node.declarations);
 
-    visitStatementList( ctx.statementList() );
+    out.println();
+    out.println("main:");
+    visitAll(node.statements);
 
     indent = indent.substring(2);
     symboltable.exitScope();
@@ -39,28 +42,12 @@ public class SymbolDumper extends YaplBaseVisitor<Void> {
   }
 
   @Override
-  public Void visitStatementList(StatementListContext ctx) {
-    if (ctx.getParent() instanceof ProgramContext) {
-      System.out.println();
-      System.out.println("main:");
-    }
-
-    for (StatementContext stat : ctx.statement()) {
-      visitStatement(stat);
-    }
-
-    return null;
-  }
-
-  @Override
-  public Void visitBlock(BlockContext ctx) {
-    symboltable.enterScope();
+  public Void visitBlock(BlockNode node) {
+    symboltable.enterScope(node);
     indent += "  ";
 
-    if (ctx.declarationBlock() != null)
-      visitDeclarationBlock(ctx.declarationBlock());
-
-    visitStatementList(ctx.statementList());
+    visitIfPresent(node.declarations);
+    visitAll(node.statements);
 
     indent = indent.substring(2);
     symboltable.exitScope();
@@ -68,20 +55,19 @@ public class SymbolDumper extends YaplBaseVisitor<Void> {
   }
 
   @Override
-  public Void visitProcedure(ProcedureContext ctx) {
-    final String name = ctx.Id(0).getText();
-    System.out.println(indent + symboltable.get(name));
+  public Void visitProcedure(ProcedureNode node) {
+    out.println(indent + symboltable.get(node.name.nameId));
 
-    symboltable.enterScope();
+    symboltable.enterScope(node);
     indent += "  ";
 
     for(Symbol sym : symboltable.currScope.symbols.values()) {
-      System.out.println(indent + sym);
+      out.println(indent + sym);
     }
 
-    visitBlock(ctx.block());
+    visitBlock(node.block);
 
-    System.out.println();
+    out.println();
     indent = indent.substring(2);
     symboltable.exitScope();
 
@@ -89,15 +75,14 @@ public class SymbolDumper extends YaplBaseVisitor<Void> {
   }
 
   @Override
-  public Void visitRecordDeclaration(RecordDeclarationContext ctx) {
-    final String name = ctx.Id().getText();
-    System.out.println(indent + symboltable.get(name));
+  public Void visitRecordDeclaration(RecordDeclarationNode node) {
+    out.println(indent + symboltable.get(node.name.nameId));
 
-    symboltable.enterScope();
+    symboltable.enterScope(node);
     indent += "  ";
 
     for(Symbol sym : symboltable.currScope.symbols.values()) {
-      System.out.println(indent + sym);
+      out.println(indent + sym);
     }
 
     indent = indent.substring(2);
@@ -107,59 +92,57 @@ public class SymbolDumper extends YaplBaseVisitor<Void> {
   }
 
   @Override
-  public Void visitVarDeclaration(VarDeclarationContext ctx) {
-    for (TerminalNode id : ctx.Id()) {
-      final String name = id.getText();
-      System.out.println(indent + symboltable.get(name));
+  public Void visitVarDeclaration(VarDeclarationNode node) {
+    for (Span id : node.names) {
+      out.println(indent + symboltable.get(id.nameId));
     }
 
     return null;
   }
 
   @Override
-  public Void visitConstDeclaration(ConstDeclarationContext ctx) {
-    final String name = ctx.Id().getText();
-    System.out.println(indent + symboltable.get(name));
+  public Void visitConstDeclaration(ConstDeclarationNode node) {
+    out.println(indent + symboltable.get(node.name.nameId));
 
     return null;
   }
 
   @Override
-  public Void visitArithmeticExpr(ArithmeticExprContext ctx) {
-    final String exprName = ConstantExpression.nameOf(ctx);
+  public Void visitArithmeticExpr(ArithmeticExprNode node) {
+    final Constant constant = symboltable.getConstant(node);
 
-    if (symboltable.contains(exprName))
-      System.out.println(indent + symboltable.get(exprName));
+    if (constant != null)
+      out.println(indent + constant);
 
     return null;
   }
 
   @Override
-  public Void visitComparison(ComparisonContext ctx) {
-    final String exprName = ConstantExpression.nameOf(ctx);
+  public Void visitComparison(ComparisonNode node) {
+    final Constant constant = symboltable.getConstant(node);
 
-    if (symboltable.contains(exprName))
-      System.out.println(indent + symboltable.get(exprName));
+    if (constant != null)
+      out.println(indent + constant);
 
     return null;
   }
 
   @Override
-  public Void visitEqualityComparison(EqualityComparisonContext ctx) {
-    final String exprName = ConstantExpression.nameOf(ctx);
+  public Void visitEqualityComparison(EqualityComparisonNode node) {
+    final Constant constant = symboltable.getConstant(node);
 
-    if (symboltable.contains(exprName))
-      System.out.println(indent + symboltable.get(exprName));
+    if (constant != null)
+      out.println(indent + constant);
 
     return null;
   }
 
   @Override
-  public Void visitBooleanExpr(BooleanExprContext ctx) {
-    final String exprName = ConstantExpression.nameOf(ctx);
+  public Void visitBooleanExpr(BooleanExprNode node) {
+    final Constant constant = symboltable.getConstant(node);
 
-    if (symboltable.contains(exprName))
-      System.out.println(indent + symboltable.get(exprName));
+    if (constant != null)
+      out.println(indent + constant);
 
     return null;
   }
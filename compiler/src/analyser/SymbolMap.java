@@ -0,0 +1,131 @@
+package analyser;
+
+import information.Symbol;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * The symbols of a single scope, keyed by the IDs of their names (see {@code SymbolNames}).
+ * <br><br>
+ * An open-addressing hash table of primitive ints, so lookups neither box nor hash strings.
+ * Like a {@code LinkedHashMap} the symbols keep their insertion order: replacing a symbol keeps its position,
+ * while a symbol which is removed and added again moves to the end.
+ */
+public class SymbolMap {
+
+  protected static final int INITIAL_CAPACITY = 8;
+
+  /**
+   * The entries in insertion order, the value of a removed entry is {@code null}.
+   */
+  protected int[] keys = new int[INITIAL_CAPACITY];
+  protected Symbol[] values = new Symbol[INITIAL_CAPACITY];
+  protected int entries = 0;
+  protected int size = 0;
+
+  /**
+   * The hash table, each slot holds the position of an entry plus 1, or 0 if the slot is empty.
+   * Slots of removed entries are kept, so the probe sequences of other keys stay intact.
+   */
+  protected int[] slots = new int[INITIAL_CAPACITY * 2];
+
+
+
+  public Symbol get(int key) {
+    final int slot = findSlot(key);
+    return (slots[slot] == 0) ? null : values[ slots[slot] - 1 ];
+  }
+
+  public boolean containsKey(int key) {
+    return get(key) != null;
+  }
+
+  public void put(int key, Symbol symbol) {
+    final int slot = findSlot(key);
+
+    // replace the symbol of an existing entry
+    if (slots[slot] != 0 && values[ slots[slot] - 1 ] != null) {
+      values[ slots[slot] - 1 ] = symbol;
+      return;
+    }
+
+    if (entries == keys.length) {
+      grow();
+      put(key, symbol);
+      return;
+    }
+
+    keys[entries] = key;
+    values[entries] = symbol;
+    slots[slot] = ++entries;
+    size++;
+  }
+
+  public void remove(int key) {
+    final int slot = findSlot(key);
+    if (slots[slot] == 0 || values[ slots[slot] - 1 ] == null) return;
+
+    values[ slots[slot] - 1 ] = null;
+    size--;
+  }
+
+  public int size() {
+    return size;
+  }
+
+  /**
+   * The symbols in insertion order.
+   */
+  public List<Symbol> values() {
+    final List<Symbol> symbols = new ArrayList<>(size);
+
+    for (int i = 0; i < entries; i++) {
+      if (values[i] != null) symbols.add(values[i]);
+    }
+
+    return symbols;
+  }
+
+
+
+  /**
+   * The slot holding the key or the empty slot where the key belongs.
+   */
+  protected int findSlot(int key) {
+    final int mask = slots.length - 1;
+    int slot = hash(key) & mask;
+
+    while (slots[slot] != 0 && keys[ slots[slot] - 1 ] != key) {
+      slot = (slot + 1) & mask;
+    }
+
+    return slot;
+  }
+
+  /**
+   * Drops removed entries and doubles the capacity, if more than half of the entries are still in use.
+   */
+  protected void grow() {
+    final int capacity = (size > entries / 2) ? keys.length * 2 : keys.length;
+    final int[] oldKeys = keys;
+    final Symbol[] oldValues = values;
+    final int oldEntries = entries;
+
+    this.keys = new int[capacity];
+    this.values = new Symbol[capacity];
+    this.slots = new int[capacity * 2];
+    this.entries = 0;
+    this.size = 0;
+
+    for (int i = 0; i < oldEntries; i++) {
+      if (oldValues[i] != null) put(oldKeys[i], oldValues[i]);
+    }
+  }
+
+  protected static int hash(int key) {
+    // IDs are dense, so spread them over the table
+    return (key * 0x9E3779B9) >>> 16 ^ key;
+  }
+
+}
@@ -0,0 +1,55 @@
+package analyser;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Interns the names of all symbols of a compilation and numbers them, so each identifier is resolved to its ID once
+ * (when the AST is built) and all later lookups in the {@code SymbolTable} only compare integers.
+ * <br><br>
+ * IDs are dense and start at 0, the same name always has the same ID.
+ */
+public class SymbolNames {
+
+  public static final int UNKNOWN = -1;
+
+  protected final Map<String, Integer> ids = new HashMap<>();
+  protected final List<String> names = new ArrayList<>();
+
+  /**
+   * Returns the ID of the name, a new ID is assigned to unknown names.
+   */
+  public int intern(String name) {
+    Integer id = ids.get(name);
+
+    if (id == null) {
+      id = names.size();
+      names.add(name);
+      ids.put(name, id);
+    }
+
+    return id;
+  }
+
+  /**
+   * Returns the ID of the name or {@code UNKNOWN}, if the name has never been interned.
+   */
+  public int find(String name) {
+    final Integer id = ids.get(name);
+    return (id == null) ? UNKNOWN : id;
+  }
+
+  /**
+   * The interned instance of the name with the given ID.
+   */
+  public String getName(int id) {
+    return names.get(id);
+  }
+
+  public int size() {
+    return names.size();
+  }
+
+}
@@ -1,39 +1,70 @@
 package analyser;
 
+import ast.Node;
+import information.Constant;
+import information.Simplification;
 import information.Symbol;
 
 import java.util.ArrayList;
-import java.util.LinkedHashMap;
+import java.util.IdentityHashMap;
 import java.util.List;
-import java.util.Stack;
+import java.util.Map;
 
 /**
  * A tree of all the scopes and their symbols. Implemented as a tree instead of a stack so it can be reused for multiple compiler passes.
  * In addition to the common symbol table methods it also provides methods to traverse the tree in later passes.
+ * <br><br>
+ * The analyser binds the nodes of the AST to the symbols their identifiers resolved to and to the scopes they opened,
+ * so later passes read the bindings instead of resolving the identifiers again.
+ * The constant values of folded expressions and the simplifications of partially constant expressions are stored by their expression node the same way.
  */
 public class SymbolTable {
 
+  public final SymbolNames names;
   public final Scope root;
   public Scope currScope;
-  protected Stack<Integer> branches;
+
+  protected final Map<Node, Symbol> bindings = new IdentityHashMap<>();
+  protected final Map<Node, Scope> scopes = new IdentityHashMap<>();
+  protected final Map<Node, Constant> constants = new IdentityHashMap<>();
+  protected final Map<Node, Simplification> simplifications = new IdentityHashMap<>();
 
   public SymbolTable() {
+    this(new SymbolNames());
+  }
+
+  /**
+   * Creates a symbol table sharing the name IDs of the given pool, e.g. with the AST of the compilation.
+   */
+  public SymbolTable(SymbolNames names) {
+    this.names = names;
     this.root = new Scope();
     this.currScope = root;
-    this.branches = new Stack<>();
   }
 
   // LOOKUP METHODS
   public Symbol get(String name) {
-    return get(name, currScope);
+    return get(names.find(name), currScope);
   }
 
   public Symbol get(String name, Scope start) {
+    return get(names.find(name), start);
+  }
+
+  /**
+   * Looks up the symbol by the ID of its name, without hashing or allocating anything.
+   */
+  public Symbol get(int nameId) {
+    return get(nameId, currScope);
+  }
+
+  public Symbol get(int nameId, Scope start) {
+    if (nameId == SymbolNames.UNKNOWN) return null;
     Scope scope = start;
 
     while (scope != null) {
-      if (scope.symbols.containsKey(name))
-        return scope.symbols.get(name);
+      final Symbol symbol = scope.symbols.get(nameId);
+      if (symbol != null) return symbol;
 
       scope = scope.parent;
     }
@@ -42,25 +73,22 @@ public class SymbolTable {
   }
 
   public boolean contains(String name) {
-    Scope scope = currScope;
-
-    while (scope != null) {
-      if (scope.symbols.containsKey(name))
-        return true;
-
-      scope = scope.parent;
-    }
+    return get(name) != null;
+  }
 
-    return false;
+  public boolean contains(int nameId) {
+    return get(nameId) != null;
   }
 
   // DELETION METHODS
   public SymbolTable remove(String name) {
+    final int nameId = names.find(name);
+    if (nameId == SymbolNames.UNKNOWN) return this;
     Scope scope = currScope;
 
     while (scope != null) {
-      if (scope.symbols.containsKey(name)) {
-        scope.symbols.remove(name);
+      if (scope.symbols.containsKey(nameId)) {
+        scope.symbols.remove(nameId);
         return this;
       }
 
@@ -76,8 +104,17 @@ public class SymbolTable {
     return this;
   }
 
+  /**
+   * Opens a new scope and binds it to the node, so later passes can enter it with {@code enterScope(node)}.
+   */
+  public SymbolTable openScope(Node node) {
+    openScope();
+    scopes.put(node, currScope);
+    return this;
+  }
+
   public SymbolTable add(Symbol symbol) {
-    currScope.symbols.put(symbol.name, symbol);
+    currScope.symbols.put(names.intern(symbol.name), symbol);
     return this;
   }
 
@@ -89,24 +126,74 @@ public class SymbolTable {
     return this;
   }
 
+  // BINDING METHODS
+  public SymbolTable bind(Node node, Symbol symbol) {
+    bindings.put(node, symbol);
+    return this;
+  }
+
+  /**
+   * The symbol the node was resolved to by the analyser, e.g. the variable of a full identifier or the procedure of a call.
+   */
+  public Symbol getBinding(Node node) {
+    return bindings.get(node);
+  }
+
+  public Scope getScope(Node node) {
+    return scopes.get(node);
+  }
+
+  /**
+   * Stores the constant value the expression node was folded to.
+   */
+  public SymbolTable addConstant(Node node, Constant constant) {
+    constants.put(node, constant);
+    return this;
+  }
+
+  /**
+   * The constant value the expression node was folded to, {@code null} if it was not folded.
+   */
+  public Constant getConstant(Node node) {
+    return constants.get(node);
+  }
+
+  public SymbolTable removeConstant(Node node) {
+    constants.remove(node);
+    return this;
+  }
+
+  /**
+   * Stores the simplification of the expression node, which replaces the expression during code generation.
+   */
+  public SymbolTable addSimplification(Node node, Simplification simplification) {
+    simplifications.put(node, simplification);
+    return this;
+  }
+
+  /**
+   * The simplification of the expression node, {@code null} if it was not simplified.
+   */
+  public Simplification getSimplification(Node node) {
+    return simplifications.get(node);
+  }
+
   // TRAVERSING METHODS
   public SymbolTable resetCursor() {
     this.currScope = root;
-    this.branches.clear();
-    this.branches.push(0);
     return this;
   }
 
-  public SymbolTable enterScope() {
-    this.currScope = currScope.children.get(branches.peek());
-    branches.push(0);
+  /**
+   * Moves to the scope the node opened during the analysis, the scopes do not need to be entered in the order they were opened.
+   */
+  public SymbolTable enterScope(Node node) {
+    this.currScope = scopes.get(node);
     return this;
   }
 
   public SymbolTable exitScope() {
-    branches.pop();
     this.currScope = currScope.parent;
-    branches.push( branches.pop() + 1 );
     return this;
   }
 
@@ -116,11 +203,11 @@ public class SymbolTable {
 
     public final Scope parent;
     public final List<Scope> children;
-    public LinkedHashMap<String, Symbol> symbols;
+    public final SymbolMap symbols;
 
     public Scope() {
       this.parent = null;
-      this.symbols = new LinkedHashMap<>();
+      this.symbols = new SymbolMap();
       this.children = new ArrayList<>();
     }
 
@@ -128,12 +215,12 @@ public class SymbolTable {
       this.parent = parent;
       this.parent.children.add(this);
 
-      this.symbols = new LinkedHashMap<>();
+      this.symbols = new SymbolMap();
       this.children = new ArrayList<>();
     }
 
-    public boolean contains(String name) {
-      return symbols.containsKey(name);
+    public boolean contains(int nameId) {
+      return symbols.containsKey(nameId);
     }
   }
 
@@ -0,0 +1,28 @@
+package ast;
+
+public final class ArrayLengthNode extends PrimaryNode {
+
+  public final FullIdentifierNode array;
+
+  public ArrayLengthNode(Span start, Span stop, FullIdentifierNode array) {
+    super(start, stop);
+    this.array = adopt(array);
+  }
+
+  @Override
+  public <T> T accept(AstVisitor<T> visitor) {
+    return visitor.visitArrayLength(this);
+  }
+
+  @Override
+  public String getRuleName() {
+    return "arrayLength";
+  }
+
+  @Override
+  public void appendText(StringBuilder text) {
+    text.append('#');
+    array.appendText(text);
+  }
+
+}
@@ -0,0 +1,26 @@
+package ast;
+
+public final class AssignmentNode extends Node {
+
+  public final FullIdentifierNode target;
+  public final Span op;
+  public final ExpressionNode value;
+
+  public AssignmentNode(Span start, Span stop, FullIdentifierNode target, Span op, ExpressionNode value) {
+    super(start, stop);
+    this.target = adopt(target);
+    this.op = op;
+    this.value = adopt(value);
+  }
+
+  @Override
+  public <T> T accept(AstVisitor<T> visitor) {
+    return visitor.visitAssignment(this);
+  }
+
+  @Override
+  public String getRuleName() {
+    return "assignment";
+  }
+
+}
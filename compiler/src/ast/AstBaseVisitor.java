@@ -0,0 +1,206 @@
+package ast;
+
+import java.util.List;
+
+/**
+ * A visitor which visits all children of a node in the order of the source and returns {@code null},
+ * so subclasses only override the methods of the nodes they are interested in.
+ *
+ * @param <T> the return type of the visit methods
+ */
+public class AstBaseVisitor<T> implements AstVisitor<T> {
+
+  public T visit(Node node) {
+    return node.accept(this);
+  }
+
+  protected void visitAll(List<? extends Node> nodes) {
+    for (Node node : nodes) {
+      node.accept(this);
+    }
+  }
+
+  protected void visitIfPresent(Node node) {
+    if (node != null) node.accept(this);
+  }
+
+
+
+  @Override
+  public T visitProgram(ProgramNode node) {
+    visitAll(node.declarations);
+    visitAll(node.statements);
+    return null;
+  }
+
+  @Override
+  public T visitDeclarationBlock(DeclarationBlockNode node) {
+    visitAll(node.declarations);
+    return null;
+  }
+
+  @Override
+  public T visitConstDeclaration(ConstDeclarationNode node) {
+    visit(node.value);
+    return null;
+  }
+
+  @Override
+  public T visitVarDeclaration(VarDeclarationNode node) {
+    visit(node.type);
+    return null;
+  }
+
+  @Override
+  public T visitRecordDeclaration(RecordDeclarationNode node) {
+    visitAll(node.fields);
+    return null;
+  }
+
+  @Override
+  public T visitProcedure(ProcedureNode node) {
+    visit(node.returnType);
+    visitAll(node.params);
+    visit(node.block);
+    return null;
+  }
+
+  @Override
+  public T visitParam(ParamNode node) {
+    visit(node.type);
+    return null;
+  }
+
+  @Override
+  public T visitReturnType(ReturnTypeNode node) {
+    visitIfPresent(node.type);
+    return null;
+  }
+
+  @Override
+  public T visitType(TypeNode node) {
+    visit(node.baseType);
+    return null;
+  }
+
+  @Override
+  public T visitBaseType(BaseTypeNode node) {
+    return null;
+  }
+
+  @Override
+  public T visitBlock(BlockNode node) {
+    visitIfPresent(node.declarations);
+    visitAll(node.statements);
+    return null;
+  }
+
+  @Override
+  public T visitAssignment(AssignmentNode node) {
+    visit(node.target);
+    visit(node.value);
+    return null;
+  }
+
+  @Override
+  public T visitProcedureCall(ProcedureCallNode node) {
+    visitAll(node.arguments);
+    return null;
+  }
+
+  @Override
+  public T visitReturnStatement(ReturnStatementNode node) {
+    visitIfPresent(node.value);
+    return null;
+  }
+
+  @Override
+  public T visitIfStatement(IfStatementNode node) {
+    visit(node.condition);
+    visitAll(node.thenStatements);
+    if (node.elseStatements != null) visitAll(node.elseStatements);
+    return null;
+  }
+
+  @Override
+  public T visitWhileStatement(WhileStatementNode node) {
+    visit(node.condition);
+    visitAll(node.statements);
+    return null;
+  }
+
+  @Override
+  public T visitWriteStatement(WriteStatementNode node) {
+    return null;
+  }
+
+  @Override
+  public T visitArithmeticExpr(ArithmeticExprNode node) {
+    return visitBinaryExpr(node);
+  }
+
+  @Override
+  public T visitComparison(ComparisonNode node) {
+    return visitBinaryExpr(node);
+  }
+
+  @Override
+  public T visitEqualityComparison(EqualityComparisonNode node) {
+    return visitBinaryExpr(node);
+  }
+
+  @Override
+  public T visitBooleanExpr(BooleanExprNode node) {
+    return visitBinaryExpr(node);
+  }
+
+  protected T visitBinaryExpr(BinaryExprNode node) {
+    visit(node.left);
+    visit(node.right);
+    return null;
+  }
+
+  @Override
+  public T visitUnaryExpr(UnaryExprNode node) {
+    visit(node.operand);
+    return null;
+  }
+
+  @Override
+  public T visitCreationExpr(CreationExprNode node) {
+    visit(node.baseType);
+    visitAll(node.dimensions);
+    return null;
+  }
+
+  @Override
+  public T visitLiteral(LiteralNode node) {
+    return null;
+  }
+
+  @Override
+  public T visitFullIdentifier(FullIdentifierNode node) {
+    visitIfPresent(node.selector);
+    return null;
+  }
+
+  @Override
+  public T visitSelector(SelectorNode node) {
+    visitIfPresent(node.index);
+    visitIfPresent(node.next);
+    return null;
+  }
+
+  @Override
+  public T visitArrayLength(ArrayLengthNode node) {
+    visit(node.array);
+    return null;
+  }
+
+  @Override
+  public T visitParenthesizedExpr(ParenthesizedExprNode node) {
+    visit(node.expression);
+    return null;
+  }
+
+}
@@ -0,0 +1,310 @@
+package ast;
+
+import analyser.SymbolNames;
+import compiler.SourceFile;
+import org.antlr.v4.runtime.ParserRuleContext;
+import org.antlr.v4.runtime.Token;
+import org.antlr.v4.runtime.tree.ParseTree;
+import org.antlr.v4.runtime.tree.TerminalNode;
+import parser.YaplLexer;
+import parser.YaplParser.*;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Builds the AST of a syntactically correct program from its parse-tree in a single walk.
+ * Afterwards the AST does not reference the parse-tree or any token, so both can be garbage collected.
+ */
+public class AstBuilder {
+
+  protected final SourceFile source;
+  protected final SymbolNames names;
+
+  /**
+   * The spans of all tokens converted so far, indexed by token index, so tokens shared by several nodes are converted only once.
+   */
+  protected Span[] spans = null;
+
+  /**
+   * The number of nodes built.
+   */
+  public int nodes = 0;
+
+  public AstBuilder(SourceFile source, SymbolNames names) {
+    this.source = source;
+    this.names = names;
+  }
+
+  public static ProgramNode build(ProgramContext parseTree, SourceFile source, SymbolNames names) {
+    return new AstBuilder(source, names).buildProgram(parseTree);
+  }
+
+
+
+  public ProgramNode buildProgram(ProgramContext ctx) {
+    this.spans = new Span[ctx.stop.getTokenIndex() + 1];
+
+    final int[] ordinals = ordinals(ctx);
+    final List<Node> declarations = new ArrayList<>();
+
+    for (int i = 0; i < ctx.getChildCount(); i++) {
+      final ParseTree child = ctx.getChild(i);
+
+      if (child instanceof DeclarationBlockContext) declarations.add( buildDeclarationBlock((DeclarationBlockContext)child, ordinals[i]) );
+      else if (child instanceof ProcedureContext) declarations.add( buildProcedure((ProcedureContext)child) );
+    }
+
+    return node(new ProgramNode(span(ctx.start), span(ctx.stop), span(ctx.Id(0)), declarations, buildStatements(ctx.statementList()), span(ctx.Id(1)), source));
+  }
+
+  protected DeclarationBlockNode buildDeclarationBlock(DeclarationBlockContext ctx, int ordinal) {
+    final int[] ordinals = ordinals(ctx);
+    final List<Node> declarations = new ArrayList<>();
+
+    for (int i = 0; i < ctx.getChildCount(); i++) {
+      final ParseTree child = ctx.getChild(i);
+
+      if (child instanceof ConstDeclarationContext) declarations.add( buildConstDeclaration((ConstDeclarationContext)child, ordinals[i]) );
+      else if (child instanceof VarDeclarationContext) declarations.add( buildVarDeclaration((VarDeclarationContext)child, ordinals[i]) );
+      else if (child instanceof RecordDeclarationContext) declarations.add( buildRecordDeclaration((RecordDeclarationContext)child) );
+    }
+
+    return node(new DeclarationBlockNode(span(ctx.start), span(ctx.stop), ordinal, declarations));
+  }
+
+  protected ConstDeclarationNode buildConstDeclaration(ConstDeclarationContext ctx, int ordinal) {
+    return node(new ConstDeclarationNode(span(ctx.start), span(ctx.stop), ordinal, span(ctx.Id()), buildLiteral(ctx.literal())));
+  }
+
+  protected VarDeclarationNode buildVarDeclaration(VarDeclarationContext ctx, int ordinal) {
+    final List<Span> names = new ArrayList<>();
+
+    for (TerminalNode id : ctx.Id()) {
+      names.add( span(id) );
+    }
+
+    return node(new VarDeclarationNode(span(ctx.start), span(ctx.stop), ordinal, buildType(ctx.type()), names));
+  }
+
+  protected RecordDeclarationNode buildRecordDeclaration(RecordDeclarationContext ctx) {
+    final int[] ordinals = ordinals(ctx);
+    final List<VarDeclarationNode> fields = new ArrayList<>();
+
+    for (int i = 0; i < ctx.getChildCount(); i++) {
+      if (ctx.getChild(i) instanceof VarDeclarationContext) fields.add( buildVarDeclaration((VarDeclarationContext)ctx.getChild(i), ordinals[i]) );
+    }
+
+    return node(new RecordDeclarationNode(span(ctx.start), span(ctx.stop), span(ctx.Id()), fields));
+  }
+
+  protected ProcedureNode buildProcedure(ProcedureContext ctx) {
+    final int[] ordinals = ordinals(ctx);
+    final List<ParamNode> params = new ArrayList<>();
+
+    for (int i = 0; i < ctx.getChildCount(); i++) {
+      if (ctx.getChild(i) instanceof ParamContext) params.add( buildParam((ParamContext)ctx.getChild(i), ordinals[i]) );
+    }
+
+    return node(new ProcedureNode(span(ctx.start), span(ctx.stop), buildReturnType(ctx.returnType()), span(ctx.Id(0)), params, buildBlock(ctx.block()), span(ctx.Id(1))));
+  }
+
+  protected ParamNode buildParam(ParamContext ctx, int ordinal) {
+    return node(new ParamNode(span(ctx.start), span(ctx.stop), ordinal, buildType(ctx.type()), span(ctx.Id())));
+  }
+
+  protected ReturnTypeNode buildReturnType(ReturnTypeContext ctx) {
+    return node(new ReturnTypeNode(span(ctx.start), span(ctx.stop), (ctx.type() != null) ? buildType(ctx.type()) : null));
+  }
+
+  protected TypeNode buildType(TypeContext ctx) {
+    // baseType followed by pairs of brackets
+    final int dimensions = (ctx.getChildCount() - 1) / 2;
+    return node(new TypeNode(span(ctx.start), span(ctx.stop), buildBaseType(ctx.baseType()), dimensions));
+  }
+
+  protected BaseTypeNode buildBaseType(BaseTypeContext ctx) {
+    return node(new BaseTypeNode(span(ctx.start), ctx.Id() != null));
+  }
+
+  protected BlockNode buildBlock(BlockContext ctx) {
+    final DeclarationBlockNode declarations = (ctx.declarationBlock() != null) ? buildDeclarationBlock(ctx.declarationBlock(), 1) : null;
+    return node(new BlockNode(span(ctx.start), span(ctx.stop), declarations, buildStatements(ctx.statementList())));
+  }
+
+
+
+  protected List<Node> buildStatements(StatementListContext ctx) {
+    final List<Node> statements = new ArrayList<>();
+
+    for (StatementContext stat : ctx.statement()) {
+      statements.add( buildStatement(stat) );
+    }
+
+    return statements;
+  }
+
+  protected Node buildStatement(StatementContext ctx) {
+    final ParseTree stat = ctx.getChild(0);
+
+    if (stat instanceof AssignmentContext) return buildAssignment((AssignmentContext)stat);
+    else if (stat instanceof ProcedureCallContext) return buildProcedureCall((ProcedureCallContext)stat, true);
+    else if (stat instanceof ReturnStatementContext) return buildReturnStatement((ReturnStatementContext)stat);
+    else if (stat instanceof IfStatementContext) return buildIfStatement((IfStatementContext)stat);
+    else if (stat instanceof WhileStatementContext) return buildWhileStatement((WhileStatementContext)stat);
+    else if (stat instanceof WriteStatementContext) return buildWriteStatement((WriteStatementContext)stat);
+    else if (stat instanceof BlockContext) return buildBlock((BlockContext)stat);
+
+    throw new IllegalStateException("Unknown statement '" + ctx.getText() + "'!");
+  }
+
+  protected AssignmentNode buildAssignment(AssignmentContext ctx) {
+    return node(new AssignmentNode(span(ctx.start), span(ctx.stop), buildFullIdentifier(ctx.fullIdentifier()), span(ctx.op), buildExpression(ctx.expression(), 1)));
+  }
+
+  protected ProcedureCallNode buildProcedureCall(ProcedureCallContext ctx, boolean isStatement) {
+    final int[] ordinals = ordinals(ctx);
+    final List<ExpressionNode> arguments = new ArrayList<>();
+
+    for (int i = 0; i < ctx.getChildCount(); i++) {
+      if (ctx.getChild(i) instanceof ExpressionContext) arguments.add( buildExpression((ExpressionContext)ctx.getChild(i), ordinals[i]) );
+    }
+
+    return node(new ProcedureCallNode(span(ctx.start), span(ctx.stop), span(ctx.Id()), arguments, isStatement));
+  }
+
+  protected ReturnStatementNode buildReturnStatement(ReturnStatementContext ctx) {
+    final ExpressionNode value = (ctx.expression() != null) ? buildExpression(ctx.expression(), 1) : null;
+    return node(new ReturnStatementNode(span(ctx.start), span(ctx.stop), value));
+  }
+
+  protected IfStatementNode buildIfStatement(IfStatementContext ctx) {
+    final List<Node> elseStatements = (ctx.elseStatementList != null) ? buildStatements(ctx.elseStatementList) : null;
+    return node(new IfStatementNode(span(ctx.start), span(ctx.stop), buildExpression(ctx.expression(), 1), buildStatements(ctx.statementList(0)), elseStatements));
+  }
+
+  protected WhileStatementNode buildWhileStatement(WhileStatementContext ctx) {
+    return node(new WhileStatementNode(span(ctx.start), span(ctx.stop), buildExpression(ctx.expression(), 1), buildStatements(ctx.statementList())));
+  }
+
+  protected WriteStatementNode buildWriteStatement(WriteStatementContext ctx) {
+    return node(new WriteStatementNode(span(ctx.start), span(ctx.stop), span(ctx.String())));
+  }
+
+
+
+  protected ExpressionNode buildExpression(ExpressionContext ctx, int ordinal) {
+    final Span start = span(ctx.start), stop = span(ctx.stop);
+
+    if (ctx instanceof ArithmeticExprContext) {
+      final ArithmeticExprContext bctx = (ArithmeticExprContext)ctx;
+      return node(new ArithmeticExprNode(start, stop, ordinal, buildLeft(bctx.expression()), span(bctx.op), buildRight(bctx.expression())));
+    }
+    else if (ctx instanceof ComparisonContext) {
+      final ComparisonContext bctx = (ComparisonContext)ctx;
+      return node(new ComparisonNode(start, stop, ordinal, buildLeft(bctx.expression()), span(bctx.op), buildRight(bctx.expression())));
+    }
+    else if (ctx instanceof EqualityComparisonContext) {
+      final EqualityComparisonContext bctx = (EqualityComparisonContext)ctx;
+      return node(new EqualityComparisonNode(start, stop, ordinal, buildLeft(bctx.expression()), span(bctx.op), buildRight(bctx.expression())));
+    }
+    else if (ctx instanceof BooleanExprContext) {
+      final BooleanExprContext bctx = (BooleanExprContext)ctx;
+      return node(new BooleanExprNode(start, stop, ordinal, buildLeft(bctx.expression()), span(bctx.op), buildRight(bctx.expression())));
+    }
+    else if (ctx instanceof UnaryExprContext) {
+      final UnaryExprContext uctx = (UnaryExprContext)ctx;
+      return node(new UnaryExprNode(start, stop, ordinal, (uctx.sign != null) ? span(uctx.sign) : null, buildPrimary(uctx.primaryExpr())));
+    }
+    else if (ctx instanceof CreationExprContext) {
+      final CreationExprContext cctx = (CreationExprContext)ctx;
+      final int[] ordinals = ordinals(cctx);
+      final List<ExpressionNode> dimensions = new ArrayList<>();
+
+      for (int i = 0; i < cctx.getChildCount(); i++) {
+        if (cctx.getChild(i) instanceof ExpressionContext) dimensions.add( buildExpression((ExpressionContext)cctx.getChild(i), ordinals[i]) );
+      }
+
+      return node(new CreationExprNode(start, stop, ordinal, buildBaseType(cctx.baseType()), dimensions));
+    }
+
+    throw new IllegalStateException("Unknown expression '" + ctx.getText() + "'!");
+  }
+
+  protected ExpressionNode buildLeft(List<ExpressionContext> operands) {
+    return buildExpression(operands.get(0), 1);
+  }
+
+  protected ExpressionNode buildRight(List<ExpressionContext> operands) {
+    final boolean isSameKind = operands.get(0).getClass() == operands.get(1).getClass();
+    return buildExpression(operands.get(1), isSameKind ? 2 : 1);
+  }
+
+  protected PrimaryNode buildPrimary(PrimaryExprContext ctx) {
+    if (ctx.literal() != null) return buildLiteral(ctx.literal());
+    else if (ctx.fullIdentifier() != null) return buildFullIdentifier(ctx.fullIdentifier());
+    else if (ctx.procedureCall() != null) return buildProcedureCall(ctx.procedureCall(), false);
+    else if (ctx.arrayLength() != null) return node(new ArrayLengthNode(span(ctx.start), span(ctx.stop), buildFullIdentifier(ctx.arrayLength().fullIdentifier())));
+    else return node(new ParenthesizedExprNode(span(ctx.start), span(ctx.stop), buildExpression(ctx.expression(), 1)));
+  }
+
+  protected LiteralNode buildLiteral(LiteralContext ctx) {
+    return node(new LiteralNode(span(ctx.start), ctx.Boolean() != null));
+  }
+
+  protected FullIdentifierNode buildFullIdentifier(FullIdentifierContext ctx) {
+    final SelectorNode selector = (ctx.selector() != null) ? buildSelector(ctx.selector()) : null;
+    return node(new FullIdentifierNode(span(ctx.start), span(ctx.stop), span(ctx.Id()), selector));
+  }
+
+  protected SelectorNode buildSelector(SelectorContext ctx) {
+    final ExpressionNode index = (ctx.expression() != null) ? buildExpression(ctx.expression(), 1) : null;
+    final Span field = (ctx.Id() != null) ? span(ctx.Id()) : null;
+    final SelectorNode next = (ctx.selector() != null) ? buildSelector(ctx.selector()) : null;
+    return node(new SelectorNode(span(ctx.start), span(ctx.stop), index, field, next));
+  }
+
+
+
+  protected <T extends Node> T node(T node) {
+    nodes++;
+    return node;
+  }
+
+  protected Span span(TerminalNode terminal) {
+    return span(terminal.getSymbol());
+  }
+
+  protected Span span(Token token) {
+    final int idx = token.getTokenIndex();
+    if (spans[idx] != null) return spans[idx];
+
+    if (token.getType() == YaplLexer.Id) {
+      // identifiers are resolved to their name ID once, all their spans share the interned name
+      final int nameId = names.intern(token.getText());
+      spans[idx] = new Span(names.getName(nameId), token.getLine(), 1 + token.getCharPositionInLine(), token.getStartIndex(), token.getStopIndex(), nameId);
+    }
+    else {
+      spans[idx] = Span.of(token);
+    }
+
+    return spans[idx];
+  }
+
+  /**
+   * The 1-based position of each child among the preceding children of the same class, as used in the path of error messages.
+   */
+  protected static int[] ordinals(ParserRuleContext ctx) {
+    final int[] ordinals = new int[ctx.getChildCount()];
+    final Map<Class<?>, Integer> counts = new HashMap<>();
+
+    for (int i = 0; i < ordinals.length; i++) {
+      ordinals[i] = counts.merge(ctx.getChild(i).getClass(), 1, Integer::sum);
+    }
+
+    return ordinals;
+  }
+
+}
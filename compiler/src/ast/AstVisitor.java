@@ -0,0 +1,66 @@
+package ast;
+
+/**
+ * A visitor of the AST, with one method per node class.
+ *
+ * @param <T> the return type of the visit methods
+ */
+public interface AstVisitor<T> {
+
+  T visitProgram(ProgramNode node);
+
+  T visitDeclarationBlock(DeclarationBlockNode node);
+
+  T visitConstDeclaration(ConstDeclarationNode node);
+
+  T visitVarDeclaration(VarDeclarationNode node);
+
+  T visitRecordDeclaration(RecordDeclarationNode node);
+
+  T visitProcedure(ProcedureNode node);
+
+  T visitParam(ParamNode node);
+
+  T visitReturnType(ReturnTypeNode node);
+
+  T visitType(TypeNode node);
+
+  T visitBaseType(BaseTypeNode node);
+
+  T visitBlock(BlockNode node);
+
+  T visitAssignment(AssignmentNode node);
+
+  T visitProcedureCall(ProcedureCallNode node);
+
+  T visitReturnStatement(ReturnStatementNode node);
+
+  T visitIfStatement(IfStatementNode node);
+
+  T visitWhileStatement(WhileStatementNode node);
+
+  T visitWriteStatement(WriteStatementNode node);
+
+  T visitArithmeticExpr(ArithmeticExprNode node);
+
+  T visitComparison(ComparisonNode node);
+
+  T visitEqualityComparison(EqualityComparisonNode node);
+
+  T visitBooleanExpr(BooleanExprNode node);
+
+  T visitUnaryExpr(UnaryExprNode node);
+
+  T visitCreationExpr(CreationExprNode node);
+
+  T visitLiteral(LiteralNode node);
+
+  T visitFullIdentifier(FullIdentifierNode node);
+
+  T visitSelector(SelectorNode node);
+
+  T visitArrayLength(ArrayLengthNode node);
+
+  T visitParenthesizedExpr(ParenthesizedExprNode node);
+
+}
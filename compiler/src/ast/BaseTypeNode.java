@@ -0,0 +1,29 @@
+package ast;
+
+public final class BaseTypeNode extends Node {
+
+  /**
+   * Indicates if the type is a record, i.e. an identifier instead of {@code int} or {@code bool}.
+   */
+  public final boolean isIdentifier;
+
+  public BaseTypeNode(Span token, boolean isIdentifier) {
+    super(token, token);
+    this.isIdentifier = isIdentifier;
+  }
+
+  @Override
+  public <T> T accept(AstVisitor<T> visitor) {
+    return visitor.visitBaseType(this);
+  }
+
+  @Override
+  public String getRuleName() {
+    return "baseType";
+  }
+
+  public String getText() {
+    return start.text;
+  }
+
+}
@@ -0,0 +1,26 @@
+package ast;
+
+/**
+ * Base class of all expressions with an operator between two operands.
+ */
+public abstract class BinaryExprNode extends ExpressionNode {
+
+  public final ExpressionNode left;
+  public final Span op;
+  public final ExpressionNode right;
+
+  protected BinaryExprNode(Span start, Span stop, int ordinal, ExpressionNode left, Span op, ExpressionNode right) {
+    super(start, stop, ordinal);
+    this.left = adopt(left);
+    this.op = op;
+    this.right = adopt(right);
+  }
+
+  @Override
+  public void appendText(StringBuilder text) {
+    left.appendText(text);
+    text.append(op.text);
+    right.appendText(text);
+  }
+
+}
@@ -0,0 +1,30 @@
+package ast;
+
+import java.util.List;
+
+public final class BlockNode extends Node {
+
+  /**
+   * The declarations of the block, {@code null} if it has none.
+   */
+  public final DeclarationBlockNode declarations;
+
+  public final List<Node> statements;
+
+  public BlockNode(Span start, Span stop, DeclarationBlockNode declarations, List<Node> statements) {
+    super(start, stop);
+    this.declarations = adopt(declarations);
+    this.statements = adopt(statements);
+  }
+
+  @Override
+  public <T> T accept(AstVisitor<T> visitor) {
+    return visitor.visitBlock(this);
+  }
+
+  @Override
+  public String getRuleName() {
+    return "block";
+  }
+
+}
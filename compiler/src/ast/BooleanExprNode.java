@@ -0,0 +1,17 @@
+package ast;
+
+/**
+ * The operators {@code And Or} on bool operands.
+ */
+public final class BooleanExprNode extends BinaryExprNode {
+
+  public BooleanExprNode(Span start, Span stop, int ordinal, ExpressionNode left, Span op, ExpressionNode right) {
+    super(start, stop, ordinal, left, op, right);
+  }
+
+  @Override
+  public <T> T accept(AstVisitor<T> visitor) {
+    return visitor.visitBooleanExpr(this);
+  }
+
+}
@@ -0,0 +1,17 @@
+package ast;
+
+/**
+ * The operators {@code < <= > >=} on int operands.
+ */
+public final class ComparisonNode extends BinaryExprNode {
+
+  public ComparisonNode(Span start, Span stop, int ordinal, ExpressionNode left, Span op, ExpressionNode right) {
+    super(start, stop, ordinal, left, op, right);
+  }
+
+  @Override
+  public <T> T accept(AstVisitor<T> visitor) {
+    return visitor.visitComparison(this);
+  }
+
+}
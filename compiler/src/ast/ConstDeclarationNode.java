@@ -0,0 +1,24 @@
+package ast;
+
+public final class ConstDeclarationNode extends Node {
+
+  public final Span name;
+  public final LiteralNode value;
+
+  public ConstDeclarationNode(Span start, Span stop, int ordinal, Span name, LiteralNode value) {
+    super(start, stop, ordinal);
+    this.name = name;
+    this.value = adopt(value);
+  }
+
+  @Override
+  public <T> T accept(AstVisitor<T> visitor) {
+    return visitor.visitConstDeclaration(this);
+  }
+
+  @Override
+  public String getRuleName() {
+    return "constDeclaration";
+  }
+
+}
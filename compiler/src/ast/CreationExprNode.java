@@ -0,0 +1,36 @@
+package ast;
+
+import java.util.List;
+
+public final class CreationExprNode extends ExpressionNode {
+
+  public final BaseTypeNode baseType;
+
+  /**
+   * The sizes of the dimensions of a new array, empty for a new record.
+   */
+  public final List<ExpressionNode> dimensions;
+
+  public CreationExprNode(Span start, Span stop, int ordinal, BaseTypeNode baseType, List<ExpressionNode> dimensions) {
+    super(start, stop, ordinal);
+    this.baseType = adopt(baseType);
+    this.dimensions = adopt(dimensions);
+  }
+
+  @Override
+  public <T> T accept(AstVisitor<T> visitor) {
+    return visitor.visitCreationExpr(this);
+  }
+
+  @Override
+  public void appendText(StringBuilder text) {
+    text.append(start.text).append(baseType.getText());
+
+    for (ExpressionNode dimension : dimensions) {
+      text.append('[');
+      dimension.appendText(text);
+      text.append(']');
+    }
+  }
+
+}
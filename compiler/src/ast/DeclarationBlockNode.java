@@ -0,0 +1,27 @@
+package ast;
+
+import java.util.List;
+
+public final class DeclarationBlockNode extends Node {
+
+  /**
+   * The constant, variable and record declarations, in the order of the source.
+   */
+  public final List<Node> declarations;
+
+  public DeclarationBlockNode(Span start, Span stop, int ordinal, List<Node> declarations) {
+    super(start, stop, ordinal);
+    this.declarations = adopt(declarations);
+  }
+
+  @Override
+  public <T> T accept(AstVisitor<T> visitor) {
+    return visitor.visitDeclarationBlock(this);
+  }
+
+  @Override
+  public String getRuleName() {
+    return "declarationBlock";
+  }
+
+}
@@ -0,0 +1,17 @@
+package ast;
+
+/**
+ * The operators {@code == !=} on operands of the same type.
+ */
+public final class EqualityComparisonNode extends BinaryExprNode {
+
+  public EqualityComparisonNode(Span start, Span stop, int ordinal, ExpressionNode left, Span op, ExpressionNode right) {
+    super(start, stop, ordinal, left, op, right);
+  }
+
+  @Override
+  public <T> T accept(AstVisitor<T> visitor) {
+    return visitor.visitEqualityComparison(this);
+  }
+
+}
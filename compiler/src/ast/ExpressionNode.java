@@ -0,0 +1,28 @@
+package ast;
+
+/**
+ * Base class of all alternatives of the {@code expression} rule.
+ */
+public abstract class ExpressionNode extends Node {
+
+  protected ExpressionNode(Span start, Span stop, int ordinal) {
+    super(start, stop, ordinal);
+  }
+
+  @Override
+  public String getRuleName() {
+    return "expression";
+  }
+
+  /**
+   * The tokens of the expression without whitespace and comments, e.g. {@code a[i+1]*2}.
+   */
+  public String getText() {
+    final StringBuilder text = new StringBuilder();
+    appendText(text);
+    return text.toString();
+  }
+
+  public abstract void appendText(StringBuilder text);
+
+}
@@ -0,0 +1,34 @@
+package ast;
+
+public final class FullIdentifierNode extends PrimaryNode {
+
+  public final Span name;
+
+  /**
+   * The first selector after the identifier, {@code null} if there is none.
+   */
+  public final SelectorNode selector;
+
+  public FullIdentifierNode(Span start, Span stop, Span name, SelectorNode selector) {
+    super(start, stop);
+    this.name = name;
+    this.selector = adopt(selector);
+  }
+
+  @Override
+  public <T> T accept(AstVisitor<T> visitor) {
+    return visitor.visitFullIdentifier(this);
+  }
+
+  @Override
+  public String getRuleName() {
+    return "fullIdentifier";
+  }
+
+  @Override
+  public void appendText(StringBuilder text) {
+    text.append(name.text);
+    if (selector != null) selector.appendText(text);
+  }
+
+}
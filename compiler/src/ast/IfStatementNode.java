@@ -0,0 +1,32 @@
+package ast;
+
+import java.util.List;
+
+public final class IfStatementNode extends Node {
+
+  public final ExpressionNode condition;
+  public final List<Node> thenStatements;
+
+  /**
+   * The statements of the else branch, {@code null} if there is no else branch.
+   */
+  public final List<Node> elseStatements;
+
+  public IfStatementNode(Span start, Span stop, ExpressionNode condition, List<Node> thenStatements, List<Node> elseStatements) {
+    super(start, stop);
+    this.condition = adopt(condition);
+    this.thenStatements = adopt(thenStatements);
+    this.elseStatements = adopt(elseStatements);
+  }
+
+  @Override
+  public <T> T accept(AstVisitor<T> visitor) {
+    return visitor.visitIfStatement(this);
+  }
+
+  @Override
+  public String getRuleName() {
+    return "ifStatement";
+  }
+
+}
@@ -0,0 +1,34 @@
+package ast;
+
+public final class LiteralNode extends PrimaryNode {
+
+  /**
+   * Indicates if the literal is {@code True} or {@code False}, otherwise it is a number.
+   */
+  public final boolean isBoolean;
+
+  public LiteralNode(Span token, boolean isBoolean) {
+    super(token, token);
+    this.isBoolean = isBoolean;
+  }
+
+  @Override
+  public <T> T accept(AstVisitor<T> visitor) {
+    return visitor.visitLiteral(this);
+  }
+
+  @Override
+  public String getRuleName() {
+    return "literal";
+  }
+
+  public String getValue() {
+    return start.text;
+  }
+
+  @Override
+  public void appendText(StringBuilder text) {
+    text.append(start.text);
+  }
+
+}
@@ -0,0 +1,101 @@
+package ast;
+
+import java.util.List;
+
+/**
+ * Base class of all nodes of the abstract syntax tree, which is built once after parsing.
+ * All later phases of the compiler run on the AST, so the parse-tree and the token stream can be released early.
+ * <br><br>
+ * Nodes are immutable, their children are resolved to typed fields and each node keeps the first and the last token of its source.
+ * The parent is set once, when the parent node is created.
+ */
+public abstract class Node {
+
+  public final Span start;
+  public final Span stop;
+
+  /**
+   * The 1-based position of the node among the preceding siblings of the same kind in the parse-tree,
+   * used to keep the paths of error messages the same as on the parse-tree.
+   */
+  public final int ordinal;
+
+  protected Node parent = null;
+
+  /**
+   * The path of the node, computed on first use and reused for the paths of all descendants.
+   */
+  protected String path = null;
+
+  protected Node(Span start, Span stop) {
+    this(start, stop, 1);
+  }
+
+  protected Node(Span start, Span stop, int ordinal) {
+    this.start = start;
+    this.stop = stop;
+    this.ordinal = ordinal;
+  }
+
+  public abstract <T> T accept(AstVisitor<T> visitor);
+
+  /**
+   * The name of the grammar rule the node was built from.
+   */
+  public abstract String getRuleName();
+
+
+
+  public Node getParent() {
+    return parent;
+  }
+
+  public ProgramNode getProgram() {
+    Node node = this;
+    while (node.parent != null) node = node.parent;
+    return (ProgramNode)node;
+  }
+
+  /**
+   * The path from the program to this node, e.g. {@code test > proc > block > 2. varDeclaration}.
+   * Paths end at the first expression, since deeper paths do not help locating the error.
+   */
+  public String getPath() {
+    if (path != null) return path;
+
+    final String parentPath = parent.getPath();
+    // limit path depth to expression
+    this.path = parentPath.endsWith("expression") ? parentPath : parentPath + " > " + getPathSegment();
+    return path;
+  }
+
+  protected String getPathSegment() {
+    // hide count when its the first or only of its type
+    return (ordinal > 1) ? ordinal + ". " + getRuleName() : getRuleName();
+  }
+
+  /**
+   * The source code of the node, including whitespace and comments.
+   */
+  public String getSourceText() {
+    return getProgram().source.getText(start.startIndex, stop.stopIndex);
+  }
+
+
+
+  protected <T extends Node> T adopt(T child) {
+    if (child != null) child.parent = this;
+    return child;
+  }
+
+  protected <T extends Node> List<T> adopt(List<T> children) {
+    if (children == null) return null;
+
+    for (Node child : children) {
+      child.parent = this;
+    }
+
+    return List.copyOf(children);
+  }
+
+}
@@ -0,0 +1,24 @@
+package ast;
+
+public final class ParamNode extends Node {
+
+  public final TypeNode type;
+  public final Span name;
+
+  public ParamNode(Span start, Span stop, int ordinal, TypeNode type, Span name) {
+    super(start, stop, ordinal);
+    this.type = adopt(type);
+    this.name = name;
+  }
+
+  @Override
+  public <T> T accept(AstVisitor<T> visitor) {
+    return visitor.visitParam(this);
+  }
+
+  @Override
+  public String getRuleName() {
+    return "param";
+  }
+
+}
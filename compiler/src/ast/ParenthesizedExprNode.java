@@ -0,0 +1,29 @@
+package ast;
+
+public final class ParenthesizedExprNode extends PrimaryNode {
+
+  public final ExpressionNode expression;
+
+  public ParenthesizedExprNode(Span start, Span stop, ExpressionNode expression) {
+    super(start, stop);
+    this.expression = adopt(expression);
+  }
+
+  @Override
+  public <T> T accept(AstVisitor<T> visitor) {
+    return visitor.visitParenthesizedExpr(this);
+  }
+
+  @Override
+  public String getRuleName() {
+    return "primaryExpr";
+  }
+
+  @Override
+  public void appendText(StringBuilder text) {
+    text.append('(');
+    expression.appendText(text);
+    text.append(')');
+  }
+
+}
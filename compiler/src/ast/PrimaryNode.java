@@ -0,0 +1,23 @@
+package ast;
+
+/**
+ * Base class of the operands of unary expressions, i.e. of all alternatives of the {@code primaryExpr} rule.
+ */
+public abstract class PrimaryNode extends Node {
+
+  protected PrimaryNode(Span start, Span stop) {
+    super(start, stop);
+  }
+
+  /**
+   * The tokens of the operand without whitespace and comments, e.g. {@code a[i+1]}.
+   */
+  public String getText() {
+    final StringBuilder text = new StringBuilder();
+    appendText(text);
+    return text.toString();
+  }
+
+  public abstract void appendText(StringBuilder text);
+
+}
@@ -0,0 +1,49 @@
+package ast;
+
+import java.util.List;
+
+public final class ProcedureCallNode extends PrimaryNode {
+
+  public final Span name;
+  public final List<ExpressionNode> arguments;
+
+  /**
+   * Indicates if the call is a statement, otherwise it is part of an expression.
+   */
+  public final boolean isStatement;
+
+  public ProcedureCallNode(Span start, Span stop, Span name, List<ExpressionNode> arguments, boolean isStatement) {
+    super(start, stop);
+    this.name = name;
+    this.arguments = adopt(arguments);
+    this.isStatement = isStatement;
+  }
+
+  @Override
+  public <T> T accept(AstVisitor<T> visitor) {
+    return visitor.visitProcedureCall(this);
+  }
+
+  @Override
+  public String getRuleName() {
+    return "procedureCall";
+  }
+
+  @Override
+  protected String getPathSegment() {
+    return name.text;
+  }
+
+  @Override
+  public void appendText(StringBuilder text) {
+    text.append(name.text).append('(');
+
+    for (int i = 0; i < arguments.size(); i++) {
+      if (i > 0) text.append(',');
+      arguments.get(i).appendText(text);
+    }
+
+    text.append(')');
+  }
+
+}
@@ -0,0 +1,37 @@
+package ast;
+
+import java.util.List;
+
+public final class ProcedureNode extends Node {
+
+  public final ReturnTypeNode returnType;
+  public final Span name;
+  public final List<ParamNode> params;
+  public final BlockNode block;
+  public final Span endName;
+
+  public ProcedureNode(Span start, Span stop, ReturnTypeNode returnType, Span name, List<ParamNode> params, BlockNode block, Span endName) {
+    super(start, stop);
+    this.returnType = adopt(returnType);
+    this.name = name;
+    this.params = adopt(params);
+    this.block = adopt(block);
+    this.endName = endName;
+  }
+
+  @Override
+  public <T> T accept(AstVisitor<T> visitor) {
+    return visitor.visitProcedure(this);
+  }
+
+  @Override
+  public String getRuleName() {
+    return "procedure";
+  }
+
+  @Override
+  protected String getPathSegment() {
+    return name.text;
+  }
+
+}
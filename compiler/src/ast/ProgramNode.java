@@ -0,0 +1,48 @@
+package ast;
+
+import compiler.SourceFile;
+
+import java.util.List;
+
+public final class ProgramNode extends Node {
+
+  public final Span name;
+
+  /**
+   * The declaration blocks and procedures, in the order of the source.
+   */
+  public final List<Node> declarations;
+
+  public final List<Node> statements;
+  public final Span endName;
+
+  /**
+   * The source the AST was built from, for the source text of nodes.
+   */
+  public final SourceFile source;
+
+  public ProgramNode(Span start, Span stop, Span name, List<Node> declarations, List<Node> statements, Span endName, SourceFile source) {
+    super(start, stop);
+    this.name = name;
+    this.declarations = adopt(declarations);
+    this.statements = adopt(statements);
+    this.endName = endName;
+    this.source = source;
+  }
+
+  @Override
+  public <T> T accept(AstVisitor<T> visitor) {
+    return visitor.visitProgram(this);
+  }
+
+  @Override
+  public String getRuleName() {
+    return "program";
+  }
+
+  @Override
+  public String getPath() {
+    return name.text;
+  }
+
+}
@@ -0,0 +1,31 @@
+package ast;
+
+import java.util.List;
+
+public final class RecordDeclarationNode extends Node {
+
+  public final Span name;
+  public final List<VarDeclarationNode> fields;
+
+  public RecordDeclarationNode(Span start, Span stop, Span name, List<VarDeclarationNode> fields) {
+    super(start, stop);
+    this.name = name;
+    this.fields = adopt(fields);
+  }
+
+  @Override
+  public <T> T accept(AstVisitor<T> visitor) {
+    return visitor.visitRecordDeclaration(this);
+  }
+
+  @Override
+  public String getRuleName() {
+    return "recordDeclaration";
+  }
+
+  @Override
+  protected String getPathSegment() {
+    return name.text;
+  }
+
+}
@@ -0,0 +1,25 @@
+package ast;
+
+public final class ReturnStatementNode extends Node {
+
+  /**
+   * The returned expression, {@code null} if nothing is returned.
+   */
+  public final ExpressionNode value;
+
+  public ReturnStatementNode(Span start, Span stop, ExpressionNode value) {
+    super(start, stop);
+    this.value = adopt(value);
+  }
+
+  @Override
+  public <T> T accept(AstVisitor<T> visitor) {
+    return visitor.visitReturnStatement(this);
+  }
+
+  @Override
+  public String getRuleName() {
+    return "returnStatement";
+  }
+
+}
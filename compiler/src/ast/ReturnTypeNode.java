@@ -0,0 +1,29 @@
+package ast;
+
+public final class ReturnTypeNode extends Node {
+
+  /**
+   * The type of the return value, {@code null} for {@code void}.
+   */
+  public final TypeNode type;
+
+  public ReturnTypeNode(Span start, Span stop, TypeNode type) {
+    super(start, stop);
+    this.type = adopt(type);
+  }
+
+  @Override
+  public <T> T accept(AstVisitor<T> visitor) {
+    return visitor.visitReturnType(this);
+  }
+
+  @Override
+  public String getRuleName() {
+    return "returnType";
+  }
+
+  public String getText() {
+    return (type == null) ? start.text : type.getText();
+  }
+
+}
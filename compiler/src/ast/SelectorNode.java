@@ -0,0 +1,50 @@
+package ast;
+
+/**
+ * Either an array selector {@code [index]} or a record selector {@code .field}, optionally followed by the next selector.
+ */
+public final class SelectorNode extends Node {
+
+  /**
+   * The index of an array selector, {@code null} for a record selector.
+   */
+  public final ExpressionNode index;
+
+  /**
+   * The field of a record selector, {@code null} for an array selector.
+   */
+  public final Span field;
+
+  public final SelectorNode next;
+
+  public SelectorNode(Span start, Span stop, ExpressionNode index, Span field, SelectorNode next) {
+    super(start, stop);
+    this.index = adopt(index);
+    this.field = field;
+    this.next = adopt(next);
+  }
+
+  @Override
+  public <T> T accept(AstVisitor<T> visitor) {
+    return visitor.visitSelector(this);
+  }
+
+  @Override
+  public String getRuleName() {
+    return "selector";
+  }
+
+  public void appendText(StringBuilder text) {
+    if (index != null) {
+      text.append('[');
+      index.appendText(text);
+      text.append(']');
+    }
+    else {
+      text.append('.').append(field.text);
+    }
+
+    if (next != null) next.appendText(text);
+  }
+
+}
@@ -0,0 +1,51 @@
+package ast;
+
+import org.antlr.v4.runtime.Token;
+
+/**
+ * The text and position of a single token, kept by the AST instead of the token itself,
+ * so the token stream can be released after the AST has been built.
+ */
+public final class Span {
+
+  public final String text;
+  public final int line;
+  public final int column;
+  public final int startIndex;
+  public final int stopIndex;
+
+  /**
+   * The ID of the name of identifier tokens (see {@code SymbolNames}), -1 for all other tokens.
+   */
+  public final int nameId;
+
+  public Span(String text, int line, int column, int startIndex, int stopIndex) {
+    this(text, line, column, startIndex, stopIndex, -1);
+  }
+
+  public Span(String text, int line, int column, int startIndex, int stopIndex, int nameId) {
+    this.text = text;
+    this.line = line;
+    this.column = column;
+    this.startIndex = startIndex;
+    this.stopIndex = stopIndex;
+    this.nameId = nameId;
+  }
+
+  /**
+   * The column is 1-based, as in all messages of the compiler.
+   */
+  public static Span of(Token token) {
+    return new Span(token.getText(), token.getLine(), 1 + token.getCharPositionInLine(), token.getStartIndex(), token.getStopIndex());
+  }
+
+  public int getLength() {
+    return stopIndex - startIndex + 1;
+  }
+
+  @Override
+  public String toString() {
+    return text;
+  }
+
+}
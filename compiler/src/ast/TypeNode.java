@@ -0,0 +1,31 @@
+package ast;
+
+public final class TypeNode extends Node {
+
+  public final BaseTypeNode baseType;
+  public final int dimensions;
+
+  public TypeNode(Span start, Span stop, BaseTypeNode baseType, int dimensions) {
+    super(start, stop);
+    this.baseType = adopt(baseType);
+    this.dimensions = dimensions;
+  }
+
+  @Override
+  public <T> T accept(AstVisitor<T> visitor) {
+    return visitor.visitType(this);
+  }
+
+  @Override
+  public String getRuleName() {
+    return "type";
+  }
+
+  /**
+   * The type without whitespace, e.g. {@code int[][]}.
+   */
+  public String getText() {
+    return (dimensions == 0) ? baseType.getText() : baseType.getText() + "[]".repeat(dimensions);
+  }
+
+}
@@ -0,0 +1,29 @@
+package ast;
+
+public final class UnaryExprNode extends ExpressionNode {
+
+  /**
+   * The sign before the operand, {@code null} if there is none.
+   */
+  public final Span sign;
+
+  public final PrimaryNode operand;
+
+  public UnaryExprNode(Span start, Span stop, int ordinal, Span sign, PrimaryNode operand) {
+    super(start, stop, ordinal);
+    this.sign = sign;
+    this.operand = adopt(operand);
+  }
+
+  @Override
+  public <T> T accept(AstVisitor<T> visitor) {
+    return visitor.visitUnaryExpr(this);
+  }
+
+  @Override
+  public void appendText(StringBuilder text) {
+    if (sign != null) text.append(sign.text);
+    operand.appendText(text);
+  }
+
+}
@@ -0,0 +1,26 @@
+package ast;
+
+import java.util.List;
+
+public final class VarDeclarationNode extends Node {
+
+  public final TypeNode type;
+  public final List<Span> names;
+
+  public VarDeclarationNode(Span start, Span stop, int ordinal, TypeNode type, List<Span> names) {
+    super(start, stop, ordinal);
+    this.type = adopt(type);
+    this.names = List.copyOf(names);
+  }
+
+  @Override
+  public <T> T accept(AstVisitor<T> visitor) {
+    return visitor.visitVarDeclaration(this);
+  }
+
+  @Override
+  public String getRuleName() {
+    return "varDeclaration";
+  }
+
+}
@@ -0,0 +1,26 @@
+package ast;
+
+import java.util.List;
+
+public final class WhileStatementNode extends Node {
+
+  public final ExpressionNode condition;
+  public final List<Node> statements;
+
+  public WhileStatementNode(Span start, Span stop, ExpressionNode condition, List<Node> statements) {
+    super(start, stop);
+    this.condition = adopt(condition);
+    this.statements = adopt(statements);
+  }
+
+  @Override
+  public <T> T accept(AstVisitor<T> visitor) {
+    return visitor.visitWhileStatement(this);
+  }
+
+  @Override
+  public String getRuleName() {
+    return "whileStatement";
+  }
+
+}
@@ -0,0 +1,32 @@
+package ast;
+
+public final class WriteStatementNode extends Node {
+
+  /**
+   * The string literal including its quotes.
+   */
+  public final Span string;
+
+  public WriteStatementNode(Span start, Span stop, Span string) {
+    super(start, stop);
+    this.string = string;
+  }
+
+  @Override
+  public <T> T accept(AstVisitor<T> visitor) {
+    return visitor.visitWriteStatement(this);
+  }
+
+  @Override
+  public String getRuleName() {
+    return "writeStatement";
+  }
+
+  /**
+   * The string literal without its quotes.
+   */
+  public String getValue() {
+    return string.text.substring(1, string.text.length() - 1);
+  }
+
+}
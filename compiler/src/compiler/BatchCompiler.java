@@ -0,0 +1,243 @@
+package compiler;
+
+import information.CompilerError;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.file.FileSystems;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.PathMatcher;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Compiles many source-files in a single JVM, so JVM startup and parser warmup are only paid once.
+ * <br><br>
+ * The sources are given as a directory (all {@code .yapl} files in it and its subdirectories), a glob
+ * or a manifest-file listing one source-file per line. Each source-file is compiled into its own
+ * subdirectory of the output-directory, named after its path relative to the sources.
+ * Errors are reported per source-file, a failing source-file never stops the rest of the batch.
+ */
+public class BatchCompiler {
+
+  protected static final String SOURCE_EXTENSION = ".yapl";
+
+  protected final CompilerSettings settings;
+  protected final PrintStream out;
+
+  public BatchCompiler(CompilerSettings settings) {
+    this(settings, System.out);
+  }
+
+  public BatchCompiler(CompilerSettings settings, PrintStream out) {
+    this.settings = settings;
+    this.out = out;
+  }
+
+  /**
+   * Compiles all source-files of the batch and prints the result of each source-file.
+   *
+   * @return true if all source-files compiled successfully
+   */
+  public boolean run() {
+    final long start = System.nanoTime();
+    final List<Path> sources;
+    final Path baseDir;
+
+    try {
+      baseDir = getBaseDir(settings.batchSources);
+      if (!settings.isInsideRoot(isGlob(settings.batchSources) ? baseDir : Paths.get(settings.batchSources))) throw new IOException("not below the root");
+      sources = findSources(settings.batchSources);
+    }
+    catch (IOException ex) {
+      out.println("[ERROR] Cannot read the sources '" + settings.batchSources + "'!");
+      return false;
+    }
+
+    final List<Callable<Result>> tasks = new ArrayList<>();
+    for (Path source : sources) {
+      tasks.add(() -> compile(source, getOutputDir(baseDir, source)));
+    }
+
+    final ForkJoinPool pool = new ForkJoinPool(settings.jobs);
+    final List<Future<Result>> results = pool.invokeAll(tasks);
+    pool.shutdown();
+
+    int failed = 0;
+    final List<String> stats = new ArrayList<>();
+    for (int idx = 0; idx < results.size(); idx++) {
+      final Result result = getResult(sources.get(idx), results.get(idx));
+      if (result.stats != null) stats.add("{ \"source\": " + CompilerMetrics.quote(result.source.toString()) + ", \"metrics\": " + result.stats + " }");
+
+      if (result.errors.isEmpty()) {
+        out.println("[OK]     " + result.source);
+        for (String warning : result.warnings) out.println(warning);
+        continue;
+      }
+
+      failed++;
+      out.println("[FAILED] " + result.source);
+      for (String warning : result.warnings) out.println(warning);
+      for (String error : result.errors) {
+        out.println(error);
+      }
+    }
+
+    Compiler.writeStats(settings.statsFile, "[\n" + String.join(",\n", stats) + "\n]", out);
+
+    final long millis = (System.nanoTime() - start) / 1_000_000;
+    out.println();
+    out.println("YAPL batch compilation: " + sources.size() + " files, " + (sources.size() - failed) + " OK, " + failed + " failed (" + millis + " ms)");
+    return failed == 0;
+  }
+
+  /**
+   * Compiles a single source-file, all errors are returned already formatted.
+   */
+  protected Result compile(Path source, Path outputDir) {
+    final SourceFile sourceFile;
+
+    try {
+      // the files of a manifest or symbolic links in a source-directory may point anywhere
+      sourceFile = settings.mapSource(source);
+    }
+    catch (IOException ex) {
+      return new Result(source, List.of("Cannot read the source-file '" + source + "'!"));
+    }
+
+    try {
+      final CompilationUnit unit = new CompilationUnit( settings.forSource(sourceFile, outputDir) );
+      final List<CompilerError> errors = Compiler.run(unit);
+      final List<String> messages = errors.stream().map(error -> error.toString(unit)).collect(Collectors.toCollection(ArrayList::new));
+      final List<String> warnings = unit.warnings.stream().map(warning -> warning.toString(unit)).collect(Collectors.toList());
+      if (unit.errorLimitReached) messages.add("YAPL compilation: stopped at the error limit (--max-errors " + settings.maxErrors + ")");
+
+      return new Result(source, messages, warnings, unit.metrics.toJson(unit.programName));
+    }
+    catch (RuntimeException ex) {
+      return new Result(source, List.of("YAPL compilation: internal compiler error: " + ex));
+    }
+  }
+
+  protected Result getResult(Path source, Future<Result> future) {
+    try {
+      return future.get();
+    }
+    catch (InterruptedException | ExecutionException ex) {
+      return new Result(source, List.of("YAPL compilation: internal compiler error: " + ex.getCause()));
+    }
+  }
+
+
+
+  /**
+   * Resolves the source-files of a source-directory, glob or manifest-file.
+   */
+  protected static List<Path> findSources(String sources) throws IOException {
+    final Path path = Paths.get( isGlob(sources) ? "" : sources );
+
+    if (isGlob(sources)) {
+      final Path baseDir = getBaseDir(sources);
+      final PathMatcher matcher = FileSystems.getDefault().getPathMatcher("glob:" + sources);
+
+      try (Stream<Path> files = Files.walk(baseDir)) {
+        return files.filter(Files::isRegularFile).filter(matcher::matches).sorted().collect(Collectors.toList());
+      }
+    }
+
+    if (Files.isDirectory(path)) {
+      try (Stream<Path> files = Files.walk(path)) {
+        return files.filter(Files::isRegularFile).filter(file -> file.toString().endsWith(SOURCE_EXTENSION)).sorted().collect(Collectors.toList());
+      }
+    }
+
+    if (sources.endsWith(SOURCE_EXTENSION)) {
+      return List.of(path);
+    }
+
+    // manifest-file, paths are relative to the manifest
+    final Path manifestDir = getBaseDir(sources);
+    return Files.readAllLines(path).stream()
+      .map(String::trim)
+      .filter(line -> !line.isEmpty() && !line.startsWith("#"))
+      .map(manifestDir::resolve)
+      .collect(Collectors.toList());
+  }
+
+  /**
+   * Returns the directory the source-files are relative to.
+   */
+  protected static Path getBaseDir(String sources) {
+    if (isGlob(sources)) {
+      final int firstGlobChar = indexOfGlobChar(sources);
+      final int lastSeparator = sources.lastIndexOf('/', firstGlobChar);
+      return Paths.get( (lastSeparator < 0) ? "" : sources.substring(0, lastSeparator) );
+    }
+
+    final Path path = Paths.get(sources);
+    if (Files.isDirectory(path)) return path;
+
+    return (path.getParent() != null) ? path.getParent() : Paths.get("");
+  }
+
+  /**
+   * Each source-file is compiled into {@code <output-directory>/<relative-source-path-without-extension>}.
+   */
+  protected Path getOutputDir(Path baseDir, Path source) {
+    final Path normalizedSource = source.toAbsolutePath().normalize();
+    final Path normalizedBaseDir = baseDir.toAbsolutePath().normalize();
+
+    String relative = (normalizedSource.startsWith(normalizedBaseDir))
+      ? normalizedBaseDir.relativize(normalizedSource).toString()
+      : normalizedSource.getFileName().toString();
+
+    if (relative.endsWith(SOURCE_EXTENSION)) {
+      relative = relative.substring(0, relative.length() - SOURCE_EXTENSION.length());
+    }
+
+    return settings.outputDir.resolve(relative);
+  }
+
+  protected static boolean isGlob(String sources) {
+    return indexOfGlobChar(sources) >= 0;
+  }
+
+  protected static int indexOfGlobChar(String sources) {
+    for (int idx = 0; idx < sources.length(); idx++) {
+      if ("*?[{".indexOf(sources.charAt(idx)) >= 0) return idx;
+    }
+
+    return -1;
+  }
+
+
+
+  protected static class Result {
+
+    public final Path source;
+    public final List<String> errors;
+    public final List<String> warnings;
+    public final String stats;
+
+    public Result(Path source, List<String> errors) {
+      this(source, errors, List.of(), null);
+    }
+
+    public Result(Path source, List<String> errors, List<String> warnings, String stats) {
+      this.source = source;
+      this.errors = errors;
+      this.warnings = warnings;
+      this.stats = stats;
+    }
+
+  }
+
+}
@@ -0,0 +1,26 @@
+package compiler;
+
+import information.CompilerError;
+
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * Thrown by the programmatic compile API if the source-file contains errors.
+ */
+public class CompilationException extends Exception {
+
+  private static final long serialVersionUID = 1L;
+
+  public final CompilationUnit unit;
+
+  public CompilationException(CompilationUnit unit) {
+    super( unit.errors.stream().map(error -> error.toString(unit)).collect(Collectors.joining("\n")) );
+    this.unit = unit;
+  }
+
+  public List<CompilerError> getErrors() {
+    return unit.errors;
+  }
+
+}
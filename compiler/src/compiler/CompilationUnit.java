@@ -0,0 +1,73 @@
+package compiler;
+
+import analyser.SymbolNames;
+import information.CompilerError;
+
+import java.io.PrintStream;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Holds all the state of a single compilation, so multiple compilations can run in the same JVM at once.
+ * A new {@code CompilationUnit} has to be used for each compilation, it is passed to every phase of the compiler.
+ */
+public class CompilationUnit {
+
+  public final CompilerSettings settings;
+  public final SourceFile source;
+
+  /**
+   * The IDs of all symbol names, shared by the AST and the symbol table.
+   */
+  public final SymbolNames names = new SymbolNames();
+
+  /**
+   * The name of the compiled program, available as soon as the source-file was parsed.
+   */
+  public String programName = null;
+
+  public final List<CompilerError> errors = new ArrayList<>();
+  public final List<CompilerError> warnings = new ArrayList<>();
+
+  /**
+   * Whether the compilation was stopped, since the error limit of the settings was reached.
+   */
+  public boolean errorLimitReached = false;
+  public final CompilerMetrics metrics = new CompilerMetrics();
+
+  /**
+   * The stream for all output of the compiler phases, like the symbol dump.
+   */
+  public PrintStream out = System.out;
+
+  public CompilationUnit(CompilerSettings settings) {
+    this.settings = settings;
+    this.source = settings.source;
+  }
+
+  public boolean hasErrors() {
+    return errors.size() > 0;
+  }
+
+  /**
+   * Adds the error, once the error limit of the settings is reached the running phase is stopped.
+   *
+   * @throws ErrorLimitException if the error limit is reached
+   */
+  public void addError(CompilerError error) {
+    errors.add(error);
+
+    if (settings.maxErrors > 0 && errors.size() >= settings.maxErrors) {
+      this.errorLimitReached = true;
+      throw new ErrorLimitException(settings.maxErrors);
+    }
+  }
+
+  /**
+   * Adds the warning, warnings neither stop the compilation nor count towards the error limit.
+   */
+  public void addWarning(CompilerError warning) {
+    warnings.add(warning);
+  }
+
+}
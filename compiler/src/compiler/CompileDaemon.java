@@ -0,0 +1,234 @@
+package compiler;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.PrintStream;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.attribute.PosixFilePermissions;
+import java.security.MessageDigest;
+import java.security.SecureRandom;
+import java.util.ArrayList;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * A long-running compiler which accepts compile requests on a loopback port.
+ * Since the JVM keeps running, the JIT-compiled compiler and the DFA cache shared by all {@code YaplParser}s
+ * stay warm between requests, so only the first compilation pays for class loading and warmup.
+ * <br><br>
+ * Protocol (UTF-8, one item per line):
+ * <ul>
+ *  <li>Request: the token of the daemon, the working directory of the client, followed by the compiler arguments and an empty line.</li>
+ *  <li>Response: the output of the compiler, followed by the line {@code #YAPL-EXIT <status>}.</li>
+ * </ul>
+ * {@code scripts/compile.sh} is a thin client for this protocol.
+ * <br><br>
+ * Trust boundary: the daemon reads and writes with the rights of the user who started it, but every local user can connect to the loopback port.
+ * Therefore each daemon creates a random token in a file only its owner can read ({@code ~/.yapl-daemon-<port>.token}),
+ * requests without that token are rejected before any argument is parsed.
+ * In addition, requests may only read and write below the working directory of the daemon (its {@code root}),
+ * source-files, batch sources, output-directories and stats-files outside of it are rejected.
+ */
+public class CompileDaemon {
+
+  public static final int DEFAULT_PORT = 7531;
+  public static final String EXIT_PREFIX = "#YAPL-EXIT ";
+
+  protected static final int WARMUP_ITERATIONS = 200;
+  protected static final String WARMUP_PROGRAM = String.join("\n",
+    "Program warmup",
+    "Declare",
+    "  Const N = 10;",
+    "  Record Item int value; bool flag; EndRecord;",
+    "  int[] values;",
+    "Procedure int sum(int[] a)",
+    "Declare",
+    "  int i, s;",
+    "Begin",
+    "  i := 0; s := 0;",
+    "  While i < #a Do",
+    "    If a[i] % 2 == 0 And i != N Or False Then s := s + a[i] * 2; Else s := s - (a[i] / 3); EndIf;",
+    "    i := i + 1;",
+    "  EndWhile;",
+    "  Return s;",
+    "End sum;",
+    "Declare",
+    "  Item item;",
+    "Begin",
+    "  values := new int[N + 1];",
+    "  item := new Item;",
+    "  item.value := -sum(values);",
+    "  Write \"warm\";",
+    "  writeint(item.value);",
+    "End warmup.");
+
+  protected final int port;
+  protected final ExecutorService workers;
+
+  /**
+   * The file the token is written to, it is deleted when the daemon exits.
+   */
+  protected final Path tokenFile;
+  protected final byte[] token;
+
+  /**
+   * The directory requests may read from and write to, i.e. the working directory of the daemon.
+   */
+  protected final Path root;
+
+  public CompileDaemon(int port) {
+    this.port = port;
+    this.workers = Executors.newFixedThreadPool( Runtime.getRuntime().availableProcessors() );
+    this.root = Paths.get("").toAbsolutePath().normalize();
+    this.tokenFile = Paths.get(System.getProperty("user.home"), ".yapl-daemon-" + port + ".token");
+
+    final byte[] random = new byte[32];
+    new SecureRandom().nextBytes(random);
+    this.token = HexFormat.of().formatHex(random).getBytes(StandardCharsets.UTF_8);
+  }
+
+  /**
+   * Runs the daemon until it is killed.
+   *
+   * @return the exit status, 1 if the daemon could not be started
+   */
+  public int run() {
+    try (ServerSocket server = new ServerSocket(port, 50, InetAddress.getLoopbackAddress())) {
+      if (!warmup()) return 1;
+      writeToken();
+      System.out.println("YAPL compile daemon: listening on " + server.getLocalSocketAddress() + ", token in " + tokenFile);
+
+      while (!server.isClosed()) {
+        final Socket client = server.accept();
+        workers.execute(() -> handle(client));
+      }
+    }
+    catch (IOException ex) {
+      System.err.println("[ERROR] YAPL compile daemon: " + ex.getMessage());
+      return 1;
+    }
+    finally {
+      workers.shutdown();
+    }
+
+    return 0;
+  }
+
+  /**
+   * Creates the token-file, which only the owner of the daemon can read, and deletes it on exit.
+   * An existing token-file is replaced, since the file is created with its permissions set from the start.
+   */
+  protected void writeToken() throws IOException {
+    Files.deleteIfExists(tokenFile);
+    Files.createFile(tokenFile, PosixFilePermissions.asFileAttribute( PosixFilePermissions.fromString("rw-------") ));
+    Files.write(tokenFile, token);
+
+    Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+      try {
+        Files.deleteIfExists(tokenFile);
+      }
+      catch (IOException ex) {
+        System.err.println("[ERROR] YAPL compile daemon: cannot delete the token-file '" + tokenFile + "'!");
+      }
+    }));
+  }
+
+  /**
+   * Handles a single compile request, the connection is closed afterwards.
+   */
+  protected void handle(Socket client) {
+    try (client) {
+      final BufferedReader in = new BufferedReader( new InputStreamReader(client.getInputStream(), StandardCharsets.UTF_8) );
+      final PrintStream out = new PrintStream(client.getOutputStream(), false, StandardCharsets.UTF_8);
+
+      final String requestToken = in.readLine();
+      if (requestToken == null || !MessageDigest.isEqual(token, requestToken.getBytes(StandardCharsets.UTF_8))) {
+        out.println("[ERROR] Invalid token, the compile daemon only accepts requests with the token of '" + tokenFile + "'!");
+        out.println(EXIT_PREFIX + 1);
+        out.flush();
+        System.err.println("[DAEMON] rejected a request with an invalid token");
+        return;
+      }
+
+      final Path workingDir = Paths.get( in.readLine() );
+      final List<String> args = new ArrayList<>();
+      String line;
+      while ((line = in.readLine()) != null && !line.isEmpty()) {
+        args.add(line);
+      }
+
+      final long start = System.nanoTime();
+      final int status = execute(args.toArray(new String[0]), workingDir, out);
+      out.println(EXIT_PREFIX + status);
+      out.flush();
+
+      final long micros = (System.nanoTime() - start) / 1_000;
+      System.out.println("[DAEMON] " + String.join(" ", args) + " -> " + status + " (" + (micros / 1000.0) + " ms)");
+    }
+    catch (Exception ex) {
+      System.err.println("[ERROR] YAPL compile daemon: request failed with " + ex);
+    }
+  }
+
+  protected int execute(String[] args, Path workingDir, PrintStream out) {
+    final CompilerSettings settings = CompilerSettings.parse(args, workingDir, root);
+
+    if (settings.daemon) {
+      out.println("[ERROR] A compile daemon cannot be started by a compile request!");
+      return 1;
+    }
+
+    if (settings.run) {
+      out.println("[ERROR] The compile daemon cannot run programs, they would share the console of the daemon!");
+      return 1;
+    }
+
+    if (!settings.isInsideRoot(settings.outputDir) || (settings.statsFile != null && !settings.statsFile.toString().equals("-") && !settings.isInsideRoot(settings.statsFile))) {
+      out.println("[ERROR] The compile daemon only writes below its working directory '" + root + "'!");
+      return 1;
+    }
+
+    try {
+      return Compiler.execute(settings, out, out);
+    }
+    catch (RuntimeException ex) {
+      out.println("YAPL compilation: internal compiler error: " + ex);
+      return 1;
+    }
+  }
+
+  /**
+   * Compiles a small program in memory, so the first request already hits a warm compiler.
+   * A compiler which cannot compile the warmup program would fail every request, so the daemon is not started then.
+   *
+   * @return whether the warmup succeeded
+   */
+  protected boolean warmup() {
+    try {
+      for (int i = 0; i < WARMUP_ITERATIONS; i++) {
+        Compiler.compileToMemory(WARMUP_PROGRAM);
+      }
+
+      return true;
+    }
+    catch (CompilationException ex) {
+      System.err.println("[ERROR] YAPL compile daemon: not started, the warmup program has errors\n" + ex.getMessage());
+    }
+    catch (RuntimeException ex) {
+      System.err.println("[ERROR] YAPL compile daemon: not started, internal compiler error during the warmup");
+      ex.printStackTrace();
+    }
+
+    return false;
+  }
+
+}
@@ -2,11 +2,16 @@ package compiler;
 
 import analyser.Analyser;
 import analyser.SymbolDumper;
+import ast.AstBuilder;
+import ast.ProgramNode;
 import generator.*;
 import information.CompilerError;
-import org.antlr.v4.runtime.CharStreams;
+import org.antlr.v4.runtime.ANTLRErrorListener;
+import org.antlr.v4.runtime.BailErrorStrategy;
 import org.antlr.v4.runtime.CommonTokenStream;
-import org.antlr.v4.runtime.tree.ParseTreeWalker;
+import org.antlr.v4.runtime.DefaultErrorStrategy;
+import org.antlr.v4.runtime.atn.PredictionMode;
+import org.antlr.v4.runtime.misc.ParseCancellationException;
 import parser.ErrorListener;
 import parser.YaplLexer;
 import parser.YaplParser;
@@ -15,90 +20,316 @@ import stdlib.DefaultJvmStandardLibrary;
 import stdlib.StandardLibrary;
 import analyser.SymbolTable;
 
+import java.io.IOException;
+import java.io.PrintStream;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.nio.file.Files;
 import java.nio.file.Path;
-import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
 
 public class Compiler {
 
-  public static CompilerSettings settings;
-  public static String programName = null;
-  public static String[] ruleNames = new String[0];
-
-  public static List<CompilerError> errors = new ArrayList<>();
-
   public static void main(String[] args) {
-    Compiler.settings = CompilerSettings.parse(args);
+    final CompilerSettings settings = CompilerSettings.parse(args);
 
+    final int status = settings.daemon
+      ? new CompileDaemon(settings.port).run()
+      : execute(settings, System.out, System.err);
+    if (status != 0) System.exit(status);
+  }
+
+  /**
+   * Executes the compiler for the given settings and prints all messages to the given streams.
+   *
+   * @return the exit status, 0 if everything compiled successfully
+   */
+  public static int execute(CompilerSettings settings, PrintStream out, PrintStream err) {
     if (settings.showUsageInfo) {
-      System.out.println(settings.getUsageInfo());
-      if (settings.error != null) System.exit(1);
-      else return;
+      out.println(settings.getUsageInfo());
+      return (settings.error != null) ? 1 : 0;
+    }
+
+    if (settings.batch) {
+      return new BatchCompiler(settings, out).run() ? 0 : 1;
+    }
+
+    if (settings.run) {
+      return compileAndRun(settings, err);
+    }
+
+    out.println("Compiling...");
+
+    final CompilationUnit unit = new CompilationUnit(settings);
+    unit.out = out;
+    run(unit);
+    writeStats(settings.statsFile, unit.metrics.toJson(unit.programName), err);
+    warn(unit, err);
+
+    if (unit.hasErrors()) {
+      abort(unit, err);
+      return 1;
+    }
+
+    out.println("YAPL compilation: OK");
+    return 0;
+  }
+
+  /**
+   * Compiles the source-file in memory and invokes the main method of the program in this JVM.
+   * Compile and execution time are reported separately to the error stream, so the output stream only contains the output of the program.
+   *
+   * @return the exit status, 0 if the program compiled and ran successfully
+   */
+  public static int compileAndRun(CompilerSettings settings, PrintStream err) {
+    final long compileStart = System.nanoTime();
+    final CompilationUnit unit = new CompilationUnit(settings);
+    final MemoryClassSink sink = new MemoryClassSink();
+    run(unit, sink);
+    writeStats(settings.statsFile, unit.metrics.toJson(unit.programName), err);
+    warn(unit, err);
+
+    if (unit.hasErrors()) {
+      abort(unit, err);
+      return 1;
     }
 
-    System.out.println("Compiling...");
+    err.println("YAPL compilation: OK (" + getMillis(compileStart) + " ms)");
+
+    final long runStart = System.nanoTime();
+    try {
+      final String mainClass = unit.programName.substring(0, 1).toUpperCase() + unit.programName.substring(1);
+      final Class<?> program = new GeneratedClassLoader(sink.classes).loadClass(mainClass);
+      final MethodHandle main = MethodHandles.publicLookup().findStatic(program, "main", MethodType.methodType(void.class, String[].class));
+      main.invokeExact(new String[0]);
+    }
+    catch (Throwable ex) {
+      System.out.flush();
+      err.println();
+      err.println("YAPL execution: FAILED with " + ex + " (" + getMillis(runStart) + " ms)");
+      return 1;
+    }
+
+    System.out.flush();
+    err.println();
+    err.println("YAPL execution: OK (" + getMillis(runStart) + " ms)");
+    return 0;
+  }
+
+  /**
+   * Compiles the source-code in memory, nothing is written to disk.
+   * The profiling options of the given settings are applied, all other modes and paths are ignored.
+   *
+   * @return the generated class-files, mapped from binary class-name to bytes
+   * @throws CompilationException if the source-code contains errors
+   */
+  public static Map<String, byte[]> compileToMemory(String sourceCode, CompilerSettings options) throws CompilationException {
+    final CompilerSettings settings = options.forSource(sourceCode, null);
+    settings.compile = true;
+
+    final MemoryClassSink sink = new MemoryClassSink();
+    final CompilationUnit unit = new CompilationUnit(settings);
+    run(unit, sink);
+
+    if (unit.hasErrors()) throw new CompilationException(unit);
+    return sink.classes;
+  }
+
+  public static Map<String, byte[]> compileToMemory(String sourceCode) throws CompilationException {
+    return compileToMemory(sourceCode, new CompilerSettings());
+  }
+
+  /**
+   * Runs all phases of the compiler for the given settings, the class-files are written to the output-directory.
+   * Instead of aborting on errors, the compilation stops after the failing phase and the errors are returned.
+   */
+  public static List<CompilerError> run(CompilationUnit unit) {
+    return run(unit, new DirectoryClassSink(unit.settings.outputDir));
+  }
+
+  /**
+   * Runs all phases of the compiler for the given settings, the class-files are passed to the given sink.
+   * Instead of aborting on errors, the compilation stops after the failing phase and the errors are returned.
+   */
+  public static List<CompilerError> run(CompilationUnit unit, ClassSink sink) {
+    try {
+      return runPhases(unit, sink);
+    }
+    catch (ErrorLimitException ex) {
+      // the phase which reached the error limit is stopped, but still measured
+      unit.metrics.endPhase();
+      return unit.errors;
+    }
+  }
+
+  protected static List<CompilerError> runPhases(CompilationUnit unit, ClassSink sink) {
+    final CompilerSettings settings = unit.settings;
+    final CompilerMetrics metrics = unit.metrics;
 
     StandardLibrary stdlib = DefaultJvmStandardLibrary.instance;
-    ProgramContext parseTree = parse(settings.sourceCode);
-    if (errors.size() > 0) abort(errors);
+    metrics.startPhase("parse");
+    ProgramNode program = parse(unit);
+    metrics.endPhase();
+    if (unit.hasErrors()) return unit.errors;
+
+    metrics.startPhase("analyse");
+    SymbolTable symbolTable = analyse(unit, program, stdlib);
+    metrics.endPhase();
+    metrics.symbols = CompilerMetrics.countSymbols(symbolTable.root);
+    if (unit.hasErrors()) return unit.errors;
+
+    if (settings.doSymbolDump) {
+      metrics.startPhase("symboldump");
+      dumpSymbols(program, symbolTable, unit.out);
+      metrics.endPhase();
+    }
+    else if (settings.profile) {
+      metrics.startPhase("profile");
+      profile(unit, program, symbolTable, stdlib, metrics.track(sink));
+      metrics.endPhase();
+    }
+    else if (settings.compile) {
+      metrics.startPhase("compile");
+      compile(unit, program, symbolTable, stdlib, metrics.track(sink));
+      metrics.endPhase();
+    }
 
-    SymbolTable symbolTable = analyse(parseTree, stdlib);
-    if (errors.size() > 0) abort(errors);
+    return unit.errors;
+  }
 
-    if (settings.doSymbolDump) dumpSymbols(parseTree, symbolTable);
-    else if (settings.profile) profile(parseTree, symbolTable, stdlib, settings.outputDir);
-    else if (settings.compile) compile(parseTree, symbolTable, stdlib, settings.outputDir);
+  /**
+   * Parses the source-code and builds the AST of the program, {@code null} if the source-code contains syntax errors.
+   * The parse-tree and the token stream are only referenced while the AST is built, so both are released on return.
+   */
+  public static ProgramNode parse(CompilationUnit unit) {
+    final ProgramContext parseTree = parseTree(unit);
+    // walks the whole parse tree, so only done if the metrics are written
+    if (unit.settings.statsFile != null) unit.metrics.parseTreeNodes = CompilerMetrics.countNodes(parseTree);
+    if (unit.hasErrors()) return null;
 
-    System.out.println("YAPL compilation: OK");
+    final AstBuilder builder = new AstBuilder(unit.source, unit.names);
+    final ProgramNode program = builder.buildProgram(parseTree);
+    unit.metrics.astNodes = builder.nodes;
+    return program;
   }
 
-  public static ProgramContext parse(String sourceCode) {
-    YaplLexer lexer = new YaplLexer( CharStreams.fromString(sourceCode) );
+  public static ProgramContext parseTree(CompilationUnit unit) {
+    YaplLexer lexer = new YaplLexer( unit.source.newCharStream() );
     lexer.removeErrorListeners();
-    lexer.addErrorListener(new ErrorListener());
+    lexer.addErrorListener(new ErrorListener(unit));
     CommonTokenStream tokens = new CommonTokenStream(lexer);
 
     YaplParser parser = new YaplParser(tokens);
-    parser.removeErrorListeners();
-    parser.addErrorListener(new ErrorListener());
-    ProgramContext parseTree = parser.program();
+    ProgramContext parseTree = parseProgram(parser, new ErrorListener(unit));
+    unit.metrics.tokens = tokens.size();
 
-    ruleNames = parser.getRuleNames();
-    programName = parseTree.Id(0).getText();
+    unit.programName = parseTree.Id(0).getText();
     return parseTree;
   }
 
-  public static SymbolTable analyse(ProgramContext parseTree, StandardLibrary stdlib) {
-    Analyser analyser = new Analyser(stdlib);
-    ParseTreeWalker.DEFAULT.walk(analyser, parseTree);
+  /**
+   * Parses in two stages: the fast SLL prediction mode is tried first and bails out on the first syntax error.
+   * Only then the program is parsed again with full LL prediction, which reports all syntax errors to the error listener.
+   * Both stages produce the same parse-tree for valid programs, SLL only fails on syntax errors or rare ambiguities.
+   */
+  public static ProgramContext parseProgram(YaplParser parser, ANTLRErrorListener errorListener) {
+    parser.removeErrorListeners();
+    parser.setErrorHandler(new BailErrorStrategy());
+    parser.getInterpreter().setPredictionMode(PredictionMode.SLL);
+
+    try {
+      return parser.program();
+    }
+    catch (ParseCancellationException ex) {
+      parser.getTokenStream().seek(0);
+      parser.reset();
+
+      parser.addErrorListener(errorListener);
+      parser.setErrorHandler(new DefaultErrorStrategy());
+      parser.getInterpreter().setPredictionMode(PredictionMode.LL);
+      return parser.program();
+    }
+  }
+
+  public static SymbolTable analyse(CompilationUnit unit, ProgramNode program, StandardLibrary stdlib) {
+    Analyser analyser = new Analyser(unit, stdlib);
+    analyser.visit(program);
     return analyser.symboltable;
   }
 
-  public static void dumpSymbols(ProgramContext parseTree, SymbolTable symbolTable) {
-    SymbolDumper symbolDumper = new SymbolDumper(symbolTable);
-    symbolDumper.visit(parseTree);
+  public static void dumpSymbols(ProgramNode program, SymbolTable symbolTable, PrintStream out) {
+    SymbolDumper symbolDumper = new SymbolDumper(symbolTable, out);
+    symbolDumper.visit(program);
   }
 
-  public static void profile(ProgramContext parseTree, SymbolTable symbolTable, StandardLibrary stdlib, Path outputDir) {
-    Profiler profiler = new JvmProfiler(stdlib, outputDir);
-    ProfilerDriver profilerDriver = new ProfilerDriver(symbolTable, profiler);
-    profilerDriver.visit(parseTree);
+  public static void profile(CompilationUnit unit, ProgramNode program, SymbolTable symbolTable, StandardLibrary stdlib, ClassSink sink) {
+    Profiler profiler = new JvmProfiler(stdlib, sink);
+    ProfilerDriver profilerDriver = new ProfilerDriver(unit, symbolTable, profiler);
+    profilerDriver.visit(program);
   }
 
-  public static void compile(ProgramContext parseTree, SymbolTable symbolTable, StandardLibrary stdlib, Path outputDir) {
-    CodeGenerator codeGenerator = new JvmCodeGenerator(stdlib, outputDir);
-    CodeGeneratorDriver codeGeneratorDriver = new CodeGeneratorDriver(symbolTable, codeGenerator);
-    codeGeneratorDriver.visit(parseTree);
+  public static void compile(CompilationUnit unit, ProgramNode program, SymbolTable symbolTable, StandardLibrary stdlib, ClassSink sink) {
+    CodeGenerator codeGenerator = new JvmCodeGenerator(stdlib, sink);
+    CodeGeneratorDriver codeGeneratorDriver = new CodeGeneratorDriver(unit, symbolTable, codeGenerator);
+    codeGeneratorDriver.visit(program);
   }
 
-  protected static void abort(List<CompilerError> errors) {
-    System.err.println();
+  /**
+   * Writes the metrics JSON to the stats-file, {@code -} writes it to the error stream.
+   */
+  public static void writeStats(Path statsFile, String json, PrintStream err) {
+    if (statsFile == null) return;
+
+    if (statsFile.toString().equals("-")) {
+      err.println(json);
+      return;
+    }
+
+    try {
+      if (statsFile.getParent() != null) Files.createDirectories(statsFile.getParent());
+      Files.writeString(statsFile, json + "\n");
+    }
+    catch (IOException ex) {
+      err.println("[ERROR] Cannot write the stats-file '" + statsFile + "'!");
+    }
+  }
+
+  protected static double getMillis(long startNanos) {
+    return (System.nanoTime() - startNanos) / 1_000 / 1000.0;
+  }
+
+  /**
+   * Prints the warnings, which are reported whether the compilation succeeded or not.
+   */
+  protected static void warn(CompilationUnit unit, PrintStream err) {
+    if (unit.warnings.isEmpty()) return;
+
+    final StringBuilder warnings = new StringBuilder();
+    for (CompilerError warning : unit.warnings) {
+      warning.appendTo(warnings, unit).append( System.lineSeparator() );
+    }
+
+    err.print(warnings);
+    err.flush();
+  }
+
+  protected static void abort(CompilationUnit unit, PrintStream err) {
+    err.println();
+
+    // all errors are rendered into one builder and written at once
+    final StringBuilder errors = new StringBuilder();
+    for (CompilerError error : unit.errors) {
+      error.appendTo(errors, unit).append( System.lineSeparator() );
+    }
 
-    for (CompilerError error : errors) {
-      System.err.println(error);
+    if (unit.errorLimitReached) {
+      errors.append("YAPL compilation: stopped at the error limit (--max-errors ").append(unit.settings.maxErrors).append(")").append( System.lineSeparator() );
     }
 
-    System.exit(1);
+    err.print(errors);
+    err.flush();
   }
 
 }
@@ -0,0 +1,187 @@
+package compiler;
+
+import analyser.SymbolTable.Scope;
+import generator.ClassSink;
+import org.antlr.v4.runtime.tree.ParseTree;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Collects metrics of a single compilation: wall time, CPU time and allocated bytes of each phase,
+ * as well as the sizes of the intermediate results and of the generated class-files.
+ * <br><br>
+ * Times and allocations are measured for the thread running the compilation, so compilations running in parallel
+ * (e.g. in a batch) do not disturb each other. Values the JVM cannot measure are reported as -1.
+ */
+public class CompilerMetrics {
+
+  protected static final ThreadMXBean threads = ManagementFactory.getThreadMXBean();
+
+  public final List<Phase> phases = new ArrayList<>();
+  public final List<ClassMetrics> classes = new ArrayList<>();
+
+  public int tokens = 0;
+
+  /**
+   * Only counted if the metrics are written (see {@code --stats}), because it needs a walk over the whole parse tree.
+   */
+  public int parseTreeNodes = 0;
+  public int astNodes = 0;
+  public int symbols = 0;
+
+  protected Phase currPhase = null;
+
+
+
+  public CompilerMetrics startPhase(String name) {
+    this.currPhase = new Phase(name);
+    currPhase.wallNanos = System.nanoTime();
+    currPhase.cpuNanos = getCpuTime();
+    currPhase.allocatedBytes = getAllocatedBytes();
+    return this;
+  }
+
+  public CompilerMetrics endPhase() {
+    currPhase.wallNanos = System.nanoTime() - currPhase.wallNanos;
+    currPhase.cpuNanos = (currPhase.cpuNanos < 0) ? -1 : getCpuTime() - currPhase.cpuNanos;
+    currPhase.allocatedBytes = (currPhase.allocatedBytes < 0) ? -1 : getAllocatedBytes() - currPhase.allocatedBytes;
+
+    phases.add(currPhase);
+    this.currPhase = null;
+    return this;
+  }
+
+  /**
+   * Wraps the sink, so the sizes of all class-files passing through are recorded.
+   */
+  public ClassSink track(ClassSink sink) {
+    return (className, bytes) -> {
+      classes.add( new ClassMetrics(className, bytes) );
+      sink.write(className, bytes);
+    };
+  }
+
+  public int getConstantPoolSize() {
+    return classes.stream().mapToInt(cls -> cls.constantPoolSize).sum();
+  }
+
+  public int getBytecodeSize() {
+    return classes.stream().mapToInt(cls -> cls.bytes).sum();
+  }
+
+
+
+  public static int countNodes(ParseTree tree) {
+    int count = 1;
+
+    for (int i = 0; i < tree.getChildCount(); i++) {
+      count += countNodes(tree.getChild(i));
+    }
+
+    return count;
+  }
+
+  public static int countSymbols(Scope scope) {
+    int count = scope.symbols.size();
+
+    for (Scope child : scope.children) {
+      count += countSymbols(child);
+    }
+
+    return count;
+  }
+
+  protected static long getCpuTime() {
+    return threads.isCurrentThreadCpuTimeSupported() ? threads.getCurrentThreadCpuTime() : -1;
+  }
+
+  protected static long getAllocatedBytes() {
+    if (!(threads instanceof com.sun.management.ThreadMXBean)) return -1;
+
+    final com.sun.management.ThreadMXBean sunThreads = (com.sun.management.ThreadMXBean) threads;
+    if (!sunThreads.isThreadAllocatedMemorySupported() || !sunThreads.isThreadAllocatedMemoryEnabled()) return -1;
+
+    return sunThreads.getThreadAllocatedBytes( Thread.currentThread().getId() );
+  }
+
+
+
+  public String toJson(String programName) {
+    final StringBuilder json = new StringBuilder();
+    json.append("{\n");
+    json.append("  \"program\": ").append( quote(programName) ).append(",\n");
+
+    json.append("  \"phases\": [");
+    for (int i = 0; i < phases.size(); i++) {
+      final Phase phase = phases.get(i);
+      json.append( (i > 0) ? ",\n" : "\n" )
+        .append("    { \"name\": ").append( quote(phase.name) )
+        .append(", \"wallNanos\": ").append(phase.wallNanos)
+        .append(", \"cpuNanos\": ").append(phase.cpuNanos)
+        .append(", \"allocatedBytes\": ").append(phase.allocatedBytes)
+        .append(" }");
+    }
+    json.append( phases.isEmpty() ? "],\n" : "\n  ],\n" );
+
+    json.append("  \"tokens\": ").append(tokens).append(",\n");
+    json.append("  \"parseTreeNodes\": ").append(parseTreeNodes).append(",\n");
+    json.append("  \"astNodes\": ").append(astNodes).append(",\n");
+    json.append("  \"symbols\": ").append(symbols).append(",\n");
+
+    json.append("  \"classes\": [");
+    for (int i = 0; i < classes.size(); i++) {
+      final ClassMetrics cls = classes.get(i);
+      json.append( (i > 0) ? ",\n" : "\n" )
+        .append("    { \"name\": ").append( quote(cls.name) )
+        .append(", \"constantPoolSize\": ").append(cls.constantPoolSize)
+        .append(", \"bytes\": ").append(cls.bytes)
+        .append(" }");
+    }
+    json.append( classes.isEmpty() ? "],\n" : "\n  ],\n" );
+
+    json.append("  \"constantPoolSize\": ").append( getConstantPoolSize() ).append(",\n");
+    json.append("  \"bytecodeSize\": ").append( getBytecodeSize() ).append("\n");
+    return json.append("}").toString();
+  }
+
+  protected static String quote(String value) {
+    if (value == null) return "null";
+    return "\"" + value.replace("\\", "\\\\").replace("\"", "\\\"") + "\"";
+  }
+
+
+
+  public static class Phase {
+
+    public final String name;
+    public long wallNanos;
+    public long cpuNanos;
+    public long allocatedBytes;
+
+    public Phase(String name) {
+      this.name = name;
+    }
+
+  }
+
+  public static class ClassMetrics {
+
+    public final String name;
+    public final int constantPoolSize;
+    public final int bytes;
+
+    /**
+     * The size of the constant pool is read from the {@code constant_pool_count} of the class-file.
+     */
+    public ClassMetrics(String name, byte[] classFile) {
+      this.name = name;
+      this.constantPoolSize = (((classFile[8] & 0xFF) << 8) | (classFile[9] & 0xFF)) - 1;
+      this.bytes = classFile.length;
+    }
+
+  }
+
+}
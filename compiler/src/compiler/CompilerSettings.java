@@ -1,5 +1,7 @@
 package compiler;
 
+import java.io.IOException;
+import java.nio.file.AccessDeniedException;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
@@ -7,21 +9,51 @@ import java.util.Arrays;
 
 public class CompilerSettings {
 
-  protected CompilerSettings() {}
+  public CompilerSettings() {}
 
   public boolean showUsageInfo = true;
   public boolean doSymbolDump = false;
   public boolean compile = false;
   public boolean profile = false;
+  public boolean batch = false;
+  public boolean daemon = false;
+  public boolean run = false;
 
-  public String sourceCode = null;
+  public SourceFile source = null;
   public Path outputDir = null;
 
+  /**
+   * The source-directory, glob or manifest-file of a batch compilation.
+   */
+  public String batchSources = null;
+  public int jobs = Runtime.getRuntime().availableProcessors();
+
+  /**
+   * The loopback port the compile daemon listens on.
+   */
+  public int port = CompileDaemon.DEFAULT_PORT;
+
   public int[] vardumpLineNrs = new int[0];
   public int[] watchLineNrs = new int[0];
   public boolean watchAll = false;
   public String[] trackedFunctions = new String[0];
 
+  /**
+   * The number of errors after which the compilation stops, 0 for no limit.
+   */
+  public int maxErrors = 0;
+
+  /**
+   * The file the metrics of the compilation are written to as JSON, {@code -} for the error stream.
+   */
+  public Path statsFile = null;
+
+  /**
+   * The directory all files read or written have to be below, {@code null} for no restriction.
+   * Set for the requests of the compile daemon, which reads and writes with the rights of its owner.
+   */
+  public Path root = null;
+
   public String error = null;
 
 
@@ -45,28 +77,119 @@ public class CompilerSettings {
       .append("--watch <line1:line2:...>                logs the expressions at the given lines\r\n")
       .append("--watch all                              logs all expressions\r\n")
       .append("--calltrace <function1:function2:...>    logs each call to the given functions\r\n")
+      .append("--stats <json-file|->                    writes time, allocations and sizes of each compiler phase as JSON\r\n")
+      .append("--max-errors <n>                         stops the compilation after n errors, 1 stops at the first error\r\n")
+      .append("\r\n")
+      .append("Compiles all source-files of a directory, glob or manifest-file (one source-file per line) in parallel:\r\n")
+      .append("YaplCompiler --batch [--jobs <n>] <options> <source-directory|glob|manifest-file> <output-directory>\r\n")
+      .append("\r\n")
+      .append("Compiles the source-file in memory and runs it in the JVM of the compiler with the given options:\r\n")
+      .append("YaplCompiler --run <options> <source-file>\r\n")
+      .append("\r\n")
+      .append("Starts a compile daemon on the loopback interface, which keeps the compiler warm between compilations:\r\n")
+      .append("YaplCompiler --daemon <port>\r\n")
       .toString();
   }
 
+  /**
+   * Creates the settings for a single source-file, sharing all options of these settings (e.g. of a batch).
+   */
+  public CompilerSettings forSource(String sourceCode, Path outputDir) {
+    return forSource(SourceFile.of(sourceCode), outputDir);
+  }
+
+  public CompilerSettings forSource(SourceFile source, Path outputDir) {
+    final CompilerSettings settings = new CompilerSettings();
+    settings.showUsageInfo = false;
+    settings.compile = compile;
+    settings.profile = profile;
+    settings.source = source;
+    settings.outputDir = outputDir;
+    settings.vardumpLineNrs = vardumpLineNrs;
+    settings.watchLineNrs = watchLineNrs;
+    settings.watchAll = watchAll;
+    settings.trackedFunctions = trackedFunctions;
+    settings.maxErrors = maxErrors;
+    settings.statsFile = statsFile;
+    settings.root = root;
+    return settings;
+  }
+
+  /**
+   * Whether the path is below the root, symbolic links are followed. Paths which do not exist yet are checked by their nearest existing parent.
+   */
+  public boolean isInsideRoot(Path path) {
+    if (root == null || path == null) return true;
+
+    try {
+      return realPath(path).startsWith( realPath(root) );
+    }
+    catch (IOException ex) {
+      return false;
+    }
+  }
+
+  protected static Path realPath(Path path) throws IOException {
+    final Path absolute = path.toAbsolutePath().normalize();
+
+    Path existing = absolute;
+    while (existing != null && !Files.exists(existing)) existing = existing.getParent();
+    if (existing == null) return absolute;
+
+    return existing.toRealPath().resolve( existing.relativize(absolute) );
+  }
+
+  /**
+   * Memory-maps the source-file, which has to be below the root.
+   */
+  public SourceFile mapSource(Path path) throws IOException {
+    if (!isInsideRoot(path)) throw new AccessDeniedException(path.toString(), null, "not below " + root);
+    return SourceFile.map(path);
+  }
+
 
 
   public static CompilerSettings parse(String[] args) {
-    if (args.length < 2 || args.length % 2 == 1 || args.length > 8) {
+    return parse(args, Paths.get(""));
+  }
+
+  /**
+   * Parses the arguments, all relative paths are resolved against the given working directory.
+   */
+  public static CompilerSettings parse(String[] args, Path workingDir) {
+    return parse(args, workingDir, null);
+  }
+
+  /**
+   * Parses the arguments, all relative paths are resolved against the given working directory.
+   * Source-files which are not below the root are not read, but reported as unreadable.
+   */
+  public static CompilerSettings parse(String[] args, Path workingDir, Path root) {
+    final CompilerSettings settings = parseArgs(args, workingDir, root);
+    settings.root = root;
+    return settings;
+  }
+
+  protected static CompilerSettings parseArgs(String[] args, Path workingDir, Path root) {
+    if (args.length > 0 && args[0].equals("--batch")) return parseBatch(args, workingDir);
+    if (args.length > 0 && args[0].equals("--daemon")) return parseDaemon(args);
+    if (args.length > 0 && args[0].equals("--run")) return parseRun(args, workingDir, root);
+
+    if (args.length < 2 || args.length % 2 == 1 || args.length > 12) {
       final CompilerSettings settings = new CompilerSettings();
       settings.error = "Invalid number of arguments!";
       return settings;
     }
 
-    if (args[0].equals("--symboldump")) return parseSymboldump(args);
+    if (args[0].equals("--symboldump")) return parseSymboldump(args, workingDir, root);
 
     try {
-      final CompilerSettings settings = parseProfilingOptions(Arrays.copyOf(args, args.length - 2));
+      final CompilerSettings settings = parseProfilingOptions(Arrays.copyOf(args, args.length - 2), workingDir);
       if (settings.error != null) return settings;
 
-      Files.readString(Paths.get(args[args.length - 2]));
-
-      settings.sourceCode = Files.readString( Paths.get(args[args.length - 2]) );
-      settings.outputDir = Paths.get(args[args.length - 1]);
+      settings.root = root;
+      settings.source = settings.mapSource( workingDir.resolve(args[args.length - 2]) );
+      settings.outputDir = workingDir.resolve(args[args.length - 1]);
       settings.compile = true;
       settings.showUsageInfo = false;
       return settings;
@@ -80,8 +203,9 @@ public class CompilerSettings {
 
 
 
-  protected static CompilerSettings parseSymboldump(String[] args) {
+  protected static CompilerSettings parseSymboldump(String[] args, Path workingDir, Path root) {
     final CompilerSettings settings = new CompilerSettings();
+    settings.root = root;
 
     if (args.length != 2) {
       settings.error = "Invalid number of arguments! When using --symboldump no other options can be used!";
@@ -89,7 +213,7 @@ public class CompilerSettings {
     }
 
     try {
-      settings.sourceCode = Files.readString( Paths.get(args[1]) );
+      settings.source = settings.mapSource( workingDir.resolve(args[1]) );
       settings.doSymbolDump = true;
       settings.showUsageInfo = false;
       return settings;
@@ -100,7 +224,86 @@ public class CompilerSettings {
     }
   }
 
-  protected static CompilerSettings parseProfilingOptions(String[] args) {
+  protected static CompilerSettings parseBatch(String[] args, Path workingDir) {
+    int argIdx = 1;
+    int jobs = Runtime.getRuntime().availableProcessors();
+
+    if (args.length > 2 && args[argIdx].equals("--jobs")) {
+      try {
+        jobs = Integer.parseInt(args[argIdx + 1]);
+        argIdx += 2;
+      }
+      catch (Exception ex) {
+        final CompilerSettings settings = new CompilerSettings();
+        settings.error = "Invalid number of jobs '" + args[argIdx + 1] + "'!";
+        return settings;
+      }
+    }
+
+    // options always consist of a flag and its value
+    if (args.length - argIdx < 2 || (args.length - argIdx) % 2 == 1 || jobs < 1) {
+      final CompilerSettings settings = new CompilerSettings();
+      settings.error = (jobs < 1) ? "Invalid number of jobs '" + jobs + "'!" : "Invalid number of arguments!";
+      return settings;
+    }
+
+    final CompilerSettings settings = parseProfilingOptions(Arrays.copyOfRange(args, argIdx, args.length - 2), workingDir);
+    if (settings.error != null) return settings;
+
+    settings.batchSources = workingDir.resolve(args[args.length - 2]).toString();
+    settings.outputDir = workingDir.resolve(args[args.length - 1]);
+    settings.jobs = jobs;
+    settings.batch = true;
+    settings.compile = true;
+    return settings;
+  }
+
+  protected static CompilerSettings parseRun(String[] args, Path workingDir, Path root) {
+    // options always consist of a flag and its value
+    if (args.length < 2 || args.length % 2 == 1) {
+      final CompilerSettings settings = new CompilerSettings();
+      settings.error = "Invalid number of arguments!";
+      return settings;
+    }
+
+    final CompilerSettings settings = parseProfilingOptions(Arrays.copyOfRange(args, 1, args.length - 1), workingDir);
+    if (settings.error != null) return settings;
+
+    try {
+      settings.root = root;
+      settings.source = settings.mapSource( workingDir.resolve(args[args.length - 1]) );
+      settings.run = true;
+      settings.compile = true;
+      return settings;
+    }
+    catch (Exception ex) {
+      settings.error = "Cannot read the source-file '" + args[args.length - 1] + "'!";
+      settings.showUsageInfo = true;
+      return settings;
+    }
+  }
+
+  protected static CompilerSettings parseDaemon(String[] args) {
+    final CompilerSettings settings = new CompilerSettings();
+
+    if (args.length != 2) {
+      settings.error = "Invalid number of arguments! When using --daemon no other options can be used!";
+      return settings;
+    }
+
+    try {
+      settings.port = Integer.parseInt(args[1]);
+      settings.daemon = true;
+      settings.showUsageInfo = false;
+      return settings;
+    }
+    catch (Exception ex) {
+      settings.error = "Invalid port '" + args[1] + "'!";
+      return settings;
+    }
+  }
+
+  protected static CompilerSettings parseProfilingOptions(String[] args, Path workingDir) {
     final CompilerSettings settings = new CompilerSettings();
 
     int argIdx = 0;
@@ -140,6 +343,27 @@ public class CompilerSettings {
         settings.trackedFunctions = args[argIdx++].split(":");
         settings.profile = true;
       }
+      else if (args[argIdx].equals("--stats")) {
+        argIdx++;
+        final String statsFile = args[argIdx++];
+        settings.statsFile = statsFile.equals("-") ? Paths.get("-") : workingDir.resolve(statsFile);
+      }
+      else if (args[argIdx].equals("--max-errors")) {
+        argIdx++;
+        final String maxErrors = args[argIdx++];
+
+        try {
+          settings.maxErrors = Integer.parseInt(maxErrors);
+        }
+        catch (Exception ex) {
+          settings.maxErrors = -1;
+        }
+
+        if (settings.maxErrors < 1) {
+          settings.error = "Invalid number of errors '" + maxErrors + "'!";
+          return settings;
+        }
+      }
       else {
         settings.error = "Unknown compiler option '" + args[argIdx] + "'!";
         return settings;
@@ -0,0 +1,19 @@
+package compiler;
+
+/**
+ * Thrown by {@code CompilationUnit.addError} as soon as the error limit of the settings is reached (see {@code --max-errors}).
+ * It unwinds the running phase, so the rest of the program is not walked at all.
+ */
+public class ErrorLimitException extends RuntimeException {
+
+  private static final long serialVersionUID = 1L;
+
+  public final int maxErrors;
+
+  public ErrorLimitException(int maxErrors) {
+    // thrown for control flow only, so no stack trace is recorded
+    super("The limit of " + maxErrors + " errors was reached", null, false, false);
+    this.maxErrors = maxErrors;
+  }
+
+}
@@ -0,0 +1,27 @@
+package compiler;
+
+import java.util.Map;
+
+/**
+ * Defines the class-files of an in-memory compilation, so a compiled program can run in the JVM of the compiler.
+ * Generated classes only depend on the Java platform, so the platform class-loader is used as parent,
+ * which keeps the classes of the compiler itself invisible to the program.
+ */
+public class GeneratedClassLoader extends ClassLoader {
+
+  protected final Map<String, byte[]> classes;
+
+  public GeneratedClassLoader(Map<String, byte[]> classes) {
+    super("yapl", ClassLoader.getPlatformClassLoader());
+    this.classes = classes;
+  }
+
+  @Override
+  protected Class<?> findClass(String name) throws ClassNotFoundException {
+    final byte[] bytes = classes.get(name);
+    if (bytes == null) throw new ClassNotFoundException(name);
+
+    return defineClass(name, bytes, 0, bytes.length);
+  }
+
+}
@@ -0,0 +1,163 @@
+package compiler;
+
+import org.antlr.v4.runtime.CodePointBuffer;
+import org.antlr.v4.runtime.CodePointCharStream;
+import org.antlr.v4.runtime.IntStream;
+import org.antlr.v4.runtime.misc.Interval;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.CharsetDecoder;
+import java.nio.charset.CoderResult;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+
+/**
+ * The source code of a compilation, stored as code points in the most compact width (ASCII sources need a single byte per character).
+ * <br><br>
+ * Source-files are memory-mapped and decoded in chunks of {@code DECODE_CHUNK_SIZE} chars into the code point buffer,
+ * so the source is held on the heap only once, without a {@code String} or a fully decoded {@code CharBuffer} in between.
+ * A line-offset index is built from the code points, so the text of a line or of a token range is looked up without scanning the source again.
+ * All indices are code point indices, like the token indices of the lexer.
+ */
+public class SourceFile {
+
+  protected static final int DECODE_CHUNK_SIZE = 8192;
+
+  public final String name;
+
+  protected final CodePointBuffer codePoints;
+
+  /**
+   * Used for all text lookups, its position is never changed.
+   */
+  protected final CodePointCharStream text;
+
+  /**
+   * The index of the first code point of each line, the first line starts at index 0.
+   */
+  protected final int[] lineOffsets;
+  protected final int lines;
+
+  protected SourceFile(String name, CodePointBuffer codePoints) {
+    this.name = name;
+    this.codePoints = codePoints;
+    this.text = CodePointCharStream.fromBuffer(codePoints, name);
+
+    int[] offsets = new int[64];
+    int lineCount = 1;
+    final int size = codePoints.remaining();
+    for (int i = 0; i < size; i++) {
+      if (codePoints.get(i) == '\n') {
+        if (lineCount == offsets.length) offsets = Arrays.copyOf(offsets, offsets.length * 2);
+        offsets[lineCount++] = i + 1;
+      }
+    }
+
+    this.lineOffsets = offsets;
+    this.lines = lineCount;
+  }
+
+
+
+  /**
+   * Memory-maps the source-file and decodes it as UTF-8, malformed input is reported as an {@code IOException}.
+   */
+  public static SourceFile map(Path path) throws IOException {
+    try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+      final ByteBuffer mapped = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+      // UTF-8 never needs more chars than bytes, so the builder does not grow
+      final CodePointBuffer.Builder builder = CodePointBuffer.builder((int)channel.size());
+      final CharsetDecoder decoder = StandardCharsets.UTF_8.newDecoder();
+      final CharBuffer chunk = CharBuffer.allocate(DECODE_CHUNK_SIZE);
+
+      CoderResult result;
+      do {
+        result = decoder.decode(mapped, chunk, true);
+        if (result.isError()) result.throwException();
+        append(builder, chunk);
+      }
+      while (result.isOverflow());
+
+      do {
+        result = decoder.flush(chunk);
+        append(builder, chunk);
+      }
+      while (result.isOverflow());
+
+      return new SourceFile(path.toString(), builder.build());
+    }
+  }
+
+  public static SourceFile of(String sourceCode) {
+    final CodePointBuffer.Builder builder = CodePointBuffer.builder(sourceCode.length());
+    // the builder needs an accessible array, wrapped strings are read-only buffers without one
+    builder.append( CharBuffer.wrap(sourceCode.toCharArray()) );
+    return new SourceFile(IntStream.UNKNOWN_SOURCE_NAME, builder.build());
+  }
+
+  /**
+   * Appends the decoded chars of the chunk to the builder and clears the chunk for the next decode step.
+   * A surrogate pair split between two chunks is joined by the builder.
+   */
+  protected static void append(CodePointBuffer.Builder builder, CharBuffer chunk) {
+    chunk.flip();
+    builder.append(chunk);
+    chunk.clear();
+  }
+
+
+
+  /**
+   * Creates a new stream over the source for the lexer, each compilation needs its own stream.
+   */
+  public CodePointCharStream newCharStream() {
+    return CodePointCharStream.fromBuffer(codePoints, name);
+  }
+
+  public int size() {
+    return text.size();
+  }
+
+  /**
+   * The number of lines, empty lines at the end of the source are not counted.
+   */
+  public int getLineCount() {
+    int count = lines;
+    while (count > 1 && getLineLength(count) == 0) count--;
+    return count;
+  }
+
+  /**
+   * The text of the given line (starting with 1) without its line break, a {@code \r} of the line break is kept.
+   */
+  public String getLine(int line) {
+    if (line < 1 || line > lines) return "";
+
+    final int start = lineOffsets[line - 1];
+    return getText(start, start + getLineLength(line) - 1);
+  }
+
+  /**
+   * The text from the start index to the stop index, both inclusive.
+   */
+  public String getText(int startIndex, int stopIndex) {
+    if (stopIndex < startIndex) return "";
+    return text.getText( Interval.of(startIndex, stopIndex) );
+  }
+
+  @Override
+  public String toString() {
+    return getText(0, size() - 1);
+  }
+
+  protected int getLineLength(int line) {
+    final int end = (line < lines) ? lineOffsets[line] - 1 : size();
+    return end - lineOffsets[line - 1];
+  }
+
+}
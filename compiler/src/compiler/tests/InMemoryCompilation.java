@@ -0,0 +1,126 @@
+package compiler.tests;
+
+import compiler.CompilationUnit;
+import compiler.Compiler;
+import compiler.CompilerSettings;
+import compiler.GeneratedClassLoader;
+
+import java.io.ByteArrayOutputStream;
+import java.io.PrintStream;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.stream.Stream;
+
+/**
+ * Compiles sources given as strings end to end, i.e. without a source-file, and runs the generated programs.
+ * Run from the compiler directory: {@code java -cp <antlr.jar>:bin compiler.tests.InMemoryCompilation}
+ */
+public class InMemoryCompilation {
+
+  public static final String SOURCE = String.join("\n",
+    "Program inMemory",
+    "Begin",
+    "    Write \"--- in memory ---\";",
+    "    writeln();",
+    "    writeint(6 * 7);",
+    "End inMemory.",
+    ""
+  );
+
+  public static final String EXPECTED_OUTPUT = "--- in memory ---\n42";
+
+  public static void main(String[] args) {
+    int failed = 0;
+    failed += test("compileToMemory", InMemoryCompilation::compileToMemory);
+    failed += test("forSource", InMemoryCompilation::forSource);
+    System.exit(failed);
+  }
+
+  protected static int test(String name, Test test) {
+    try {
+      final String output = test.run();
+
+      if (EXPECTED_OUTPUT.equals(output)) {
+        System.out.println("[SUCCESS] " + name);
+        return 0;
+      }
+
+      System.out.println("[FAILED]  " + name);
+      System.out.println("  Expected: '" + EXPECTED_OUTPUT.replaceAll("\n", "\\\\n") + "'");
+      System.out.println("  Result:   '" + output.replaceAll("\n", "\\\\n") + "'");
+    }
+    catch (Throwable ex) {
+      System.out.println("[ERROR]   " + name);
+      ex.printStackTrace(System.out);
+    }
+
+    return 1;
+  }
+
+  protected static String compileToMemory() throws Throwable {
+    return execute( Compiler.compileToMemory(SOURCE) );
+  }
+
+  /**
+   * Compiles the source to a temporary output-directory with settings created by {@code forSource(String, Path)}.
+   */
+  protected static String forSource() throws Throwable {
+    final Path outputDir = Files.createTempDirectory("yapl-in-memory");
+
+    try {
+      final CompilerSettings settings = new CompilerSettings().forSource(SOURCE, outputDir);
+      settings.compile = true;
+
+      final CompilationUnit unit = new CompilationUnit(settings);
+      Compiler.run(unit);
+      if (unit.hasErrors()) throw new IllegalStateException("Unexpected errors: " + unit.errors);
+
+      final Map<String, byte[]> classes = new HashMap<>();
+      try (Stream<Path> files = Files.list(outputDir)) {
+        for (Path file : (Iterable<Path>)files::iterator) {
+          classes.put(file.getFileName().toString().replace(".class", ""), Files.readAllBytes(file));
+        }
+      }
+
+      return execute(classes);
+    }
+    finally {
+      try (Stream<Path> files = Files.list(outputDir)) {
+        files.forEach(file -> file.toFile().delete());
+      }
+      Files.delete(outputDir);
+    }
+  }
+
+  /**
+   * Runs the main method of the program and returns its output.
+   */
+  protected static String execute(Map<String, byte[]> classes) throws Throwable {
+    final Class<?> program = new GeneratedClassLoader(classes).loadClass("InMemory");
+    final PrintStream out = System.out;
+    final ByteArrayOutputStream output = new ByteArrayOutputStream();
+
+    System.setOut( new PrintStream(output, true) );
+    try {
+      MethodHandles.publicLookup()
+        .findStatic(program, "main", MethodType.methodType(void.class, String[].class))
+        .invokeExact(new String[0]);
+    }
+    finally {
+      System.out.flush();
+      System.setOut(out);
+    }
+
+    return output.toString().replace("\r", "");
+  }
+
+  @FunctionalInterface
+  protected interface Test {
+    String run() throws Throwable;
+  }
+
+}
@@ -0,0 +1,12 @@
+package generator;
+
+import java.io.IOException;
+
+/**
+ * Receives the class-files generated by a {@code CodeGenerator}, e.g. to write them to disk or keep them in memory.
+ */
+public interface ClassSink {
+
+  void write(String className, byte[] bytes) throws IOException;
+
+}
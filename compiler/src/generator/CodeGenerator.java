@@ -2,6 +2,7 @@ package generator;
 
 import information.Constant;
 import information.Procedure;
+import information.Type;
 import information.Variable;
 
 import java.io.IOException;
@@ -39,9 +40,9 @@ public interface CodeGenerator {
   CodeGenerator endBranchingBlock();
   CodeGenerator returnFromFunction();
 
-  CodeGenerator newArray(String baseType, int dimensions);
+  CodeGenerator newArray(Type.ArrayType type);
   CodeGenerator arraylength();
 
-  CodeGenerator newRecord(String type);
+  CodeGenerator newRecord(Type.RecordType type);
 
 }
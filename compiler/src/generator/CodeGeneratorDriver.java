@@ -1,21 +1,20 @@
 package generator;
 
 import analyser.SymbolTable;
-import information.YaplConstants;
-import org.antlr.v4.runtime.tree.ParseTree;
-import org.antlr.v4.runtime.tree.TerminalNode;
-import parser.YaplBaseVisitor;
-import parser.YaplParser.*;
+import ast.*;
+import compiler.CompilationUnit;
 import information.*;
 
 import java.io.IOException;
 
-public class CodeGeneratorDriver extends YaplBaseVisitor<Symbol> {
+public class CodeGeneratorDriver extends AstBaseVisitor<Symbol> {
 
+  protected final CompilationUnit unit;
   protected SymbolTable symboltable = null;
   protected CodeGenerator backend = null;
 
-  public CodeGeneratorDriver(SymbolTable symboltable, CodeGenerator backend) {
+  public CodeGeneratorDriver(CompilationUnit unit, SymbolTable symboltable, CodeGenerator backend) {
+    this.unit = unit;
     this.symboltable = symboltable;
     symboltable.resetCursor();
 
@@ -23,21 +22,18 @@ public class CodeGeneratorDriver extends YaplBaseVisitor<Symbol> {
   }
 
   @Override
-  public Symbol visitProgram(ProgramContext ctx) {
-    final String name = ctx.Id(0).getText();
+  public Symbol visitProgram(ProgramNode node) {
+    final String name = node.name.text;
 
     backend.enterProgram(name);
-    symboltable.enterScope();
+    symboltable.enterScope(node);
 
     // Declarations and Procedures
-    for (ParseTree child : ctx.children) {
-      if (child instanceof StatementListContext) break;
-      visit(child);
-    }
+    visitAll(node.declarations);
 
     // Main method
     backend.enterMainFunction();
-    visitStatementList( ctx.statementList() );
+    visitAll(node.statements);
     backend.exitMainFunction();
 
     symboltable.exitScope();
@@ -46,63 +42,53 @@ public class CodeGeneratorDriver extends YaplBaseVisitor<Symbol> {
       backend.exitProgram();
     }
     catch (IOException ex) {
-      ex.printStackTrace();
-    }
-
-    return null;
-  }
-
-  @Override
-  public Symbol visitStatementList(StatementListContext ctx) {
-    for (StatementContext stat : ctx.statement()) {
-      visitStatement(stat);
+      // the callers only see the errors of the unit, so a failed write must not pass as a successful compilation
+      unit.addError(CompilerError.ClassFileNotWritten(ex.toString(), node, node.name));
     }
 
     return null;
   }
 
   @Override
-  public Symbol visitWriteStatement(WriteStatementContext ctx) {
-    final String stringLiteral = ctx.String().getText();
-    final String value = stringLiteral.substring(1, stringLiteral.length() - 1);
-
+  public Symbol visitWriteStatement(WriteStatementNode node) {
     backend
-      .loadConstant( new ConstantExpression(ctx, YaplConstants.STRING, value) )
+      .loadConstant( new ConstantExpression(node, node.getValue()) )
       .write();
 
     return null;
   }
 
   @Override
-  public Symbol visitProcedureCall(ProcedureCallContext ctx) {
-    final String fnName = ctx.Id().getText();
-
-    for (ExpressionContext expr : ctx.expression())
+  public Symbol visitProcedureCall(ProcedureCallNode node) {
+    for (ExpressionNode expr : node.arguments)
       visit(expr);
 
     backend
-      .callFunction( symboltable.get(fnName).as(Procedure.class) );
+      .callFunction( symboltable.getBinding(node).as(Procedure.class) );
 
     return null;
   }
 
+  /**
+   * Constants are inlined, so their declarations generate no code.
+   */
   @Override
-  public Symbol visitLiteral(LiteralContext ctx) {
-    final ConstantExpression sym = (ctx.Boolean() != null)
-      ? new ConstantExpression(ctx, YaplConstants.BOOL, ctx.Boolean().getText())
-      : new ConstantExpression(ctx, YaplConstants.INT,  ctx.Number().getText());
-
-    if (!(ctx.getParent() instanceof ConstDeclarationContext))
-      backend.loadConstant(sym);
+  public Symbol visitConstDeclaration(ConstDeclarationNode node) {
+    return null;
+  }
 
+  @Override
+  public Symbol visitLiteral(LiteralNode node) {
+    final Constant sym = symboltable.getConstant(node);
+    backend.loadConstant(sym);
     return sym;
   }
 
   @Override
-  public Symbol visitVarDeclaration(VarDeclarationContext ctx) {
-    for (TerminalNode id : ctx.Id()) {
-      final String name = id.getText();
-      final Variable sym = symboltable.get(name).as(Variable.class);
+  public Symbol visitVarDeclaration(VarDeclarationNode node) {
+    for (Span id : node.names) {
+      // declared in the current scope, so there is no need to search the enclosing scopes
+      final Variable sym = symboltable.currScope.symbols.get(id.nameId).as(Variable.class);
 
       backend.allocVariable(sym);
     }
@@ -113,18 +99,17 @@ public class CodeGeneratorDriver extends YaplBaseVisitor<Symbol> {
   protected boolean isAssignedTo = false;
 
   @Override
-  public Symbol visitFullIdentifier(FullIdentifierContext ctx) {
-    final String name = ctx.Id().getText();
-    Symbol sym = symboltable.get(name);
+  public Symbol visitFullIdentifier(FullIdentifierNode node) {
+    Symbol sym = symboltable.getBinding(node);
 
     if (sym.is(Constant.class)) {
       backend.loadConstant( sym.as(Constant.class) );
       return sym;
     }
 
-    if (ctx.selector() != null) {
+    if (node.selector != null) {
       backend.load( sym.as(Variable.class) );
-      sym = visitSelector(ctx.selector(), sym.as(Variable.class));
+      sym = visitSelector(node.selector);
     }
 
     if (!isAssignedTo) {
@@ -134,107 +119,111 @@ public class CodeGeneratorDriver extends YaplBaseVisitor<Symbol> {
     return sym;
   }
 
-  public Symbol visitSelector(SelectorContext ctx, Variable sym) {
-    if (ctx.expression() != null) {
+  /**
+   * The analyser bound each selector to the selected array element or record field.
+   */
+  @Override
+  public Symbol visitSelector(SelectorNode node) {
+    if (node.index != null) {
       boolean wasAssignedTo = isAssignedTo;
       isAssignedTo = false;
-      visit(ctx.expression());
+      visit(node.index);
       isAssignedTo = wasAssignedTo;
-      sym = sym.selectElement();
-    }
-    else {
-      final String field = ctx.Id().getText();
-      sym = sym.selectField(symboltable, field);
     }
 
-    if (ctx.selector() != null) {
-      backend.load(sym);
-      sym = visitSelector(ctx.selector(), sym).as(Variable.class);
+    Symbol sym = symboltable.getBinding(node);
+
+    if (node.next != null) {
+      backend.load(sym.as(Variable.class));
+      sym = visitSelector(node.next);
     }
 
     return sym;
   }
 
   @Override
-  public Symbol visitAssignment(AssignmentContext ctx) {
+  public Symbol visitAssignment(AssignmentNode node) {
     isAssignedTo = true;
-    final Variable sym = visitFullIdentifier( ctx.fullIdentifier() ).as(Variable.class);
+    final Variable sym = visitFullIdentifier(node.target).as(Variable.class);
     isAssignedTo = false;
 
-    visit(ctx.expression());
+    visit(node.value);
     backend.store(sym);
     return null;
   }
 
   @Override
-  public Symbol visitUnaryExpr(UnaryExprContext ctx) {
-    visitPrimaryExpr(ctx.primaryExpr());
+  public Symbol visitUnaryExpr(UnaryExprNode node) {
+    if (visitFolded(node)) return null;
 
-    if (ctx.sign != null) {
-      final String op = ctx.sign.getText();
+    visit(node.operand);
+
+    if (node.sign != null) {
+      final String op = node.sign.text;
       backend.op1(op);
     }
 
     return null;
   }
 
-  @Override
-  public Symbol visitPrimaryExpr(PrimaryExprContext ctx) {
-    if (ctx.literal() != null) visitLiteral(ctx.literal());
-    else if (ctx.fullIdentifier() != null) visitFullIdentifier(ctx.fullIdentifier());
-    else if (ctx.procedureCall() != null) visitProcedureCall(ctx.procedureCall());
-    else if (ctx.arrayLength() != null) visitArrayLength(ctx.arrayLength());
-    else if (ctx.expression() != null) visit(ctx.expression());
-    return null;
+  /**
+   * Generates the constant the analyser folded the expression to, or the simplification of the expression.
+   *
+   * @return {@code false} if the expression was neither folded nor simplified and has to be generated as usual
+   */
+  protected boolean visitFolded(ExpressionNode node) {
+    final Constant constant = symboltable.getConstant(node);
+
+    if (constant != null) {
+      backend.loadConstant(constant);
+      return true;
+    }
+
+    final Simplification simplification = symboltable.getSimplification(node);
+    if (simplification == null) return false;
+
+    visit(simplification.operand);
+
+    if (simplification.op != null) {
+      backend.loadConstant(simplification.constant);
+      backend.op2(simplification.op);
+    }
+
+    return true;
   }
 
   @Override
-  public Symbol visitArithmeticExpr(ArithmeticExprContext ctx) {
-    final String exprName = ConstantExpression.nameOf(ctx);
+  public Symbol visitArithmeticExpr(ArithmeticExprNode node) {
+    if (visitFolded(node)) return null;
 
-    if (symboltable.contains(exprName) && symboltable.get(exprName).is(Constant.class)) {
-      backend.loadConstant( symboltable.get(exprName).as(Constant.class) );
-    }
-    else {
-      final String op = ctx.op.getText();
-      visit(ctx.expression(0));
-      visit(ctx.expression(1));
-      backend.op2(op);
-    }
+    final String op = node.op.text;
+    visit(node.left);
+    visit(node.right);
+    backend.op2(op);
 
     return null;
   }
 
   @Override
-  public Symbol visitComparison(ComparisonContext ctx) {
-    final String exprName = ConstantExpression.nameOf(ctx);
+  public Symbol visitComparison(ComparisonNode node) {
+    if (visitFolded(node)) return null;
 
-    if (symboltable.contains(exprName) && symboltable.get(exprName).is(Constant.class)) {
-      backend.loadConstant( symboltable.get(exprName).as(Constant.class) );
-    }
-    else {
-      final String op = ctx.op.getText();
-      visit(ctx.expression(0));
-      visit(ctx.expression(1));
-      backend.op2(op);
-    }
+    final String op = node.op.text;
+    visit(node.left);
+    visit(node.right);
+    backend.op2(op);
 
     return null;
   }
 
   @Override
-  public Symbol visitEqualityComparison(EqualityComparisonContext ctx) {
-    final String exprName = ConstantExpression.nameOf(ctx);
+  public Symbol visitEqualityComparison(EqualityComparisonNode node) {
+    if (visitFolded(node)) return null;
 
-    if (symboltable.contains(exprName) && symboltable.get(exprName).is(Constant.class)) {
-      backend.loadConstant( symboltable.get(exprName).as(Constant.class) );
-    }
-    else {
-      final String op = ctx.op.getText();
-      visit(ctx.expression(0));
-      visit(ctx.expression(1));
-      backend.op2(op);
-    }
+    final String op = node.op.text;
+    visit(node.left);
+    visit(node.right);
+    backend.op2(op);
 
     return null;
   }
@@ -243,56 +232,51 @@ public class CodeGeneratorDriver extends YaplBaseVisitor<Symbol> {
    * op first here, since the backend needs to know how to connect the 2 operand expressions in advance for lazy boolean evaluation.
    */
   @Override
-  public Symbol visitBooleanExpr(BooleanExprContext ctx) {
-    final String exprName = ConstantExpression.nameOf(ctx);
+  public Symbol visitBooleanExpr(BooleanExprNode node) {
+    if (visitFolded(node)) return null;
 
-    if (symboltable.contains(exprName) && symboltable.get(exprName).is(Constant.class)) {
-      backend.loadConstant( symboltable.get(exprName).as(Constant.class) );
-    }
-    else {
-      final String op = ctx.op.getText();
-      backend.op2(op);
-      visit(ctx.expression(0));
-      visit(ctx.expression(1));
-    }
+    final String op = node.op.text;
+    backend.op2(op);
+    visit(node.left);
+    visit(node.right);
 
     return null;
   }
 
   @Override
-  public Symbol visitCreationExpr(CreationExprContext ctx) {
-    if (ctx.expression().size() > 0) {
-      for (ExpressionContext expr : ctx.expression())
+  public Symbol visitCreationExpr(CreationExprNode node) {
+    final Type type = symboltable.getBinding(node).as(Variable.class).dataType;
+
+    if (node.dimensions.size() > 0) {
+      for (ExpressionNode expr : node.dimensions)
         visit(expr);
 
-      final String baseType = ctx.baseType().getText();
-      backend.newArray(baseType, ctx.expression().size());
+      backend.newArray((Type.ArrayType)type);
     }
     else {
-      final String type = ctx.baseType().getText();
-      backend.newRecord(type);
+      backend.newRecord((Type.RecordType)type);
     }
 
     return null;
   }
 
   @Override
-  public Symbol visitArrayLength(ArrayLengthContext ctx) {
-    visitFullIdentifier(ctx.fullIdentifier());
+  public Symbol visitArrayLength(ArrayLengthNode node) {
+    visitFullIdentifier(node.array);
     backend.arraylength();
     return null;
   }
 
   @Override
-  public Symbol visitIfStatement(IfStatementContext ctx) {
+  public Symbol visitIfStatement(IfStatementNode node) {
     backend.startBranchingBlock();
-    visit(ctx.expression());
+    visit(node.condition);
     backend.branch();
-    visitStatementList(ctx.statementList(0));
+    visitAll(node.thenStatements);
 
-    if (ctx.elseStatementList != null) {
+    if (node.elseStatements != null) {
       backend.elseBranch();
-      visitStatementList(ctx.elseStatementList);
+      visitAll(node.elseStatements);
     }
 
     backend.endBranchingBlock();
@@ -300,56 +284,55 @@ public class CodeGeneratorDriver extends YaplBaseVisitor<Symbol> {
   }
 
   @Override
-  public Symbol visitWhileStatement(WhileStatementContext ctx) {
+  public Symbol visitWhileStatement(WhileStatementNode node) {
     backend.startBranchingBlock();
-    visit(ctx.expression());
+    visit(node.condition);
     backend.branch();
-    visitStatementList(ctx.statementList());
+    visitAll(node.statements);
     backend.loop();
     backend.endBranchingBlock();
     return null;
   }
 
   @Override
-  public Symbol visitBlock(BlockContext ctx) {
-    symboltable.enterScope();
+  public Symbol visitBlock(BlockNode node) {
+    symboltable.enterScope(node);
 
-    if (ctx.declarationBlock() != null)
-      visitDeclarationBlock(ctx.declarationBlock());
+    if (node.declarations != null)
+      visitDeclarationBlock(node.declarations);
 
-    visitStatementList(ctx.statementList());
+    visitAll(node.statements);
     symboltable.exitScope();
     return null;
   }
 
   @Override
-  public Symbol visitProcedure(ProcedureContext ctx) {
-    final String name = ctx.Id(0).getText();
-    backend.enterFunction(symboltable.get(name).as(Procedure.class));
-    symboltable.enterScope();
-    visitBlock(ctx.block());
+  public Symbol visitProcedure(ProcedureNode node) {
+    backend.enterFunction(symboltable.getBinding(node).as(Procedure.class));
+    symboltable.enterScope(node);
+    visitBlock(node.block);
     symboltable.exitScope();
     backend.exitFunction();
     return null;
   }
 
   @Override
-  public Symbol visitReturnStatement(ReturnStatementContext ctx) {
-    if (ctx.expression() != null)
-      visit(ctx.expression());
+  public Symbol visitReturnStatement(ReturnStatementNode node) {
+    if (node.value != null)
+      visit(node.value);
 
     backend.returnFromFunction();
     return null;
   }
 
   @Override
-  public Symbol visitRecordDeclaration(RecordDeclarationContext ctx) {
-    final String name = ctx.Id().getText();
+  public Symbol visitRecordDeclaration(RecordDeclarationNode node) {
+    final String name = node.name.text;
 
-    symboltable.enterScope();
+    symboltable.enterScope(node);
     backend.enterRecord(name);
 
-    for (VarDeclarationContext field : ctx.varDeclaration())
+    for (VarDeclarationNode field : node.fields)
       visitVarDeclaration(field);
 
     backend.exitRecord();
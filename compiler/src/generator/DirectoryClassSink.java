@@ -0,0 +1,27 @@
+package generator;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+/**
+ * Writes each class-file to {@code <output-directory>/<class-name>.class}, the output-directory is created if needed.
+ */
+public class DirectoryClassSink implements ClassSink {
+
+  protected final Path outputDir;
+
+  public DirectoryClassSink(Path outputDir) {
+    this.outputDir = outputDir;
+  }
+
+  @Override
+  public void write(String className, byte[] bytes) throws IOException {
+    if (!Files.exists(outputDir)) {
+      Files.createDirectories(outputDir);
+    }
+
+    Files.write( outputDir.resolve(className + ".class"), bytes );
+  }
+
+}
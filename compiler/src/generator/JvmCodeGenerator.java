@@ -15,7 +15,6 @@ import information.*;
 
 import java.io.IOException;
 import java.io.PrintStream;
-import java.nio.file.Files;
 import java.nio.file.Path;
 import java.util.ArrayList;
 import java.util.Arrays;
@@ -46,7 +45,7 @@ public class JvmCodeGenerator implements CodeGenerator {
   protected final String END = "end";
 
   protected StandardLibrary stdlib = null;
-  protected Path outputDir = null;
+  protected ClassSink sink = null;
 
   protected JvmClass program = null;
   protected InnerClasses innerClasses = null;
@@ -75,8 +74,12 @@ public class JvmCodeGenerator implements CodeGenerator {
 
 
   public JvmCodeGenerator(StandardLibrary stdlib, Path outputDir) {
+    this(stdlib, new DirectoryClassSink(outputDir));
+  }
+
+  public JvmCodeGenerator(StandardLibrary stdlib, ClassSink sink) {
     this.stdlib = stdlib;
-    this.outputDir = outputDir;
+    this.sink = sink;
   }
 
 
@@ -88,16 +91,12 @@ public class JvmCodeGenerator implements CodeGenerator {
   }
 
   public void exitProgram() throws IOException {
-    if (!Files.exists(outputDir)) {
-      Files.createDirectories(outputDir);
-    }
-
-    Files.write( outputDir.resolve(stdlib.getName() + ".class"), stdlib.generate() );
+    sink.write( stdlib.getName(), stdlib.generate() );
 
     for (JvmClass record : records)
-      Files.write( outputDir.resolve(record.name() + ".class"), record.generate() );
+      sink.write( record.name(), record.generate() );
 
-    Files.write( outputDir.resolve(program.name() + ".class"), program.generate() );
+    sink.write( program.name(), program.generate() );
   }
 
   public JvmCodeGenerator enterMainFunction() {
@@ -245,20 +244,20 @@ public class JvmCodeGenerator implements CodeGenerator {
   }
 
   public JvmCodeGenerator loadConstant(Constant sym) {
-    if (sym.dataType.equals(YaplConstants.STRING)) {
-      code.ldc( consts.addString(sym.value) );
+    if (sym.dataType == Type.STRING) {
+      code.ldc( consts.addString(sym.stringValue) );
       return this;
     }
 
-    if (sym.dataType.equals(YaplConstants.BOOL)) {
-      if (sym.value.equals(YaplConstants.TRUE)) code.iconst_1();
+    if (sym.dataType == Type.BOOL) {
+      if (sym.isTrue()) code.iconst_1();
       else code.iconst_0();
 
       if (boolOperators.size() > 0) connectBoolOperand();
       return this;
     }
 
-    final int value = Integer.parseInt(sym.value);
+    final int value = sym.value;
     if (value == -1) code.iconst_m1();
     else if (value == 0) code.iconst_0();
     else if (value == 1) code.iconst_1();
@@ -266,43 +265,35 @@ public class JvmCodeGenerator implements CodeGenerator {
     else if (value == 3) code.iconst_3();
     else if (value == 4) code.iconst_4();
     else if (value == 5) code.iconst_5();
-    else if ((value & 0x7f) == value) code.bipush(value);
-    else if ((value & 0x7fff) == value) code.sipush(value);
+    else if (value >= Byte.MIN_VALUE && value <= Byte.MAX_VALUE) code.bipush(value);
+    else if (value >= Short.MIN_VALUE && value <= Short.MAX_VALUE) code.sipush(value);
     else code.ldc( consts.addInteger(value) );
     return this;
   }
 
   public JvmCodeGenerator allocVariable(Variable sym) {
     if (!sym.isLocal) {
-      if (record != null) record.addField(sym.name, getTypeDescriptor(sym.dataType), AccessFlags.PUBLIC);
-      else program.addField(sym.name, getTypeDescriptor(sym.dataType), AccessFlags.PUBLIC | AccessFlags.STATIC);
+      if (record != null) record.addField(sym.name, sym.dataType.descriptor, AccessFlags.PUBLIC);
+      else program.addField(sym.name, sym.dataType.descriptor, AccessFlags.PUBLIC | AccessFlags.STATIC);
     }
     else {
-      locals.put(sym, code.allocLocal( getTypeDescriptor(sym.dataType) ));
+      locals.put(sym, code.allocLocal( sym.dataType.descriptor ));
 
       if (sym.isPrimitive()) {
-        loadConstant(new ConstantExpression(null, "int", "0"));
+        loadConstant(new ConstantExpression(null, Type.INT, 0));
         store(sym);
       }
       else if (sym.isArray()) {
-        String[] typeParts = sym.dataType.split("\\[");
-        String baseType = typeParts[0];
-        int dimensions = typeParts.length - 1;
+        final Type.ArrayType type = (Type.ArrayType)sym.dataType;
 
-        for (int i = 0; i < dimensions; i++)
+        for (int i = 0; i < type.dimensions; i++)
           code.iconst_0();
 
-        newArray(baseType, dimensions);
+        newArray(type);
         store(sym);
       }
       else {
-        final String recordName = getFullRecordName(sym.dataType);
-
-        code
-          .anew( consts.addClass( getFullRecordName(sym.dataType) ) )
-          .dup()
-          .invokeSpecial( consts.addMethodref(recordName, "<init>", Descriptor.METHOD(Descriptor.VOID)) );
-
+        newRecord((Type.RecordType)sym.dataType);
         store(sym);
       }
     }
@@ -312,14 +303,14 @@ public class JvmCodeGenerator implements CodeGenerator {
 
   public JvmCodeGenerator store(Variable sym) {
     if (sym.name.endsWith("[]")) {
-      if (sym.dataType.equals(YaplConstants.BOOL)) code.bastore();
-      else if (sym.dataType.equals(YaplConstants.INT)) code.iastore();
+      if (sym.dataType == Type.BOOL) code.bastore();
+      else if (sym.dataType == Type.INT) code.iastore();
       else code.aastore();
     }
     else if (sym.name.contains(".")) {
-      final String record = getFullRecordName(sym.parent.dataType);
+      final String record = ((Type.RecordType)sym.parent.dataType).className;
       final String[] name = sym.name.split("\\.");
-      code.putField( consts.addFieldref(record, name[name.length - 1], getTypeDescriptor(sym.dataType)) );
+      code.putField( consts.addFieldref(record, name[name.length - 1], sym.dataType.descriptor) );
     }
     else {
       if (sym.isLocal) {
@@ -339,7 +330,7 @@ public class JvmCodeGenerator implements CodeGenerator {
         }
       }
       else {
-        final int fieldRef = consts.addFieldref(program.name(), sym.name, getTypeDescriptor(sym.dataType));
+        final int fieldRef = consts.addFieldref(program.name(), sym.name, sym.dataType.descriptor);
         code.putStatic(fieldRef);
       }
     }
@@ -349,14 +340,14 @@ public class JvmCodeGenerator implements CodeGenerator {
 
   public JvmCodeGenerator load(Variable sym) {
     if (sym.name.endsWith("[]")) {
-      if (sym.dataType.equals(YaplConstants.BOOL)) code.baload();
-      else if (sym.dataType.equals(YaplConstants.INT)) code.iaload();
+      if (sym.dataType == Type.BOOL) code.baload();
+      else if (sym.dataType == Type.INT) code.iaload();
       else code.aaload();
     }
     else if (sym.name.contains(".")) {
-      final String record = getFullRecordName(sym.parent.dataType);
+      final String record = ((Type.RecordType)sym.parent.dataType).className;
       final String[] name = sym.name.split("\\.");
-      code.getField( consts.addFieldref(record, name[name.length - 1], getTypeDescriptor(sym.dataType)) );
+      code.getField( consts.addFieldref(record, name[name.length - 1], sym.dataType.descriptor) );
     }
     else {
       if (sym.isLocal) {
@@ -376,12 +367,12 @@ public class JvmCodeGenerator implements CodeGenerator {
         }
       }
       else {
-        final int fieldRef = consts.addFieldref(program.name(), sym.name, getTypeDescriptor(sym.dataType));
+        final int fieldRef = consts.addFieldref(program.name(), sym.name, sym.dataType.descriptor);
         code.getStatic(fieldRef);
       }
     }
 
-    if (sym.dataType.equals(YaplConstants.BOOL) && boolOperators.size() > 0) connectBoolOperand();
+    if (sym.dataType == Type.BOOL && boolOperators.size() > 0) connectBoolOperand();
     return this;
   }
 
@@ -405,7 +396,7 @@ public class JvmCodeGenerator implements CodeGenerator {
     final int methodRef = consts.addMethodref(className, fn.name, getMethodDescriptor(fn));
     code.invokeStatic(methodRef);
 
-    if (fn.returnType.equals(YaplConstants.BOOL) && boolOperators.size() > 0) connectBoolOperand();
+    if (fn.returnType == Type.BOOL && boolOperators.size() > 0) connectBoolOperand();
     return this;
   }
 
@@ -563,21 +554,16 @@ public class JvmCodeGenerator implements CodeGenerator {
     return this;
   }
 
-  public JvmCodeGenerator newArray(String baseType, int dimensions) {
-    if (dimensions > 1) {
-      String descriptor = getBaseTypeDescriptor(baseType);
-
-      for (int i = 0; i < dimensions; i++)
-        descriptor = Descriptor.ARRAY(descriptor);
-
-      code.multianewArray( consts.addClass(descriptor), dimensions );
+  public JvmCodeGenerator newArray(Type.ArrayType type) {
+    if (type.dimensions > 1) {
+      code.multianewArray( consts.addClass(type.descriptor), type.dimensions );
     }
-    else if (baseType.equals(YaplConstants.INT) || baseType.equals(YaplConstants.BOOL)) {
-      int arrType = baseType.equals(YaplConstants.INT) ? ArrayType.INT : ArrayType.BOOLEAN;
+    else if (type.baseType.isPrimitive()) {
+      int arrType = (type.baseType == Type.INT) ? ArrayType.INT : ArrayType.BOOLEAN;
       code.newArray(arrType);
     }
     else {
-      code.anewArray( consts.addClass(getFullRecordName(baseType)) );
+      code.anewArray( consts.addClass(((Type.RecordType)type.baseType).className) );
     }
 
     return this;
@@ -625,11 +611,11 @@ public class JvmCodeGenerator implements CodeGenerator {
     return this;
   }
 
-  public JvmCodeGenerator newRecord(String type) {
-    final String name = getFullRecordName(type);
+  public JvmCodeGenerator newRecord(Type.RecordType type) {
+    final String name = type.className;
 
     code
-      .anew( consts.addClass( getFullRecordName(type) ) )
+      .anew( consts.addClass(name) )
       .dup()
       .invokeSpecial( consts.addMethodref(name, "<init>", Descriptor.METHOD(Descriptor.VOID)) );
 
@@ -683,38 +669,16 @@ public class JvmCodeGenerator implements CodeGenerator {
   }
 
   protected String getMethodDescriptor(Procedure sym) {
-    String returnDescriptor = getTypeDescriptor(sym.returnType);
+    String returnDescriptor = sym.returnType.descriptor;
     String[] paramDescriptors = new String[ sym.params.size() ];
 
     for (int idx = 0; idx < paramDescriptors.length; idx++) {
-      paramDescriptors[idx] = getTypeDescriptor( sym.params.get(idx).dataType );
+      paramDescriptors[idx] = sym.params.get(idx).dataType.descriptor;
     }
 
     return Descriptor.METHOD(returnDescriptor, paramDescriptors);
   }
 
-  protected String getTypeDescriptor(String type) {
-    final String baseType = type.split("\\[")[0];
-    final int dimensions = type.split("\\[").length - 1;
-
-    String descriptor = getBaseTypeDescriptor(baseType);
-    for (int i = 0; i < dimensions; i++) {
-      descriptor = Descriptor.ARRAY(descriptor);
-    }
-
-    return descriptor;
-  }
-
-  protected String getBaseTypeDescriptor(String type) {
-    return switch (type) {
-      case YaplConstants.INT -> Descriptor.INT;
-      case YaplConstants.BOOL -> Descriptor.BOOLEAN;
-      case YaplConstants.STRING -> Descriptor.STRING;
-      case YaplConstants.VOID -> Descriptor.VOID;
-      default -> Descriptor.REFERENCE(getFullRecordName(type));
-    };
-  }
-
   /**
    * For the JVM inner classes are stored in their own files with the naming convention <parent_class>$<inner_class>
    */
@@ -1,7 +1,6 @@
 package generator;
 
 import analyser.SymbolTable;
-import information.YaplConstants;
 import jvm_class_generator.specs.helpers.Descriptor;
 import stdlib.StandardLibrary;
 import information.*;
@@ -16,8 +15,12 @@ public class JvmProfiler extends JvmCodeGenerator implements Profiler {
     super(stdlib, outputDir);
   }
 
+  public JvmProfiler(StandardLibrary stdlib, ClassSink sink) {
+    super(stdlib, sink);
+  }
+
   public JvmProfiler vardump(SymbolTable symboltable, int line) {
-    loadConstant(new ConstantExpression(null, YaplConstants.STRING, "[PROFILER, line " + line + "] ================================================")).write();
+    loadConstant(new ConstantExpression(null, "[PROFILER, line " + line + "] ================================================")).write();
     callFunction(symboltable.get("writeln").as(Procedure.class));
     vardump(symboltable, symboltable.currScope);
     return this;
@@ -34,11 +37,11 @@ public class JvmProfiler extends JvmCodeGenerator implements Profiler {
   }
 
   public JvmProfiler dumpSymbol(SymbolTable symboltable, Variable sym) {
-    loadConstant(new ConstantExpression(null, YaplConstants.STRING, sym.dataType + " ")).write();
-    loadConstant(new ConstantExpression(null, YaplConstants.STRING, sym.name + ": ")).write();
+    loadConstant(new ConstantExpression(null, sym.dataType.name + " ")).write();
+    loadConstant(new ConstantExpression(null, sym.name + ": ")).write();
 
     if (sym.is(Constant.class)) {
-      loadConstant( new ConstantExpression(null, YaplConstants.STRING, sym.as(Constant.class).value) ).write();
+      loadConstant( new ConstantExpression(null, sym.as(Constant.class).getValueText()) ).write();
     }
     else {
       load(sym);
@@ -78,7 +81,7 @@ public class JvmProfiler extends JvmCodeGenerator implements Profiler {
 
   protected int vardump(SymbolTable symboltable, SymbolTable.Scope scope) {
     if (scope.parent.parent == null) {
-      loadConstant(new ConstantExpression(null, YaplConstants.STRING, "Globals:")).write();
+      loadConstant(new ConstantExpression(null, "Globals:")).write();
       callFunction(symboltable.get("writeln").as(Procedure.class));
 
       dumpScope(symboltable, scope);
@@ -90,7 +93,7 @@ public class JvmProfiler extends JvmCodeGenerator implements Profiler {
 
     if (shouldVardump < 2) {
       if (!program.hasMethod("main", Descriptor.MAIN) && shouldVardump == 0) {
-        loadConstant(new ConstantExpression(null, YaplConstants.STRING, "Params:")).write();
+        loadConstant(new ConstantExpression(null, "Params:")).write();
         callFunction(symboltable.get("writeln").as(Procedure.class));
 
         dumpScope(symboltable, scope);
@@ -98,7 +101,7 @@ public class JvmProfiler extends JvmCodeGenerator implements Profiler {
         return 1;
       }
       else {
-        loadConstant(new ConstantExpression(null, YaplConstants.STRING, "Locals:")).write();
+        loadConstant(new ConstantExpression(null, "Locals:")).write();
         callFunction(symboltable.get("writeln").as(Procedure.class));
 
         dumpScope(symboltable, scope);
@@ -111,7 +114,7 @@ public class JvmProfiler extends JvmCodeGenerator implements Profiler {
   }
 
   protected void dumpPrimitive(SymbolTable symboltable, Variable sym) {
-    if (sym.dataType.equals("int")) callFunction(symboltable.get("writeint").as(Procedure.class));
+    if (sym.dataType == Type.INT) callFunction(symboltable.get("writeint").as(Procedure.class));
     else callFunction(symboltable.get("writebool").as(Procedure.class));
   }
 
@@ -119,13 +122,15 @@ public class JvmProfiler extends JvmCodeGenerator implements Profiler {
     String Arrays = Descriptor.NAME_OF(Arrays.class);
     int toString;
 
-    if (sym.selectElement().isArray()) {
+    final Type elementType = ((Type.ArrayType)sym.dataType).elementType;
+
+    if (elementType.isArray()) {
       toString = consts.addMethodref(Arrays, "deepToString", Descriptor.METHOD(Descriptor.STRING, Descriptor.ARRAY(Descriptor.OBJECT)));
     }
-    else if (sym.selectElement().dataType.equals(YaplConstants.INT)) {
+    else if (elementType == Type.INT) {
       toString = consts.addMethodref(Arrays, "toString", Descriptor.METHOD(Descriptor.STRING, Descriptor.ARRAY(Descriptor.INT)));
     }
-    else if (sym.selectElement().dataType.equals(YaplConstants.BOOL)) {
+    else if (elementType == Type.BOOL) {
       toString = consts.addMethodref(Arrays, "toString", Descriptor.METHOD(Descriptor.STRING, Descriptor.ARRAY(Descriptor.BOOLEAN)));
     }
     else {
@@ -0,0 +1,18 @@
+package generator;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Keeps the generated class-files in memory, mapped from class-name to bytes in the order they were generated.
+ */
+public class MemoryClassSink implements ClassSink {
+
+  public final Map<String, byte[]> classes = new LinkedHashMap<>();
+
+  @Override
+  public void write(String className, byte[] bytes) {
+    classes.put(className, bytes);
+  }
+
+}
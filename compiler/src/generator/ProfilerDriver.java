@@ -1,10 +1,9 @@
 package generator;
 
 import analyser.SymbolTable;
-import compiler.Compiler;
+import ast.*;
+import compiler.CompilationUnit;
 import information.YaplConstants;
-import information.CompilerContext;
-import parser.YaplParser.*;
 import information.*;
 
 import java.util.Arrays;
@@ -13,307 +12,316 @@ public class ProfilerDriver extends CodeGeneratorDriver {
 
   protected Profiler backend;
 
+  /**
+   * Resolved once, since the profiling output calls it after every watched statement.
+   */
+  protected final Procedure writeln;
+
   protected int lastVardumpedLine = 0;
   protected int vardumpLineIdx = 0;
   protected int watchLineIdx = 0;
 
-  public ProfilerDriver(SymbolTable symbolTable, Profiler profiler) {
-    super(symbolTable, profiler);
+  public ProfilerDriver(CompilationUnit unit, SymbolTable symbolTable, Profiler profiler) {
+    super(unit, symbolTable, profiler);
     this.backend = profiler;
+    this.writeln = symbolTable.get("writeln", symbolTable.root).as(Procedure.class);
   }
 
   @Override
-  public Symbol visitAssignment(AssignmentContext ctx) {
-    vardump(ctx.start.getLine());
+  public Symbol visitAssignment(AssignmentNode node) {
+    vardump(node.start.line);
 
-    int line = CompilerContext.getLine(ctx.expression());
+    int line = node.value.start.line;
     updateWatchIdx(line);
     if (shouldWatch(line)) {
-      backend.loadConstant( new ConstantExpression(ctx, "string", "[PROFILER, line " + line + "] " + ctx.fullIdentifier().getText() + " = ") ).write();
+      backend.loadConstant( new ConstantExpression(node, "[PROFILER, line " + line + "] " + node.target.getText() + " = ") ).write();
 
       isAssignedTo = true;
-      final Variable sym = visitFullIdentifier( ctx.fullIdentifier() ).as(Variable.class);
+      final Variable sym = visitFullIdentifier(node.target).as(Variable.class);
       isAssignedTo = false;
 
-      visitExpression(ctx.expression(), true);
-      backend.callFunction(symboltable.get("writeln").as(Procedure.class));
+      visitExpression(node.value, true);
+      backend.callFunction(writeln);
 
       backend.store(sym);
       return null;
     }
 
-    return super.visitAssignment(ctx);
+    return super.visitAssignment(node);
   }
 
   @Override
-  public Symbol visitWriteStatement(WriteStatementContext ctx) {
-    vardump(ctx.start.getLine());
-    return super.visitWriteStatement(ctx);
+  public Symbol visitWriteStatement(WriteStatementNode node) {
+    vardump(node.start.line);
+    return super.visitWriteStatement(node);
   }
 
   @Override
-  public Symbol visitProcedureCall(ProcedureCallContext ctx) {
-    if (ctx.getParent() instanceof StatementContext) vardump(ctx.start.getLine());
+  public Symbol visitProcedureCall(ProcedureCallNode node) {
+    if (node.isStatement) vardump(node.start.line);
 
-    final Procedure fn = symboltable.get(ctx.Id().getText()).as(Procedure.class);
-    updateWatchIdx(ctx.start.getLine());
+    final Procedure fn = symboltable.getBinding(node).as(Procedure.class);
+    updateWatchIdx(node.start.line);
 
-    if (shouldWatch(ctx.start.getLine()) || Arrays.asList(Compiler.settings.trackedFunctions).contains(fn.name)) {
-      backend.loadConstant( new ConstantExpression(ctx, "string", "[PROFILER, line " + ctx.start.getLine() + "] " + fn.name + "(") ).write();
+    if (shouldWatch(node.start.line) || Arrays.asList(unit.settings.trackedFunctions).contains(fn.name)) {
+      backend.loadConstant( new ConstantExpression(node, "[PROFILER, line " + node.start.line + "] " + fn.name + "(") ).write();
 
       int paramIdx = 1;
-      for (ExpressionContext expr : ctx.expression()) {
+      for (ExpressionNode expr : node.arguments) {
         visitExpression(expr, true);
 
         if (paramIdx++ < fn.params.size())
-          backend.loadConstant(new ConstantExpression(ctx, "string", ", ")).write();
+          backend.loadConstant(new ConstantExpression(node, ", ")).write();
       }
 
-      backend.loadConstant(new ConstantExpression(ctx, "string", ")")).write();
-      backend.callFunction(symboltable.get("writeln").as(Procedure.class));
-      backend.callFunction( symboltable.get(fn.name).as(Procedure.class) );
+      backend.loadConstant(new ConstantExpression(node, ")")).write();
+      backend.callFunction(writeln);
+      backend.callFunction(fn);
       return null;
     }
 
-    return super.visitProcedureCall(ctx);
+    return super.visitProcedureCall(node);
   }
 
   @Override
-  public Symbol visitIfStatement(IfStatementContext ctx) {
-    vardump(ctx.start.getLine());
+  public Symbol visitIfStatement(IfStatementNode node) {
+    vardump(node.start.line);
 
-    int line = CompilerContext.getLine(ctx.expression());
+    int line = node.condition.start.line;
     updateWatchIdx(line);
     if (shouldWatch(line)) {
-      backend.loadConstant( new ConstantExpression(ctx, "string", "[PROFILER, line " + line + "] if ") ).write();
+      backend.loadConstant( new ConstantExpression(node, "[PROFILER, line " + line + "] if ") ).write();
 
       backend.startBranchingBlock();
-      visitExpression(ctx.expression(), true);
-      backend.callFunction(symboltable.get("writeln").as(Procedure.class));
+      visitExpression(node.condition, true);
+      backend.callFunction(writeln);
 
       backend.branch();
-      visitStatementList(ctx.statementList(0));
+      visitAll(node.thenStatements);
 
-      if (ctx.elseStatementList != null) {
+      if (node.elseStatements != null) {
         backend.elseBranch();
-        visitStatementList(ctx.elseStatementList);
+        visitAll(node.elseStatements);
       }
 
       backend.endBranchingBlock();
       return null;
     }
 
-    Symbol result = super.visitIfStatement(ctx);
-    vardump(ctx.stop.getLine());
+    Symbol result = super.visitIfStatement(node);
+    vardump(node.stop.line);
     return result;
   }
 
   @Override
-  public Symbol visitWhileStatement(WhileStatementContext ctx) {
-    vardump(ctx.start.getLine());
+  public Symbol visitWhileStatement(WhileStatementNode node) {
+    vardump(node.start.line);
 
-    int line = CompilerContext.getLine(ctx.expression());
+    int line = node.condition.start.line;
     updateWatchIdx(line);
     if (shouldWatch(line)) {
       backend.startBranchingBlock();
-      backend.loadConstant( new ConstantExpression(ctx, "string", "[PROFILER, line " + line + "] while ") ).write();
-      visitExpression(ctx.expression(), true);
-      backend.callFunction(symboltable.get("writeln").as(Procedure.class));
+      backend.loadConstant( new ConstantExpression(node, "[PROFILER, line " + line + "] while ") ).write();
+      visitExpression(node.condition, true);
+      backend.callFunction(writeln);
 
       backend.branch();
-      visitStatementList(ctx.statementList());
+      visitAll(node.statements);
       backend.loop();
       backend.endBranchingBlock();
       return null;
     }
 
-    Symbol result = super.visitWhileStatement(ctx);
-    vardump(ctx.stop.getLine());
+    Symbol result = super.visitWhileStatement(node);
+    vardump(node.stop.line);
     return result;
   }
 
   @Override
-  public Symbol visitReturnStatement(ReturnStatementContext ctx) {
-    vardump(ctx.start.getLine());
+  public Symbol visitReturnStatement(ReturnStatementNode node) {
+    vardump(node.start.line);
 
-    if (ctx.expression() != null) {
-      int line = CompilerContext.getLine(ctx.expression());
+    if (node.value != null) {
+      int line = node.value.start.line;
       updateWatchIdx(line);
       if (shouldWatch(line)) {
-        backend.loadConstant( new ConstantExpression(ctx, "string", "[PROFILER, line " + line + "] return ") ).write();
-        visitExpression(ctx.expression(), true);
-        backend.callFunction(symboltable.get("writeln").as(Procedure.class));
+        backend.loadConstant( new ConstantExpression(node, "[PROFILER, line " + line + "] return ") ).write();
+        visitExpression(node.value, true);
+        backend.callFunction(writeln);
         backend.returnFromFunction();
         return null;
       }
     }
 
-    return super.visitReturnStatement(ctx);
+    return super.visitReturnStatement(node);
   }
 
   @Override
-  public Symbol visitBlock(BlockContext ctx) {
-    vardump(CompilerContext.getLine(ctx.start));
-    Symbol result = super.visitBlock(ctx);
-    vardump(CompilerContext.getLine(ctx.stop));
+  public Symbol visitBlock(BlockNode node) {
+    vardump(node.start.line);
+    Symbol result = super.visitBlock(node);
+    vardump(node.stop.line);
     return result;
   }
 
 
 
-  public Symbol visitExpression(ExpressionContext ctx, boolean watch) {
-    if (ctx instanceof ArithmeticExprContext) return visitArithmeticExpr((ArithmeticExprContext)ctx, watch);
-    else if (ctx instanceof ComparisonContext) return visitComparison((ComparisonContext)ctx, watch);
-    else if (ctx instanceof EqualityComparisonContext) return visitEqualityComparison((EqualityComparisonContext)ctx, watch);
-    else if (ctx instanceof BooleanExprContext) return visitBooleanExpr((BooleanExprContext)ctx, watch);
-    else if (ctx instanceof UnaryExprContext) return visitUnaryExpr((UnaryExprContext)ctx, watch);
-    else if (ctx instanceof CreationExprContext) return visitCreationExpr((CreationExprContext)ctx, watch);
+  public Symbol visitExpression(ExpressionNode node, boolean watch) {
+    if (node instanceof ArithmeticExprNode) return visitArithmeticExpr((ArithmeticExprNode)node, watch);
+    else if (node instanceof ComparisonNode) return visitComparison((ComparisonNode)node, watch);
+    else if (node instanceof EqualityComparisonNode) return visitEqualityComparison((EqualityComparisonNode)node, watch);
+    else if (node instanceof BooleanExprNode) return visitBooleanExpr((BooleanExprNode)node, watch);
+    else if (node instanceof UnaryExprNode) return visitUnaryExpr((UnaryExprNode)node, watch);
+    else if (node instanceof CreationExprNode) return visitCreationExpr((CreationExprNode)node, watch);
     return null;
   }
 
-  public Symbol visitArithmeticExpr(ArithmeticExprContext ctx, boolean watch) {
-    final String exprName = ConstantExpression.nameOf(ctx);
+  /**
+   * Like {@code visitFolded(ExpressionNode)}, the constants are dumped if the expression is watched.
+   */
+  protected boolean visitFolded(ExpressionNode node, boolean watch) {
+    final Constant constant = symboltable.getConstant(node);
 
-    if (symboltable.contains(exprName) && symboltable.get(exprName).is(Constant.class)) {
-      backend.loadConstant( symboltable.get(exprName).as(Constant.class) );
-      if (watch) backend.dumpTopOfStack(symboltable, symboltable.get(exprName).as(Variable.class));
+    if (constant != null) {
+      backend.loadConstant(constant);
+      if (watch) backend.dumpTopOfStack(symboltable, constant);
+      return true;
     }
-    else {
-      final String op = ctx.op.getText();
-      visitExpression(ctx.expression(0), watch);
-      if (watch) backend.loadConstant( new ConstantExpression(ctx, "string", " " + op + " ") ).write();
-      visitExpression(ctx.expression(1), watch);
-      backend.op2(op);
+
+    final Simplification simplification = symboltable.getSimplification(node);
+    if (simplification == null) return false;
+
+    visitExpression(simplification.operand, watch);
+
+    if (simplification.op != null) {
+      if (watch) backend.loadConstant( new ConstantExpression(node, " " + simplification.op + " ") ).write();
+      backend.loadConstant(simplification.constant);
+      if (watch) backend.dumpTopOfStack(symboltable, simplification.constant);
+      backend.op2(simplification.op);
     }
 
+    return true;
+  }
+
+  public Symbol visitArithmeticExpr(ArithmeticExprNode node, boolean watch) {
+    if (visitFolded(node, watch)) return null;
+
+    final String op = node.op.text;
+    visitExpression(node.left, watch);
+    if (watch) backend.loadConstant( new ConstantExpression(node, " " + op + " ") ).write();
+    visitExpression(node.right, watch);
+    backend.op2(op);
+
     return null;
   }
 
-  public Symbol visitComparison(ComparisonContext ctx, boolean watch) {
-    final String exprName = ConstantExpression.nameOf(ctx);
+  public Symbol visitComparison(ComparisonNode node, boolean watch) {
+    if (visitFolded(node, watch)) return null;
 
-    if (symboltable.contains(exprName) && symboltable.get(exprName).is(Constant.class)) {
-      backend.loadConstant( symboltable.get(exprName).as(Constant.class) );
-      if (watch) backend.dumpTopOfStack(symboltable, symboltable.get(exprName).as(Variable.class));
-    }
-    else {
-      final String op = ctx.op.getText();
-      visitExpression(ctx.expression(0), watch);
-      if (watch) backend.loadConstant( new ConstantExpression(ctx, "string", " " + op + " ") ).write();
-      visitExpression(ctx.expression(1), watch);
-      backend.op2(op);
-    }
+    final String op = node.op.text;
+    visitExpression(node.left, watch);
+    if (watch) backend.loadConstant( new ConstantExpression(node, " " + op + " ") ).write();
+    visitExpression(node.right, watch);
+    backend.op2(op);
 
     return null;
   }
 
-  public Symbol visitEqualityComparison(EqualityComparisonContext ctx, boolean watch) {
-    final String exprName = ConstantExpression.nameOf(ctx);
+  public Symbol visitEqualityComparison(EqualityComparisonNode node, boolean watch) {
+    if (visitFolded(node, watch)) return null;
 
-    if (symboltable.contains(exprName) && symboltable.get(exprName).is(Constant.class)) {
-      backend.loadConstant( symboltable.get(exprName).as(Constant.class) );
-      if (watch) backend.dumpTopOfStack(symboltable, symboltable.get(exprName).as(Variable.class));
-    }
-    else {
-      final String op = ctx.op.getText();
-      visitExpression(ctx.expression(0), watch);
-      if (watch) backend.loadConstant( new ConstantExpression(ctx, "string", " " + op + " ") ).write();
-      visitExpression(ctx.expression(1), watch);
-      backend.op2(op);
-    }
+    final String op = node.op.text;
+    visitExpression(node.left, watch);
+    if (watch) backend.loadConstant( new ConstantExpression(node, " " + op + " ") ).write();
+    visitExpression(node.right, watch);
+    backend.op2(op);
 
     return null;
   }
 
-  public Symbol visitBooleanExpr(BooleanExprContext ctx, boolean watch) {
-    final String exprName = ConstantExpression.nameOf(ctx);
+  public Symbol visitBooleanExpr(BooleanExprNode node, boolean watch) {
+    if (visitFolded(node, watch)) return null;
 
-    if (symboltable.contains(exprName) && symboltable.get(exprName).is(Constant.class)) {
-      backend.loadConstant( symboltable.get(exprName).as(Constant.class) );
-      if (watch) backend.dumpTopOfStack(symboltable, symboltable.get(exprName).as(Variable.class));
-    }
-    else {
-      final String op = ctx.op.getText();
-      backend.op2(op);
-      visitExpression(ctx.expression(0), watch);
-      if (watch) backend.loadConstant( new ConstantExpression(ctx, "string", " " + op + " ") ).write();
-      visitExpression(ctx.expression(1), watch);
-    }
+    final String op = node.op.text;
+    backend.op2(op);
+    visitExpression(node.left, watch);
+    if (watch) backend.loadConstant( new ConstantExpression(node, " " + op + " ") ).write();
+    visitExpression(node.right, watch);
 
     return null;
   }
 
-  public Symbol visitUnaryExpr(UnaryExprContext ctx, boolean watch) {
-    if (ctx.sign != null && watch) {
-      backend.loadConstant( new ConstantExpression(ctx, "string", ctx.sign.getText()) ).write();
+  public Symbol visitUnaryExpr(UnaryExprNode node, boolean watch) {
+    if (node.sign != null && watch) {
+      backend.loadConstant( new ConstantExpression(node, node.sign.text) ).write();
     }
 
-    if (ctx.primaryExpr().literal() != null) visitLiteral(ctx.primaryExpr().literal(), watch);
-    else if (ctx.primaryExpr().fullIdentifier() != null) visitFullIdentifier(ctx.primaryExpr().fullIdentifier(), watch);
-    else if (ctx.primaryExpr().procedureCall() != null) visitProcedureCall(ctx.primaryExpr().procedureCall(), watch);
-    else if (ctx.primaryExpr().arrayLength() != null) visitArrayLength(ctx.primaryExpr().arrayLength(), watch);
-    else if (ctx.primaryExpr().expression() != null) {
-      if (watch) backend.loadConstant( new ConstantExpression(ctx, "string", "(") ).write();
-      visitExpression(ctx.primaryExpr().expression(), watch);
-      if (watch) backend.loadConstant( new ConstantExpression(ctx, "string", ")") ).write();
+    if (node.operand instanceof LiteralNode) visitLiteral((LiteralNode)node.operand, watch);
+    else if (node.operand instanceof FullIdentifierNode) visitFullIdentifier((FullIdentifierNode)node.operand, watch);
+    else if (node.operand instanceof ProcedureCallNode) visitProcedureCall((ProcedureCallNode)node.operand, watch);
+    else if (node.operand instanceof ArrayLengthNode) visitArrayLength((ArrayLengthNode)node.operand, watch);
+    else if (node.operand instanceof ParenthesizedExprNode) {
+      if (watch) backend.loadConstant( new ConstantExpression(node, "(") ).write();
+      visitExpression(((ParenthesizedExprNode)node.operand).expression, watch);
+      if (watch) backend.loadConstant( new ConstantExpression(node, ")") ).write();
     }
 
 
-    if (ctx.sign != null) {
-      final String op = ctx.sign.getText();
+    if (node.sign != null) {
+      final String op = node.sign.text;
       backend.op1(op);
     }
 
     return null;
   }
 
-  public Symbol visitCreationExpr(CreationExprContext ctx, boolean watch) {
-    if (ctx.expression().size() > 0) {
-      for (ExpressionContext expr : ctx.expression())
+  public Symbol visitCreationExpr(CreationExprNode node, boolean watch) {
+    final Type type = symboltable.getBinding(node).as(Variable.class).dataType;
+
+    if (node.dimensions.size() > 0) {
+      for (ExpressionNode expr : node.dimensions)
         visitExpression(expr, watch);
 
-      final String baseType = ctx.baseType().getText();
-      backend.newArray(baseType, ctx.expression().size());
+      backend.newArray((Type.ArrayType)type);
     }
     else {
-      final String type = ctx.baseType().getText();
-      backend.newRecord(type);
+      backend.newRecord((Type.RecordType)type);
     }
 
     return null;
   }
 
-  public Symbol visitArrayLength(ArrayLengthContext ctx, boolean watch) {
-    Symbol result = super.visitArrayLength(ctx);
-    if (watch) backend.dumpTopOfStack(symboltable, new Variable(YaplConstants.UNDEFINED, "int", true));
+  public Symbol visitArrayLength(ArrayLengthNode node, boolean watch) {
+    Symbol result = super.visitArrayLength(node);
+    if (watch) backend.dumpTopOfStack(symboltable, new Variable(YaplConstants.UNDEFINED, Type.INT, true));
     return result;
   }
 
-  public Symbol visitProcedureCall(ProcedureCallContext ctx, boolean watch) {
-    final Procedure fn = symboltable.get(ctx.Id().getText()).as(Procedure.class);
-    backend.loadConstant( new ConstantExpression(ctx, "string", fn.name + "(") ).write();
+  public Symbol visitProcedureCall(ProcedureCallNode node, boolean watch) {
+    final Procedure fn = symboltable.getBinding(node).as(Procedure.class);
+    backend.loadConstant( new ConstantExpression(node, fn.name + "(") ).write();
 
     int paramIdx = 1;
-    for (ExpressionContext expr : ctx.expression()) {
+    for (ExpressionNode expr : node.arguments) {
       visitExpression(expr, true);
 
       if (paramIdx < fn.params.size())
-        backend.loadConstant(new ConstantExpression(ctx, "string", ", ")).write();
+        backend.loadConstant(new ConstantExpression(node, ", ")).write();
     }
 
-    backend.loadConstant(new ConstantExpression(ctx, "string", ")")).write();
-    backend.callFunction( symboltable.get(fn.name).as(Procedure.class) );
+    backend.loadConstant(new ConstantExpression(node, ")")).write();
+    backend.callFunction(fn);
     return null;
   }
 
-  public Symbol visitFullIdentifier(FullIdentifierContext ctx, boolean watch) {
-    Symbol result = super.visitFullIdentifier(ctx);
+  public Symbol visitFullIdentifier(FullIdentifierNode node, boolean watch) {
+    Symbol result = super.visitFullIdentifier(node);
     if (watch) backend.dumpTopOfStack(symboltable, result.as(Variable.class));
     return result;
   }
 
-  public Symbol visitLiteral(LiteralContext ctx, boolean watch) {
-    Symbol result = super.visitLiteral(ctx);
+  public Symbol visitLiteral(LiteralNode node, boolean watch) {
+    Symbol result = super.visitLiteral(node);
     if (watch) backend.dumpTopOfStack(symboltable, result.as(Variable.class));
     return result;
   }
@@ -321,23 +329,23 @@ public class ProfilerDriver extends CodeGeneratorDriver {
 
 
   protected void vardump(int line) {
-    boolean hasLinesToVardump = vardumpLineIdx < Compiler.settings.vardumpLineNrs.length && lastVardumpedLine < Compiler.settings.vardumpLineNrs[vardumpLineIdx];
+    boolean hasLinesToVardump = vardumpLineIdx < unit.settings.vardumpLineNrs.length && lastVardumpedLine < unit.settings.vardumpLineNrs[vardumpLineIdx];
 
-    if (hasLinesToVardump && Compiler.settings.vardumpLineNrs[vardumpLineIdx] <= line) {
-      backend.vardump(symboltable, Compiler.settings.vardumpLineNrs[vardumpLineIdx]);
+    if (hasLinesToVardump && unit.settings.vardumpLineNrs[vardumpLineIdx] <= line) {
+      backend.vardump(symboltable, unit.settings.vardumpLineNrs[vardumpLineIdx]);
       lastVardumpedLine = line;
       vardumpLineIdx++;
     }
   }
 
   protected void updateWatchIdx(int line) {
-    while (watchLineIdx < Compiler.settings.watchLineNrs.length && line > Compiler.settings.watchLineNrs[watchLineIdx]) {
+    while (watchLineIdx < unit.settings.watchLineNrs.length && line > unit.settings.watchLineNrs[watchLineIdx]) {
       watchLineIdx++;
     }
   }
 
   protected boolean shouldWatch(int line) {
-    return (Compiler.settings.watchAll || watchLineIdx < Compiler.settings.watchLineNrs.length && line == Compiler.settings.watchLineNrs[watchLineIdx]);
+    return (unit.settings.watchAll || watchLineIdx < unit.settings.watchLineNrs.length && line == unit.settings.watchLineNrs[watchLineIdx]);
   }
   
 }
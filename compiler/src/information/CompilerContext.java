@@ -1,142 +1,95 @@
 package information;
 
-import compiler.Compiler;
+import ast.Node;
+import ast.ProcedureNode;
+import ast.ProgramNode;
+import ast.RecordDeclarationNode;
+import ast.Span;
+import compiler.SourceFile;
 import org.antlr.v4.runtime.ParserRuleContext;
-import org.antlr.v4.runtime.Token;
-import parser.YaplParser.*;
 
 
 public class CompilerContext {
 
-  public static int getLine(Token token) {
-    return token.getLine();
+  public static int getLine(Node node) {
+    return node.start.line;
   }
 
-  public static int getLine(ParserRuleContext context) {
-    return context.start.getLine();
+  public static int getColumn(Node node) {
+    return node.start.column;
   }
 
-  public static int getColumn(Token token) {
-    return 1 + token.getCharPositionInLine();
-  }
-
-  public static int getColumn(ParserRuleContext context) {
-    return 1 + context.start.getCharPositionInLine();
-  }
-
-  public static String getText(ParserRuleContext context) {
-    return Compiler.settings.sourceCode.substring(context.getStart().getStartIndex(), context.getStop().getStopIndex() + 1);
-  }
-
-  public static String getProcedureName(ParserRuleContext context) {
-    if (context instanceof ProgramContext) {
+  public static String getProcedureName(Node node) {
+    if (node instanceof ProgramNode) {
       return null;
     }
-    else if (context instanceof ProcedureContext) {
-      return ((ProcedureContext)context).Id(0).getText();
+    else if (node instanceof ProcedureNode) {
+      return ((ProcedureNode)node).name.text;
     }
 
-    return getProcedureName(context.getParent());
+    return getProcedureName(node.getParent());
   }
 
-  public static String getRecordName(ParserRuleContext context) {
-    if (context instanceof ProgramContext) {
+  public static String getRecordName(Node node) {
+    if (node instanceof ProgramNode) {
       return null;
     }
-    else if (context instanceof RecordDeclarationContext) {
-      return ((RecordDeclarationContext)context).Id().getText();
+    else if (node instanceof RecordDeclarationNode) {
+      return ((RecordDeclarationNode)node).name.text;
     }
 
-    return getRecordName(context.getParent());
+    return getRecordName(node.getParent());
   }
 
+  /**
+   * The path on the parse-tree, only used for syntax errors, since all other errors are found on the AST (see {@code Node.getPath()}).
+   * Use a shared {@code PathIndex} when formatting many syntax errors of the same parse-tree.
+   */
   public static String getPath(ParserRuleContext context) {
-    // root
-    if (context instanceof ProgramContext) {
-      return ((ProgramContext)context).Id(0).getText();
-    }
-
-    // ignore
-    if (context instanceof StatementListContext || context instanceof StatementContext ) {
-      return getPath(context.getParent());
-    }
-
-
-    String path = getPath(context.getParent());
-    // limit path depth to expression
-    if (path.endsWith("expression")) return path;
-
-    String rule = Compiler.ruleNames[context.getRuleIndex()];
-    int idx = 0, count = 1;
-    while(context.getParent().getChild(idx) != context) {
-      if (context.getClass().isInstance( context.getParent().getChild(idx) )) count++;
-      idx++;
-    }
-
-    path += " > ";
-    // use identifier instead of rule name if available
-    if (context instanceof ProcedureContext)                path += ((ProcedureContext)context).Id(0).getText();
-    else if (context instanceof ProcedureCallContext)       path += ((ProcedureCallContext)context).Id().getText();
-    else if (context instanceof RecordDeclarationContext)   path += ((RecordDeclarationContext)context).Id().getText();
-    else {
-      // hide count when its the first or only of its type
-      if (count > 1) path += count + ". ";
-      path += rule;
-    }
+    return new PathIndex().getPath(context);
+  }
 
-    return path;
+  public static String getUnderlinedCode(SourceFile source, Span token) {
+    return appendUnderlinedCode(new StringBuilder(), source, token).toString();
   }
 
-  public static String getUnderlinedCode(Token token) {
-    String[] lines = Compiler.settings.sourceCode.split("\n");
+  public static String getUnderlinedCode(SourceFile source, Node node) {
+    return appendUnderlinedCode(new StringBuilder(), source, node).toString();
+  }
 
-    int row = getLine(token) - 1;
-    int tokenCol = getColumn(token);
+  /**
+   * Appends the lines around the token to the builder, with the token underlined.
+   */
+  public static StringBuilder appendUnderlinedCode(StringBuilder code, SourceFile source, Span token) {
+    return appendUnderlinedCode(code, source, token.line, token.column, token.getLength());
+  }
 
-    String code = "";
+  /**
+   * Appends the lines around the node to the builder, with the whole source of the node underlined.
+   */
+  public static StringBuilder appendUnderlinedCode(StringBuilder code, SourceFile source, Node node) {
+    return appendUnderlinedCode(code, source, node.start.line, node.start.column, node.stop.stopIndex - node.start.startIndex + 1);
+  }
 
-    if (row - 5 >= 0) code += String.format("%1$4d", 1 + row - 5) + " | " + lines[row - 5] + "\n";
-    if (row - 4 >= 0) code += String.format("%1$4d", 1 + row - 4) + " | " + lines[row - 4] + "\n";
-    if (row - 3 >= 0) code += String.format("%1$4d", 1 + row - 3) + " | " + lines[row - 3] + "\n";
-    if (row - 2 >= 0) code += String.format("%1$4d", 1 + row - 2) + " | " + lines[row - 2] + "\n";
-    if (row - 1 >= 0) code += String.format("%1$4d", 1 + row - 1) + " | " + lines[row - 1] + "\n";
-    code += String.format("%1$4d", 1 + row) + " | " + lines[row] + "\n";
-    code += "     | ";
+  protected static StringBuilder appendUnderlinedCode(StringBuilder code, SourceFile source, int line, int tokenCol, int length) {
+    // 5 lines before and 3 lines after the line of the token
+    for (int before = Math.max(1, line - 5); before < line; before++) appendLine(code, source, before);
+    appendLine(code, source, line);
+    code.append("     | ");
 
-    for (int i = 0; i < tokenCol - 1; i++) code += " ";
-    for (int i = 0; i < token.getStopIndex() - token.getStartIndex() + 1; i++) code += "^";
-    code += "\n";
+    for (int i = 0; i < tokenCol - 1; i++) code.append(' ');
+    for (int i = 0; i < length; i++) code.append('^');
+    code.append('\n');
 
-    if (row + 1 < lines.length) code += String.format("%1$4d", 1 + row + 1) + " | " + lines[row + 1] + "\n";
-    if (row + 2 < lines.length) code += String.format("%1$4d", 1 + row + 2) + " | " + lines[row + 2] + "\n";
-    if (row + 3 < lines.length) code += String.format("%1$4d", 1 + row + 3) + " | " + lines[row + 3] + "\n";
+    final int last = Math.min(line + 3, source.getLineCount());
+    for (int after = line + 1; after <= last; after++) appendLine(code, source, after);
     return code;
   }
 
-  public static String getUnderlinedCode(ParserRuleContext context) {
-    String[] lines = Compiler.settings.sourceCode.split("\n");
-
-    int row = getLine(context) - 1;
-    int tokenCol = getColumn(context);
-
-    String code = "";
-
-    if (row - 5 >= 0) code += String.format("%1$4d", 1 + row - 5) + " | " + lines[row - 5] + "\n";
-    if (row - 4 >= 0) code += String.format("%1$4d", 1 + row - 4) + " | " + lines[row - 4] + "\n";
-    if (row - 3 >= 0) code += String.format("%1$4d", 1 + row - 3) + " | " + lines[row - 3] + "\n";
-    if (row - 2 >= 0) code += String.format("%1$4d", 1 + row - 2) + " | " + lines[row - 2] + "\n";
-    if (row - 1 >= 0) code += String.format("%1$4d", 1 + row - 1) + " | " + lines[row - 1] + "\n";
-    code += String.format("%1$4d", 1 + row) + " | " + lines[row] + "\n";
-    code += "     | ";
-
-    for (int i = 0; i < tokenCol - 1; i++) code += " ";
-    for (int i = 0; i < context.stop.getStopIndex() - context.start.getStartIndex() + 1; i++) code += "^";
-    code += "\n";
-
-    if (row + 1 < lines.length) code += String.format("%1$4d", 1 + row + 1) + " | " + lines[row + 1] + "\n";
-    if (row + 2 < lines.length) code += String.format("%1$4d", 1 + row + 2) + " | " + lines[row + 2] + "\n";
-    if (row + 3 < lines.length) code += String.format("%1$4d", 1 + row + 3) + " | " + lines[row + 3] + "\n";
-    return code;
+  protected static void appendLine(StringBuilder code, SourceFile source, int line) {
+    final String lineNr = Integer.toString(line);
+    for (int i = lineNr.length(); i < 4; i++) code.append(' ');
+    code.append(lineNr).append(" | ").append( source.getLine(line) ).append('\n');
   }
 
 }
@@ -1,194 +1,288 @@
 package information;
 
-import compiler.Compiler;
+import ast.Node;
+import ast.Span;
+import compiler.CompilationUnit;
 import org.antlr.v4.runtime.ParserRuleContext;
 import org.antlr.v4.runtime.Token;
 
+import java.util.function.Supplier;
+
+/**
+ * An error found by any phase of the compiler, also pushed onto the information stack of the {@code Analyser} in place of erroneous expressions.
+ * Warnings are reported the same way, but they do not stop the compilation (see {@code CompilationUnit.addWarning}).
+ * <br><br>
+ * Errors are created far more often than they are printed, e.g. for every use of an erroneous symbol,
+ * so the message is only formatted and the position only resolved when the error is printed.
+ */
 public class CompilerError extends Information {
 
   public final int errorNumber;
-  public final String message;
-  public final ParserRuleContext context;
-  public final Token token;
-  public final int row;
-  public final int column;
+  public final Node context;
+  public final Span token;
   public final boolean underlineWholeContext;
+  public final boolean isWarning;
+
+  protected final Supplier<String> messageFormatter;
+  protected String message = null;
+
+  /**
+   * The position of lexical errors, all other errors take their position from the token.
+   */
+  protected final int row;
+  protected final int column;
+
+  /**
+   * The context of syntax errors, which are found on the parse-tree before there is an AST.
+   * Its path is only computed when the error is formatted, since the parse-tree is incomplete while parsing.
+   */
+  protected final ParserRuleContext syntaxContext;
+  protected final PathIndex syntaxPaths;
 
-  protected CompilerError(int errorNumber, String message, ParserRuleContext context, Token token) {
+  protected CompilerError(int errorNumber, Supplier<String> message, Node context, Span token) {
     this(errorNumber, message, context, token, false);
   }
 
-  protected CompilerError(int errorNumber, String message, ParserRuleContext context, Token token, boolean underlineWholeContext) {
+  protected CompilerError(int errorNumber, Supplier<String> message, Node context, Span token, boolean underlineWholeContext) {
+    this(errorNumber, message, context, token, underlineWholeContext, false);
+  }
+
+  protected CompilerError(int errorNumber, Supplier<String> message, Node context, Span token, boolean underlineWholeContext, boolean isWarning) {
     this.errorNumber = errorNumber;
-    this.message = message;
+    this.messageFormatter = message;
     this.context = context;
     this.token = token;
-    this.row = CompilerContext.getLine(token);
-    this.column = CompilerContext.getColumn(token);
+    this.row = -1;
+    this.column = -1;
     this.underlineWholeContext = underlineWholeContext;
+    this.isWarning = isWarning;
+    this.syntaxContext = null;
+    this.syntaxPaths = null;
   }
 
-  protected CompilerError(int errorNumber, String message, int row, int column) {
+  protected CompilerError(int errorNumber, Supplier<String> message, ParserRuleContext syntaxContext, PathIndex syntaxPaths, Span token) {
     this.errorNumber = errorNumber;
-    this.message = message;
+    this.messageFormatter = message;
+    this.context = null;
+    this.token = token;
+    this.row = -1;
+    this.column = -1;
+    this.underlineWholeContext = false;
+    this.isWarning = false;
+    this.syntaxContext = syntaxContext;
+    this.syntaxPaths = syntaxPaths;
+  }
+
+  protected CompilerError(int errorNumber, Supplier<String> message, int row, int column) {
+    this.errorNumber = errorNumber;
+    this.messageFormatter = message;
     this.context = null;
     this.token = null;
     this.row = row;
     this.column = column;
     this.underlineWholeContext = false;
+    this.isWarning = false;
+    this.syntaxContext = null;
+    this.syntaxPaths = null;
+  }
+
+  public String getMessage() {
+    if (message == null) message = messageFormatter.get();
+    return message;
+  }
+
+  public int getRow() {
+    return (token != null) ? token.line : row;
+  }
+
+  public int getColumn() {
+    return (token != null) ? token.column : column;
   }
 
   @Override
   public String toString() {
-    String programName = (Compiler.programName != null) ? "[" + Compiler.programName + "] " : "";
-    String msg = "YAPL compilation: " + programName + "ERROR " + errorNumber + " (line " + row + ", column " + column + ")";
+    return toString(null);
+  }
+
+  /**
+   * Formats the error including the program name and the erroneous code of the given {@code CompilationUnit}.
+   */
+  public String toString(CompilationUnit unit) {
+    return appendTo(new StringBuilder(), unit).toString();
+  }
+
+  /**
+   * Appends the error formatted like {@code toString(unit)} to the builder, so one builder can be reused for many errors.
+   */
+  public StringBuilder appendTo(StringBuilder msg, CompilationUnit unit) {
+    msg.append("YAPL compilation: ");
+    if (unit != null && unit.programName != null) msg.append('[').append(unit.programName).append("] ");
+    msg.append(isWarning ? "WARNING " : "ERROR ").append(errorNumber).append(" (line ").append( getRow() ).append(", column ").append( getColumn() ).append(')');
 
-    if (context != null) msg += "\r\nPath: " + CompilerContext.getPath(context);
-    msg += "\r\nMessage: " + message;
+    if (context != null) msg.append("\r\nPath: ").append( context.getPath() );
+    else if (syntaxContext != null) msg.append("\r\nPath: ").append( syntaxPaths.getPath(syntaxContext) );
+    msg.append("\r\nMessage: ").append( getMessage() );
 
-    if (context != null && underlineWholeContext) msg += "\r\nCode:\r\n" + CompilerContext.getUnderlinedCode(context);
-    else if (token != null) msg += "\r\nCode:\r\n" + CompilerContext.getUnderlinedCode(token);
-    return msg + "\r\n";
+    if (unit == null) return msg.append("\r\n");
+
+    if (context != null && underlineWholeContext) CompilerContext.appendUnderlinedCode(msg.append("\r\nCode:\r\n"), unit.source, context);
+    else if (token != null) CompilerContext.appendUnderlinedCode(msg.append("\r\nCode:\r\n"), unit.source, token);
+    return msg.append("\r\n");
   }
 
 
 
   /** Internal error. */
   public static CompilerError Internal(String message) {
-    return new CompilerError(1, message, -1, -1);
+    return new CompilerError(1, () -> message, -1, -1);
   }
 
-  public static CompilerError Internal(String message, ParserRuleContext context, Token token) {
-    return new CompilerError(1, message, context, token);
+  public static CompilerError Internal(String message, Node context, Span token) {
+    return new CompilerError(1, () -> message, context, token);
   }
 
   /** Lexical error. */
   public static CompilerError Lexical(String message, int row, int column) {
-    return new CompilerError(2, message, row, column);
+    return new CompilerError(2, () -> message, row, column);
+  }
+
+  /** Syntax error, the paths of all syntax errors of a parse-tree should share one {@code PathIndex}. */
+  public static CompilerError Syntax(String message, ParserRuleContext context, Token token, PathIndex paths) {
+    return new CompilerError(3, () -> message, context, paths, Span.of(token));
   }
 
-  /** Syntax error. */
-  public static CompilerError Syntax(String message, ParserRuleContext context, Token token) {
-    return new CompilerError(3, message, context, token);
+  /** Class-file could not be written, e.g. because the output-directory is not writable. */
+  public static CompilerError ClassFileNotWritten(String reason, Node context, Span token) {
+    return new CompilerError(4, () -> "Cannot write the class-files: " + reason, context, token);
   }
 
   /* Symbol check errors */
 
   /** Symbol already declared. */
-  public static CompilerError SymbolExists(String identifier, String kind, ParserRuleContext context, Token token) {
-    return new CompilerError(10, "Symbol '" + identifier + "' already declared in the current scope (as " + kind + ")", context, token);
+  public static CompilerError SymbolExists(String identifier, String kind, Node context, Span token) {
+    return new CompilerError(10, () -> "Symbol '" + identifier + "' already declared in the current scope (as " + kind + ")", context, token);
   }
 
   /** Identifier not declared. */
-  public static CompilerError IdentNotDecl(String identifier, ParserRuleContext context, Token token) {
-    return new CompilerError(11, "Identifier '" + identifier + "' not declared", context, token);
+  public static CompilerError IdentNotDecl(String identifier, Node context, Span token) {
+    return new CompilerError(11, () -> "Identifier '" + identifier + "' not declared", context, token);
   }
 
   /** Illegal use of symbol. */
-  public static CompilerError SymbolIllegalUse(String identifier, String kind, ParserRuleContext context, Token token) {
-    return new CompilerError(12, "Illegal use of " + kind + " '" + identifier + "'", context, token);
+  public static CompilerError SymbolIllegalUse(String identifier, String kind, Node context, Span token) {
+    return new CompilerError(12, () -> "Illegal use of " + kind + " '" + identifier + "'", context, token);
   }
 
   /** End identifier does not match program|procedure. */
-  public static CompilerError EndIdentMismatch(String name, String endName, String kind, ParserRuleContext context, Token token) {
-    return new CompilerError(13, "End '" + endName + "' does not match " + kind + " '" + name + "'", context, token);
+  public static CompilerError EndIdentMismatch(String name, String endName, String kind, Node context, Span token) {
+    return new CompilerError(13, () -> "End '" + endName + "' does not match " + kind + " '" + name + "'", context, token);
   }
 
   /* Type check errors */
 
   /** ConstExpression before '[' is not an array type. */
-  public static CompilerError SelectorNotArray(ParserRuleContext context, Token token) {
-    return new CompilerError(20, "ConstExpression before ’[’ is not an array type", context, token, true);
+  public static CompilerError SelectorNotArray(Node context, Span token) {
+    return new CompilerError(20, () -> "ConstExpression before ’[’ is not an array type", context, token, true);
   }
 
   /** Array index or dimension is not an integer type. */
-  public static CompilerError BadArraySelector(ParserRuleContext context, Token token) {
-    return new CompilerError(21, "Array index or dimension is not an integer type", context, token, true);
+  public static CompilerError BadArraySelector(Node context, Span token) {
+    return new CompilerError(21, () -> "Array index or dimension is not an integer type", context, token, true);
   }
 
   /** ConstExpression after '#' is not an array type. */
-  public static CompilerError ArrayLenNotArray(ParserRuleContext context, Token token) {
-    return new CompilerError(22, "ConstExpression after '#' is not an array type", context, token, true);
+  public static CompilerError ArrayLenNotArray(Node context, Span token) {
+    return new CompilerError(22, () -> "ConstExpression after '#' is not an array type", context, token, true);
   }
 
   /** Illegal operand type for unary operator. */
-  public static CompilerError IllegalOp1Type(String op, ParserRuleContext context, Token token) {
-    return new CompilerError(23, "Illegal operand type for unary operator '" + op + "'", context, token, true);
+  public static CompilerError IllegalOp1Type(String op, Node context, Span token) {
+    return new CompilerError(23, () -> "Illegal operand type for unary operator '" + op + "'", context, token, true);
   }
 
   /** Illegal operand types for binary operator. */
-  public static CompilerError IllegalOp2Type(String op, ParserRuleContext context, Token token) {
-    return new CompilerError(24, "Illegal operand types for binary operator '" + op + "'", context, token);
+  public static CompilerError IllegalOp2Type(String op, Node context, Span token) {
+    return new CompilerError(24, () -> "Illegal operand types for binary operator '" + op + "'", context, token);
   }
 
   /** Illegal operand type for relational operator. */
-  public static CompilerError IllegalRelOpType(String op, ParserRuleContext context, Token token) {
-    return new CompilerError(25, "Illegal operand types for relational operator '" + op + "'", context, token);
+  public static CompilerError IllegalRelOpType(String op, Node context, Span token) {
+    return new CompilerError(25, () -> "Illegal operand types for relational operator '" + op + "'", context, token);
   }
 
   /** Illegal operand type for equality operator. */
-  public static CompilerError IllegalEqualOpType(String op, ParserRuleContext context, Token token) {
-    return new CompilerError(26, "Illegal operand types for equality operator '" + op + "'", context, token);
+  public static CompilerError IllegalEqualOpType(String op, Node context, Span token) {
+    return new CompilerError(26, () -> "Illegal operand types for equality operator '" + op + "'", context, token);
   }
 
   /** Using procedure (not a function) in expression. */
-  public static CompilerError ProcNotFuncExpr(String procedure, ParserRuleContext context, Token token) {
-    return new CompilerError(27, "Using procedure '" + procedure + "' (not a function) in expression", context, token, true);
+  public static CompilerError ProcNotFuncExpr(String procedure, Node context, Span token) {
+    return new CompilerError(27, () -> "Using procedure '" + procedure + "' (not a function) in expression", context, token, true);
   }
 
   /** Type mismatch in assignment. */
-  public static CompilerError TypeMismatchAssign(ParserRuleContext context, Token token) {
-    return new CompilerError(29, "Type mismatch in assignment", context, token);
+  public static CompilerError TypeMismatchAssign(Node context, Span token) {
+    return new CompilerError(29, () -> "Type mismatch in assignment", context, token);
   }
 
   /** Argument not applicable to procedure. */
-  public static CompilerError ArgNotApplicable(String procedure, int argNr, ParserRuleContext context, Token token) {
-    return new CompilerError(30, "Argument #" + argNr + " not applicable to procedure '" + procedure + "'", context, token, true);
+  public static CompilerError ArgNotApplicable(String procedure, int argNr, Node context, Span token) {
+    return new CompilerError(30, () -> "Argument #" + argNr + " not applicable to procedure '" + procedure + "'", context, token, true);
   }
 
   /** Too few arguments for procedure. */
-  public static CompilerError TooFewArgs(String procedure, ParserRuleContext context, Token token) {
-    return new CompilerError(32, "Too few arguments for procedure '" + procedure + "'", context, token, true);
+  public static CompilerError TooFewArgs(String procedure, Node context, Span token) {
+    return new CompilerError(32, () -> "Too few arguments for procedure '" + procedure + "'", context, token, true);
   }
 
   /** Condition is not a boolean expression. */
-  public static CompilerError CondNotBool(ParserRuleContext context, Token token) {
-    return new CompilerError(33, "Condition is not a boolean expression", context, token, true);
+  public static CompilerError CondNotBool(Node context, Span token) {
+    return new CompilerError(33, () -> "Condition is not a boolean expression", context, token, true);
   }
 
   /** Missing return statement in function. */
-  public static CompilerError MissingReturn(String procedure, ParserRuleContext context, Token token) {
-    return new CompilerError(35, "Missing return statement in function '" + procedure + "'", context, token);
+  public static CompilerError MissingReturn(String procedure, Node context, Span token) {
+    return new CompilerError(35, () -> "Missing return statement in function '" + procedure + "'", context, token);
   }
 
   /** Returning none or invalid type from function. */
-  public static CompilerError InvalidReturnType(String procedure, ParserRuleContext context, Token token) {
-    return new CompilerError(36, "Returning none or invalid type from function '" + procedure + "'", context, token, true);
+  public static CompilerError InvalidReturnType(String procedure, Node context, Span token) {
+    return new CompilerError(36, () -> "Returning none or invalid type from function '" + procedure + "'", context, token, true);
   }
 
   /** Illegal return value in procedure (not a function). */
-  public static CompilerError IllegalRetValProc(String procedure, ParserRuleContext context, Token token) {
-    return new CompilerError(37, "Illegal return value in procedure '" + procedure + "' (not a function)", context, token, true);
+  public static CompilerError IllegalRetValProc(String procedure, Node context, Span token) {
+    return new CompilerError(37, () -> "Illegal return value in procedure '" + procedure + "' (not a function)", context, token, true);
   }
 
   /** Illegal return value in main program. */
-  public static CompilerError IllegalRetValMain(ParserRuleContext context, Token token) {
-    return new CompilerError(38, "Illegal return value in main program", context, token, true);
+  public static CompilerError IllegalRetValMain(Node context, Span token) {
+    return new CompilerError(38, () -> "Illegal return value in main program", context, token, true);
   }
 
   /** ConstExpression before '.' is not a record type. */
-  public static CompilerError SelectorNotRecord(ParserRuleContext context, Token token) {
-    return new CompilerError(39, "ConstExpression before ’.’ is not a record type ", context, token);
+  public static CompilerError SelectorNotRecord(Node context, Span token) {
+    return new CompilerError(39, () -> "ConstExpression before ’.’ is not a record type ", context, token);
   }
 
   /** invalid field of record */
-  public static CompilerError InvalidRecordField(String field, String record, ParserRuleContext context, Token token) {
-    return new CompilerError(40, "Invalid field '" + field + "' of record '" + record + "' ", context, token);
+  public static CompilerError InvalidRecordField(String field, String record, Node context, Span token) {
+    return new CompilerError(40, () -> "Invalid field '" + field + "' of record '" + record + "' ", context, token);
   }
 
   /** invalid type used with 'new' operator */
-  public static CompilerError InvalidNewType(ParserRuleContext context, Token token) {
-    return new CompilerError(41, "Invalid type used with ’new’", context, token, true);
+  public static CompilerError InvalidNewType(Node context, Span token) {
+    return new CompilerError(41, () -> "Invalid type used with ’new’", context, token, true);
+  }
+
+  /** division or modulo by a constant zero, which is left to throw at runtime */
+  public static CompilerError DivisionByZero(String op, Node context, Span token) {
+    return new CompilerError(42, () -> "Operator '" + op + "' divides by the constant zero", context, token, true, true);
+  }
+
+  /** int literal larger than 2147483647, 2147483648 is only allowed as the operand of a unary minus */
+  public static CompilerError IntLiteralTooLarge(String literal, Node context, Span token) {
+    return new CompilerError(43, () -> "Integer literal '" + literal + "' is too large for type int", context, token);
   }
   
 }
@@ -4,22 +4,44 @@ public class Constant extends Variable {
 
   public static String SYMBOL_TYPE = "constant";
 
-  public String value;
+  /**
+   * The value of an {@code int} or {@code bool} constant, {@code bool} values are stored like on the JVM: 1 for {@code True} and 0 for {@code False}.
+   */
+  public final int value;
 
-  protected Constant(String name, String dataType, String value) {
-    this(name, dataType, value, false);
-  }
+  /**
+   * The value of a {@code string} constant, {@code null} for all other types.
+   */
+  public final String stringValue;
 
-  public Constant(String name, String dataType, String value, boolean isLocal) {
+  protected Constant(String name, Type dataType, int value, String stringValue) {
     super(name, dataType);
-    this.isLocal = isLocal;
     this.value = value;
+    this.stringValue = stringValue;
     this.symbolType = Constant.SYMBOL_TYPE;
   }
 
+  public Constant(String name, Type dataType, int value, boolean isLocal) {
+    this(name, dataType, value, null);
+    this.isLocal = isLocal;
+  }
+
+  public boolean isTrue() {
+    return value != 0;
+  }
+
+  /**
+   * The value as it is written in YAPL, e.g. {@code True} for a {@code bool} constant.
+   */
+  public String getValueText() {
+    if (dataType == Type.STRING) return stringValue;
+    if (dataType == Type.BOOL) return isTrue() ? YaplConstants.TRUE : YaplConstants.FALSE;
+    return Integer.toString(value);
+  }
+
   @Override
   public String toString() {
-    return symbolType.toUpperCase() + " " + dataType + " " + name + " = " + value;
+    return symbolType.toUpperCase() + " " + dataType + " " + name + " = " + getValueText();
   }
 
 }
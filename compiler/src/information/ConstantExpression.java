@@ -1,30 +1,39 @@
 package information;
 
-import org.antlr.v4.runtime.ParserRuleContext;
+import ast.Node;
 
 /**
- * Used for constant folding
+ * Used for constant folding, the folded values are stored by their expression node (see {@code SymbolTable.getConstant(Node)}).
  */
 public class ConstantExpression extends Constant {
 
   public static String SYMBOL_TYPE = "constant expression";
-  public ParserRuleContext context;
+  public Node context;
 
-  public ConstantExpression(ParserRuleContext context, String dataType, String value) {
-    super(nameOf(context), dataType, value);
+  public ConstantExpression(Node context, Type dataType, int value) {
+    super(YaplConstants.UNDEFINED, dataType, value, null);
     this.context = context;
     this.symbolType = ConstantExpression.SYMBOL_TYPE;
   }
 
-  public static String nameOf(ParserRuleContext context) {
-    return (context == null) ? YaplConstants.UNDEFINED : String.format("<%d>", context.hashCode());
+  public ConstantExpression(Node context, boolean value) {
+    this(context, Type.BOOL, value ? 1 : 0);
+  }
+
+  /**
+   * A {@code string} constant, which is only used for output.
+   */
+  public ConstantExpression(Node context, String value) {
+    super(YaplConstants.UNDEFINED, Type.STRING, 0, value);
+    this.context = context;
+    this.symbolType = ConstantExpression.SYMBOL_TYPE;
   }
 
   @Override
   public String toString() {
-    String text = (context == null) ? YaplConstants.UNDEFINED : CompilerContext.getText(context);
+    String text = (context == null) ? YaplConstants.UNDEFINED : context.getSourceText();
     String pos = (context == null) ? "" : " // line: " + CompilerContext.getLine(context) + ", column: " + CompilerContext.getColumn(context);
-    return symbolType.toUpperCase() + " " + dataType + " " + text + " = " + value + pos;
+    return symbolType.toUpperCase() + " " + dataType + " " + text + " = " + getValueText() + pos;
   }
 
 }
@@ -1,18 +1,19 @@
 package information;
 
-import org.antlr.v4.runtime.ParserRuleContext;
+import ast.Node;
 
+/**
+ * The type information of an expression, expressions are identified by their node so they have no name.
+ */
 public class Expression extends Variable {
 
   public static String SYMBOL_TYPE = "expression";
+  public Node context;
 
-  public Expression(ParserRuleContext context, String dataType) {
-    super(nameOf(context), dataType);
+  public Expression(Node context, Type dataType) {
+    super(YaplConstants.UNDEFINED, dataType);
+    this.context = context;
     this.symbolType = Expression.SYMBOL_TYPE;
   }
 
-  public static String nameOf(ParserRuleContext context) {
-    return (context == null) ? YaplConstants.UNDEFINED : String.format("<%d>", context.hashCode());
-  }
-
 }
@@ -4,7 +4,7 @@ public class Parameter extends Variable {
 
   public static String SYMBOL_TYPE = "parameter";
 
-  public Parameter(String name, String dataType) {
+  public Parameter(String name, Type dataType) {
     super(name, dataType, true);
     this.symbolType = Parameter.SYMBOL_TYPE;
   }
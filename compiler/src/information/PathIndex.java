@@ -0,0 +1,85 @@
+package information;
+
+import org.antlr.v4.runtime.ParserRuleContext;
+import org.antlr.v4.runtime.tree.ParseTree;
+import parser.YaplParser;
+import parser.YaplParser.*;
+
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.Map;
+
+/**
+ * Caches the paths of parse-tree contexts, which are only needed for syntax errors (see {@code CompilerContext.getPath(ParserRuleContext)}).
+ * <br><br>
+ * The paths of parents are reused and the ordinals of all siblings are indexed at once,
+ * so reporting many errors in a long statement-list does not walk and scan the parse-tree again for each error.
+ * The index must only be used after parsing, since syntax errors are reported while the parse-tree is incomplete.
+ */
+public class PathIndex {
+
+  protected final Map<ParserRuleContext, String> paths = new IdentityHashMap<>();
+  protected final Map<ParseTree, Integer> ordinals = new IdentityHashMap<>();
+
+
+
+  public String getPath(ParserRuleContext context) {
+    String path = paths.get(context);
+
+    if (path == null) {
+      path = computePath(context);
+      paths.put(context, path);
+    }
+
+    return path;
+  }
+
+  protected String computePath(ParserRuleContext context) {
+    // root
+    if (context instanceof ProgramContext) {
+      return ((ProgramContext)context).Id(0).getText();
+    }
+
+    // ignore
+    if (context instanceof StatementListContext || context instanceof StatementContext ) {
+      return getPath(context.getParent());
+    }
+
+
+    String path = getPath(context.getParent());
+    // limit path depth to expression
+    if (path.endsWith("expression")) return path;
+
+    path += " > ";
+    // use identifier instead of rule name if available
+    if (context instanceof ProcedureContext)                path += ((ProcedureContext)context).Id(0).getText();
+    else if (context instanceof ProcedureCallContext)       path += ((ProcedureCallContext)context).Id().getText();
+    else if (context instanceof RecordDeclarationContext)   path += ((RecordDeclarationContext)context).Id().getText();
+    else {
+      // hide count when its the first or only of its type
+      int count = getOrdinal(context);
+      if (count > 1) path += count + ". ";
+      path += YaplParser.ruleNames[context.getRuleIndex()];
+    }
+
+    return path;
+  }
+
+  /**
+   * The 1-based position of the context among its preceding siblings of the same type.
+   */
+  protected int getOrdinal(ParserRuleContext context) {
+    if (!ordinals.containsKey(context)) {
+      final ParserRuleContext parent = context.getParent();
+      final Map<Class<?>, Integer> counts = new HashMap<>();
+
+      for (int i = 0; i < parent.getChildCount(); i++) {
+        final ParseTree sibling = parent.getChild(i);
+        ordinals.put(sibling, counts.merge(sibling.getClass(), 1, Integer::sum));
+      }
+    }
+
+    return ordinals.get(context);
+  }
+
+}
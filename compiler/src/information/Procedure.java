@@ -8,20 +8,20 @@ public class Procedure extends Symbol {
   public static String SYMBOL_TYPE = "procedure";
 
   public List<Parameter> params;
-  public String returnType;
+  public Type returnType;
   public boolean isStdLib;
   public boolean isPure;
   public int uses;
 
-  public Procedure(String name, String returnType) {
+  public Procedure(String name, Type returnType) {
     this(name, returnType, new ArrayList<>());
   }
 
-  public Procedure(String name, String returnType, List<Parameter> params) {
+  public Procedure(String name, Type returnType, List<Parameter> params) {
     this(name, returnType, params, false, false);
   }
 
-  public Procedure(String name, String returnType, List<Parameter> params, boolean isStdLib, boolean isPure) {
+  public Procedure(String name, Type returnType, List<Parameter> params, boolean isStdLib, boolean isPure) {
     super(name, Procedure.SYMBOL_TYPE);
     this.returnType = returnType;
     this.params = params;
@@ -7,14 +7,23 @@ public class Record extends Symbol {
   public static String SYMBOL_TYPE = "record";
 
   public LinkedHashMap<String, Variable> fields;
+  public final Type.RecordType type;
 
-  public Record(String name) {
-    this(name, new LinkedHashMap<>());
+  /**
+   * @param programName ... the name of the program, since records are compiled to inner classes of the program class
+   */
+  public Record(String name, String programName) {
+    this(name, programName, new LinkedHashMap<>());
   }
 
-  public Record(String name, LinkedHashMap<String, Variable> fields) {
+  public Record(String name, String programName, LinkedHashMap<String, Variable> fields) {
     super(name, Record.SYMBOL_TYPE);
     this.fields = fields;
+    this.type = new Type.RecordType(this, capitalise(programName) + "$" + capitalise(name));
+  }
+
+  protected static String capitalise(String str) {
+    return str.substring(0, 1).toUpperCase() + str.substring(1);
   }
 
 }
@@ -0,0 +1,39 @@
+package information;
+
+import ast.ExpressionNode;
+
+/**
+ * An expression with a single constant operand which was simplified by algebraic identities during the analysis,
+ * e.g. {@code x + 0} to {@code x} or {@code (x + 1) - 3} to {@code x - 2}.
+ * The simplifications are stored by their expression node (see {@code SymbolTable.getSimplification(Node)}),
+ * the code generator then generates {@code operand op constant} instead of the expression.
+ */
+public class Simplification {
+
+  /**
+   * The only operand which is still generated.
+   */
+  public final ExpressionNode operand;
+
+  /**
+   * The operator applied to the operand and the constant, {@code null} if the expression is just the operand.
+   */
+  public final String op;
+  public final Constant constant;
+
+  public Simplification(ExpressionNode operand, String op, Constant constant) {
+    this.operand = operand;
+    this.op = op;
+    this.constant = constant;
+  }
+
+  public Simplification(ExpressionNode operand) {
+    this(operand, null, null);
+  }
+
+  @Override
+  public String toString() {
+    return (op == null) ? operand.getText() : operand.getText() + " " + op + " " + constant.getValueText();
+  }
+
+}
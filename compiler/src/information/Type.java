@@ -0,0 +1,151 @@
+package information;
+
+import jvm_class_generator.specs.helpers.Descriptor;
+
+/**
+ * The data type of a variable, constant or expression, or the return type of a procedure.
+ * <br><br>
+ * Types are interned, so two types are the same type only if they are the same object and type checks are reference comparisons.
+ * The basic types are constants, the array type of a type is created once by {@code arrayOf()}
+ * and the type of a record is created by its {@code Record} symbol.
+ * Each type carries its JVM descriptor, so the code generator never has to compute it.
+ */
+public abstract class Type {
+
+  public static final Type INT = new BasicType(YaplConstants.INT, Descriptor.INT, true);
+  public static final Type BOOL = new BasicType(YaplConstants.BOOL, Descriptor.BOOLEAN, true);
+  public static final Type VOID = new BasicType(YaplConstants.VOID, Descriptor.VOID, false);
+  public static final Type STRING = new BasicType(YaplConstants.STRING, Descriptor.STRING, false);
+
+  /**
+   * The type of erroneous declarations, it never reaches the code generator so it has no descriptor.
+   */
+  public static final Type UNDEFINED = new BasicType(YaplConstants.UNDEFINED, null, false);
+
+  /**
+   * The name of the type in YAPL, e.g. {@code int[][]}.
+   */
+  public final String name;
+  public final String descriptor;
+
+  /**
+   * Volatile, because the basic types (and their array types) are shared by parallel compilations.
+   */
+  protected volatile ArrayType arrayType = null;
+
+  protected Type(String name, String descriptor) {
+    this.name = name;
+    this.descriptor = descriptor;
+  }
+
+
+
+  /**
+   * The interned array type with this type as its element type.
+   * It is created only once even if several threads ask for it at the same time, otherwise the reference comparisons would fail.
+   */
+  public ArrayType arrayOf() {
+    ArrayType type = arrayType;
+    if (type != null) return type;
+
+    synchronized (this) {
+      if (arrayType == null) arrayType = new ArrayType(this);
+      return arrayType;
+    }
+  }
+
+  public Type arrayOf(int dimensions) {
+    Type type = this;
+    for (int i = 0; i < dimensions; i++) type = type.arrayOf();
+    return type;
+  }
+
+  /**
+   * Whether values of the type are stored as JVM ints, i.e. {@code int} or {@code bool}.
+   */
+  public boolean isPrimitive() {
+    return false;
+  }
+
+  public boolean isArray() {
+    return false;
+  }
+
+  public boolean isRecord() {
+    return false;
+  }
+
+  @Override
+  public String toString() {
+    return name;
+  }
+
+
+
+  public static final class BasicType extends Type {
+
+    protected final boolean isPrimitive;
+
+    protected BasicType(String name, String descriptor, boolean isPrimitive) {
+      super(name, descriptor);
+      this.isPrimitive = isPrimitive;
+    }
+
+    @Override
+    public boolean isPrimitive() {
+      return isPrimitive;
+    }
+  }
+
+  public static final class ArrayType extends Type {
+
+    public final Type elementType;
+
+    /**
+     * The type of the elements of the innermost array, e.g. {@code int} for {@code int[][]}.
+     */
+    public final Type baseType;
+    public final int dimensions;
+
+    protected ArrayType(Type elementType) {
+      super(elementType.name + "[]", Descriptor.ARRAY(elementType.descriptor));
+      this.elementType = elementType;
+
+      if (elementType.isArray()) {
+        this.baseType = ((ArrayType)elementType).baseType;
+        this.dimensions = ((ArrayType)elementType).dimensions + 1;
+      }
+      else {
+        this.baseType = elementType;
+        this.dimensions = 1;
+      }
+    }
+
+    @Override
+    public boolean isArray() {
+      return true;
+    }
+  }
+
+  public static final class RecordType extends Type {
+
+    public final Record record;
+
+    /**
+     * The name of the JVM class of the record, which is an inner class of the program: {@code <Program>$<Record>}.
+     */
+    public final String className;
+
+    protected RecordType(Record record, String className) {
+      super(record.name, Descriptor.REFERENCE(className));
+      this.record = record;
+      this.className = className;
+    }
+
+    @Override
+    public boolean isRecord() {
+      return true;
+    }
+  }
+
+}
@@ -1,24 +1,22 @@
 package information;
 
-import analyser.SymbolTable;
-
 public class Variable extends Symbol {
 
   public static String SYMBOL_TYPE = "variable";
 
-  public String dataType;
+  public Type dataType;
   public boolean isLocal;
   public Variable parent;
 
-  protected Variable(String name, String dataType) {
+  protected Variable(String name, Type dataType) {
     this(name, dataType, false, null);
   }
 
-  public Variable(String name, String dataType, boolean isLocal) {
+  public Variable(String name, Type dataType, boolean isLocal) {
     this(name, dataType, isLocal, null);
   }
 
-  protected Variable(String name, String dataType, boolean isLocal, Variable parent) {
+  protected Variable(String name, Type dataType, boolean isLocal, Variable parent) {
     super(name, Variable.SYMBOL_TYPE);
     this.dataType = dataType;
     this.isLocal = isLocal;
@@ -27,23 +25,23 @@ public class Variable extends Symbol {
 
   public Variable selectElement() {
     if (!isArray()) return null;
-    else return new Variable(name + "[]", dataType.substring(0, dataType.length() - "[]".length()), isLocal);
+    else return new Variable(name + "[]", ((Type.ArrayType)dataType).elementType, isLocal);
   }
 
-  public Variable selectField(SymbolTable symbolTable, String field) {
-    if (!symbolTable.get(dataType).is(Record.class)) return null;
-    Record record = (Record)symbolTable.get(dataType);
+  public Variable selectField(String field) {
+    if (!dataType.isRecord()) return null;
+    Record record = ((Type.RecordType)dataType).record;
 
     if (!record.fields.containsKey(field)) return null;
     return new Variable(name + "." + field, record.fields.get(field).dataType, isLocal, this);
   }
 
   public boolean isPrimitive() {
-    return (dataType.equals(YaplConstants.INT) || dataType.equals(YaplConstants.BOOL));
+    return dataType.isPrimitive();
   }
 
   public boolean isArray() {
-    return dataType.endsWith("[]");
+    return dataType.isArray();
   }
 
   @Override
@@ -2,7 +2,7 @@ package jvm_class_generator.impl;
 
 import java.util.HashSet;
 
-import jvm_class_generator.impl.helpers.DynamicByteBuffer;
+import jvm_class_generator.impl.helpers.ByteWriter;
 import jvm_class_generator.specs.BytecodeStructure;
 import jvm_class_generator.specs.attributes.Attribute;
 import jvm_class_generator.specs.class_content.Field;
@@ -71,55 +71,67 @@ public class JvmClass extends jvm_class_generator.specs.JvmClass {
     return attributes.get(name);
   }
 
+  /**
+   * Generates the whole class-file into a single array of the exact size.
+   */
   public byte[] generate() {
-    short thisClass = (short)constantPool.addClass(this.className);
-    short superClass = (short)constantPool.addClass(this.superName);
-    byte[] interfaces = generateInterfaces();
-    byte[] fields = generateCollection( this.fields.values() );
-    byte[] methods = generateCollection( this.methods.values() );
-    byte[] attributes = generateCollection( this.attributes.values() );
+    ByteWriter body = generateBody();
+
+    // 4B magic + 2B minor + 2B major + 2B pool count + pool + body
+    ByteWriter bytecode = new ByteWriter(10 + constantPool.length() + body.size());
+    generateHeader(bytecode);
+    bytecode.write(body);
+
+    // the array is only handed out directly if the precomputed size was right, otherwise it would have grown or have trailing bytes
+    return (bytecode.size() == bytecode.array().length) ? bytecode.array() : bytecode.toByteArray();
+  }
+
+  public void generate(ByteWriter bytecode) {
+    ByteWriter body = generateBody();
+    generateHeader(bytecode);
+    bytecode.write(body);
+  }
 
-    DynamicByteBuffer bytecode = new DynamicByteBuffer();
+  protected void generateHeader(ByteWriter bytecode) {
     bytecode.writeInt(MAGIC_NUMBER);
     bytecode.writeShort(minorVersion);
     bytecode.writeShort(majorVersion);
 
     // the constant_pool_count item is equal to the number of entries in the constant_pool table plus one
     bytecode.writeShort( constantPool.size() + 1 );
-    bytecode.write( constantPool.generate() );
+    constantPool.generate(bytecode);
+  }
 
+  /**
+   * Generates everything behind the {@code ConstantPool}, 
+   * which has to be done first, because the generated structures add their entries to the {@code ConstantPool}.
+   */
+  protected ByteWriter generateBody() {
+    short thisClass = (short)constantPool.addClass(this.className);
+    short superClass = (short)constantPool.addClass(this.superName);
+
+    ByteWriter bytecode = new ByteWriter(1024);
     bytecode.writeShort(accessFlags);
     bytecode.writeShort(thisClass);
     bytecode.writeShort(superClass);
 
-    bytecode.write(interfaces);
-    bytecode.write(fields);
-    bytecode.write(methods);
-    bytecode.write(attributes);
-
-    return bytecode.toByteArray();
-  }
-
-  protected byte[] generateInterfaces() {
-    DynamicByteBuffer bytecode = new DynamicByteBuffer();
-    
     bytecode.writeShort( interfaces.size() );
     for (String interfaze : interfaces) {
       bytecode.writeShort( constantPool.addClass(interfaze) );
     }
 
-    return bytecode.toByteArray();
+    generateCollection(bytecode, this.fields.values());
+    generateCollection(bytecode, this.methods.values());
+    generateCollection(bytecode, this.attributes.values());
+
+    return bytecode;
   }
 
-  protected byte[] generateCollection(Collection<? extends BytecodeStructure> coll) {
-    DynamicByteBuffer bytecode = new DynamicByteBuffer();
-    
+  protected void generateCollection(ByteWriter bytecode, Collection<? extends BytecodeStructure> coll) {
     bytecode.writeShort( coll.size() );
     for (BytecodeStructure structure : coll) {
-      bytecode.write( structure.generate() );
+      structure.generate(bytecode);
     }
-    
-    return bytecode.toByteArray();
   }
 
 }
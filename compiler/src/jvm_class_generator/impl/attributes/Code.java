@@ -1,15 +1,15 @@
 package jvm_class_generator.impl.attributes;
 
-import java.util.Collection;
+import java.util.EmptyStackException;
 import java.util.HashMap;
 import java.util.LinkedHashMap;
 import java.util.Stack;
 import java.util.stream.Stream;
 
-import jvm_class_generator.impl.helpers.DynamicByteBuffer;
+import jvm_class_generator.impl.helpers.ByteWriter;
 import jvm_class_generator.specs.helpers.Descriptor;
+import jvm_class_generator.specs.helpers.ParsedDescriptor;
 import jvm_class_generator.specs.data_areas.Frame;
-import jvm_class_generator.specs.BytecodeStructure;
 import jvm_class_generator.specs.InfoStructure;
 import jvm_class_generator.specs.attributes.Attribute;
 import jvm_class_generator.specs.attributes.StackMapTable;
@@ -25,7 +25,7 @@ public class Code extends jvm_class_generator.specs.attributes.Code {
   private final static short BRANCH_PLACEHOLDER = (short)0xdead;
 
   private final static int WIDE_OPCODE = 0xc4;
-  private final DynamicByteBuffer code;
+  private final ByteWriter code;
   private int maxStackSize;
   private int maxLocalsIdx;
 
@@ -43,43 +43,36 @@ public class Code extends jvm_class_generator.specs.attributes.Code {
     this.jumps = new LinkedHashMap<>();
 
     
-    this.code = new DynamicByteBuffer();
+    this.code = new ByteWriter();
 
     this.attributes = new HashMap<>();
   }
 
 
-  public byte[] generate() {
+  public void generate(ByteWriter bytecode) {
     short nameId = (short)parent.constantPool().addUtf8(name);
-    byte[] attributes = generateCollection( this.attributes.values() );
 
-    DynamicByteBuffer bytecode = new DynamicByteBuffer();
     bytecode.writeShort(nameId);
-    // code + 2B stack size + 2B local size + 4B code size 
-    // + 2B exception table size + attributes (inlc. 2B attribute size)
-    bytecode.writeInt(code.size() + 10 + attributes.length);
+    int lengthPosition = bytecode.reserveInt();
     bytecode.writeShort(maxStackSize);
     bytecode.writeShort(maxLocalsIdx + 1);
     bytecode.writeInt(code.size());
-    bytecode.write( backpatch( code.toByteArray() ) );
+    backpatch();
+    bytecode.write(code);
     bytecode.writeShort(0); // exception table size
-    bytecode.write( attributes );
 
-    return bytecode.toByteArray();
-  }
-
-  protected byte[] generateCollection(Collection<? extends BytecodeStructure> coll) {
-    DynamicByteBuffer bytecode = new DynamicByteBuffer();
-    
-    bytecode.writeShort( coll.size() );
-    for (BytecodeStructure structure : coll) {
-      bytecode.write( structure.generate() );
+    bytecode.writeShort( attributes.size() );
+    for (Attribute attribute : attributes.values()) {
+      attribute.generate(bytecode);
     }
-    
-    return bytecode.toByteArray();
+
+    bytecode.patchLength(lengthPosition);
   }
 
-  public byte[] backpatch(byte[] bytecode) {
+  /**
+   * Patches the offsets of all jumps into the code, now that all labels are known.
+   */
+  public void backpatch() {
     for (int jump : jumps.keySet()) {
       String label = jumps.get(jump);
 
@@ -87,11 +80,18 @@ public class Code extends jvm_class_generator.specs.attributes.Code {
         throw new IllegalStateException("Unresolved label: '" + label + "'");
 
       int address = labels.get(label) - jump;
-      bytecode[jump + 1] = (byte)(address >> 8 & 0xff);
-      bytecode[jump + 2] = (byte)(address & 0xff);
+      code.patchShort(jump + 1, address);
     }
+  }
+
+  /**
+   * Pops the given number of operands at once, e.g. the arguments of an invoke.
+   */
+  protected void pop(int count) {
+    if (count > currFrame.stack.size())
+      throw new EmptyStackException();
 
-    return bytecode;
+    currFrame.stack.setSize(currFrame.stack.size() - count);
   }
 
   public jvm_class_generator.specs.attributes.Code addLabel(String label) {
@@ -219,7 +219,7 @@ public class Code extends jvm_class_generator.specs.attributes.Code {
     code.writeByte(opcode);
     code.writeByte(id);
 
-    currFrame.stack.push( parent.constantPool().findDescriptorByIndex(id) );
+    currFrame.stack.push( parent.constantPool().findParsedDescriptorByIndex(id).pushedType );
     if (currFrame.stack.size() > maxStackSize) maxStackSize = currFrame.stack.size();
     return this;
   }
@@ -229,7 +229,7 @@ public class Code extends jvm_class_generator.specs.attributes.Code {
     code.writeByte(opcode);
     code.writeShort(id);
 
-    currFrame.stack.push( parent.constantPool().findDescriptorByIndex(id) );
+    currFrame.stack.push( parent.constantPool().findParsedDescriptorByIndex(id).pushedType );
     if (currFrame.stack.size() > maxStackSize) maxStackSize = currFrame.stack.size();
     return this;
   }
@@ -815,7 +815,7 @@ public class Code extends jvm_class_generator.specs.attributes.Code {
     code.writeByte(opcode);
     code.writeShort(id);
 
-    currFrame.stack.push( parent.constantPool().findDescriptorByIndex(id) );
+    currFrame.stack.push( parent.constantPool().findParsedDescriptorByIndex(id).pushedType );
     if (currFrame.stack.size() > maxStackSize) maxStackSize = currFrame.stack.size();
     return this;
   }
@@ -835,7 +835,7 @@ public class Code extends jvm_class_generator.specs.attributes.Code {
     code.writeShort(id);
 
     currFrame.stack.pop();
-    currFrame.stack.push( parent.constantPool().findDescriptorByIndex(id) );
+    currFrame.stack.push( parent.constantPool().findParsedDescriptorByIndex(id).pushedType );
     return this;
   }
 
@@ -854,17 +854,12 @@ public class Code extends jvm_class_generator.specs.attributes.Code {
     code.writeByte(opcode);
     code.writeShort(id);
     
-    String methodDescriptor = parent.constantPool().findDescriptorByIndex(id);
+    ParsedDescriptor methodDescriptor = parent.constantPool().findParsedDescriptorByIndex(id);
+    // params + objectref
+    pop(methodDescriptor.paramTypes.length + 1);
 
-    for (int counter = 0; counter < Descriptor.METHOD_PARAM_DESCRIPTORS(methodDescriptor).size(); counter++)
-      currFrame.stack.pop();
-
-    // objectref
-    currFrame.stack.pop();
-
-    String returnDescriptor = Descriptor.METHOD_RETURN_DESCRIPTOR(methodDescriptor);
-    if (!returnDescriptor.equals(Descriptor.VOID))
-      currFrame.stack.push(returnDescriptor);
+    if (methodDescriptor.pushedType != null)
+      currFrame.stack.push(methodDescriptor.pushedType);
 
     if (currFrame.stack.size() > maxStackSize) maxStackSize = currFrame.stack.size();
     return this;
@@ -875,17 +870,12 @@ public class Code extends jvm_class_generator.specs.attributes.Code {
     code.writeByte(opcode);
     code.writeShort(id);
     
-    String methodDescriptor = parent.constantPool().findDescriptorByIndex(id);
-
-    for (int counter = 0; counter < Descriptor.METHOD_PARAM_DESCRIPTORS(methodDescriptor).size(); counter++)
-      currFrame.stack.pop();
-
-    // objectref
-    currFrame.stack.pop();
+    ParsedDescriptor methodDescriptor = parent.constantPool().findParsedDescriptorByIndex(id);
+    // params + objectref
+    pop(methodDescriptor.paramTypes.length + 1);
 
-    String returnDescriptor = Descriptor.METHOD_RETURN_DESCRIPTOR(methodDescriptor);
-    if (!returnDescriptor.equals(Descriptor.VOID))
-      currFrame.stack.push(returnDescriptor);
+    if (methodDescriptor.pushedType != null)
+      currFrame.stack.push(methodDescriptor.pushedType);
 
     if (currFrame.stack.size() > maxStackSize) maxStackSize = currFrame.stack.size();
     return this;
@@ -896,14 +886,12 @@ public class Code extends jvm_class_generator.specs.attributes.Code {
     code.writeByte(opcode);
     code.writeShort(id);
 
-    String methodDescriptor = parent.constantPool().findDescriptorByIndex(id);
+    ParsedDescriptor methodDescriptor = parent.constantPool().findParsedDescriptorByIndex(id);
+    pop(methodDescriptor.paramTypes.length);
 
-    for (int counter = 0; counter < Descriptor.METHOD_PARAM_DESCRIPTORS(methodDescriptor).size(); counter++)
-      currFrame.stack.pop();
+    if (methodDescriptor.pushedType != null)
+      currFrame.stack.push(methodDescriptor.pushedType);
 
-    String returnDescriptor = Descriptor.METHOD_RETURN_DESCRIPTOR(methodDescriptor);
-    if (!returnDescriptor.equals(Descriptor.VOID))
-      currFrame.stack.push(returnDescriptor);
     if (currFrame.stack.size() > maxStackSize) maxStackSize = currFrame.stack.size();
     return this;
   }
@@ -913,7 +901,7 @@ public class Code extends jvm_class_generator.specs.attributes.Code {
     code.writeByte(opcode);
     code.writeShort(id);
 
-    currFrame.stack.push( parent.constantPool().findDescriptorByIndex(id) );
+    currFrame.stack.push( parent.constantPool().findParsedDescriptorByIndex(id).pushedType );
     if (currFrame.stack.size() > maxStackSize) maxStackSize = currFrame.stack.size();
     return this;
   }
@@ -934,7 +922,7 @@ public class Code extends jvm_class_generator.specs.attributes.Code {
     code.writeShort(id);
 
     currFrame.stack.pop();
-    currFrame.stack.push( Descriptor.ARRAY( parent.constantPool().findDescriptorByIndex(id) ) );
+    currFrame.stack.push( Descriptor.ARRAY( parent.constantPool().findParsedDescriptorByIndex(id).pushedType ) );
     return this;
   }
 
@@ -944,10 +932,8 @@ public class Code extends jvm_class_generator.specs.attributes.Code {
     code.writeShort(id);
     code.writeByte(dims);
 
-    for (int i = 0; i < dims; i++)
-      currFrame.stack.pop();
-      
-    currFrame.stack.push( parent.constantPool().findDescriptorByIndex(id) );
+    pop(dims);
+    currFrame.stack.push( parent.constantPool().findParsedDescriptorByIndex(id).pushedType );
     return this;
   }
 
@@ -1,18 +1,18 @@
 package jvm_class_generator.impl.attributes;
 
-import jvm_class_generator.impl.helpers.DynamicByteBuffer;
+import jvm_class_generator.impl.helpers.ByteWriter;
 import jvm_class_generator.specs.InfoStructure;
 import jvm_class_generator.specs.JvmClass;
 
 public class InnerClasses extends jvm_class_generator.specs.attributes.InnerClasses {
 
-  private DynamicByteBuffer innerClasses;
+  private ByteWriter innerClasses;
   private int nrOfInnerClasses;
 
   public InnerClasses(InfoStructure parent) {
     super(parent);
 
-    this.innerClasses = new DynamicByteBuffer();
+    this.innerClasses = new ByteWriter();
     this.nrOfInnerClasses = 0;
   }
 
@@ -25,16 +25,13 @@ public class InnerClasses extends jvm_class_generator.specs.attributes.InnerClas
     return this;
   }
 
-  public byte[] generate() {
+  public void generate(ByteWriter bytecode) {
     short nameId = (short)parent.constantPool().addUtf8(name);
 
-    DynamicByteBuffer bytecode = new DynamicByteBuffer();
     bytecode.writeShort(nameId);
     bytecode.writeInt(2 + innerClasses.size());
     bytecode.writeShort(nrOfInnerClasses);
-    bytecode.write( innerClasses.toByteArray() );
-
-    return bytecode.toByteArray();
+    bytecode.write(innerClasses);
   }
 
 }
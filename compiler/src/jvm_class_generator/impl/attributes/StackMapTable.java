@@ -2,14 +2,14 @@ package jvm_class_generator.impl.attributes;
 
 import java.util.Stack;
 
-import jvm_class_generator.impl.helpers.DynamicByteBuffer;
+import jvm_class_generator.impl.helpers.ByteWriter;
 import jvm_class_generator.specs.InfoStructure;
+import jvm_class_generator.specs.class_content.Method;
 import jvm_class_generator.specs.data_areas.Frame;
 
 public class StackMapTable extends jvm_class_generator.specs.attributes.StackMapTable {
 
   private Stack<Frame> frames;
-  private int nrOfStackMapFrames = 0;
 
   public StackMapTable(InfoStructure parent) {
     super(parent);
@@ -19,23 +19,31 @@ public class StackMapTable extends jvm_class_generator.specs.attributes.StackMap
     this.frames = frames;
   }
  
-  public byte[] generate() {
+  public void generate(ByteWriter bytecode) {
     short nameId = (short)parent.constantPool().addUtf8(name);
-    byte[] stackMapTable = generateStackMapTable();
 
-    DynamicByteBuffer bytecode = new DynamicByteBuffer();
     bytecode.writeShort( nameId );
-    // stackMapTable + 2B number_of_entries
-    bytecode.writeInt( stackMapTable.length + 2 );
-    bytecode.writeShort(nrOfStackMapFrames);
-    bytecode.write(stackMapTable);
-    return bytecode.toByteArray();
+    int lengthPosition = bytecode.reserveInt();
+    int countPosition = bytecode.size();
+    bytecode.writeShort(0);
+    bytecode.patchShort( countPosition, generateStackMapTable(bytecode) );
+    bytecode.patchLength(lengthPosition);
   }
 
-  protected byte[] generateStackMapTable() {
-    DynamicByteBuffer stackMapTable = new DynamicByteBuffer();
+  /**
+   * Appends the frames to the given {@code bytecode}.
+   * 
+   * @return the number of written frames
+   */
+  protected int generateStackMapTable(ByteWriter bytecode) {
+    int nrOfStackMapFrames = 0;
     int currOffset = 0;
     int idx = 0;
+
+    // the first frame is relative to the implicit initial frame of the method,
+    // except in constructors, where 'this' is uninitialized in the initial frame
+    Method method = (Method)parent;
+    Frame previous = method.name().equals("<init>") ? null : new jvm_class_generator.impl.data_areas.Frame(method);
     
     for (Frame frame : frames) {
       if (frame.codeOffset == 0) {
@@ -55,14 +63,14 @@ public class StackMapTable extends jvm_class_generator.specs.attributes.StackMap
       nrOfStackMapFrames++;
       if (currOffset != 0) offsetDelta--;
 
-      // generate only full frames for simplicity
-      stackMapTable.write( frame.generateFullFrame(offsetDelta) );
+      frame.generateFrame(bytecode, offsetDelta, previous);
       
+      previous = frame;
       currOffset = frame.codeOffset;
       idx++;
     }
 
-    return stackMapTable.toByteArray();
+    return nrOfStackMapFrames;
   }
 
 }
@@ -1,10 +1,8 @@
 package jvm_class_generator.impl.class_content;
 
-import java.util.Collection;
 import java.util.HashMap;
 
-import jvm_class_generator.impl.helpers.DynamicByteBuffer;
-import jvm_class_generator.specs.BytecodeStructure;
+import jvm_class_generator.impl.helpers.ByteWriter;
 import jvm_class_generator.specs.JvmClass;
 import jvm_class_generator.specs.attributes.Attribute;
 
@@ -28,29 +26,18 @@ public class Field extends jvm_class_generator.specs.class_content.Field {
     return attributes.get(name);
   }
 
-  public byte[] generate() {
+  public void generate(ByteWriter bytecode) {
     short nameId = (short)clazz.constantPool().addUtf8(name);
     short descriptorId = (short)clazz.constantPool().addUtf8(descriptor);
-    byte[] attributes = generateCollection( this.attributes.values() );
 
-    DynamicByteBuffer bytecode = new DynamicByteBuffer();
     bytecode.writeShort(accessFlags);
     bytecode.writeShort(nameId);
     bytecode.writeShort(descriptorId);
-    bytecode.write(attributes);
 
-    return bytecode.toByteArray();
-  }
-  
-  protected byte[] generateCollection(Collection<? extends BytecodeStructure> coll) {
-    DynamicByteBuffer bytecode = new DynamicByteBuffer();
-    
-    bytecode.writeShort( coll.size() );
-    for (BytecodeStructure structure : coll) {
-      bytecode.write( structure.generate() );
+    bytecode.writeShort( attributes.size() );
+    for (Attribute attribute : attributes.values()) {
+      attribute.generate(bytecode);
     }
-    
-    return bytecode.toByteArray();
   }
 
 }
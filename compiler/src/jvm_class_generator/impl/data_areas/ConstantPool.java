@@ -1,33 +1,64 @@
 package jvm_class_generator.impl.data_areas;
 
+import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.Map;
+import java.util.function.Function;
 
-import jvm_class_generator.impl.helpers.DynamicByteBuffer;
+import jvm_class_generator.impl.helpers.ByteWriter;
 import jvm_class_generator.specs.helpers.Descriptor;
+import jvm_class_generator.specs.helpers.ParsedDescriptor;
 
 public class ConstantPool extends jvm_class_generator.specs.data_areas.ConstantPool {
   
-  private final Map<String, Integer> idLookup;
-  private final Map<Integer, String> valueLookup;
-  private final DynamicByteBuffer bytecode;
+  /**
+   * Creates the nested tables of the lookups on demand, the function is stateless and therefore allocated only once.
+   */
+  private static final Function<String, HashMap<String, Integer>> NEW_TABLE = key -> new HashMap<>();
+  private static final Function<String, HashMap<String, HashMap<String, Integer>>> NEW_TABLES = key -> new HashMap<>();
+  private static final Function<String, ParsedDescriptor> PARSE = ParsedDescriptor::new;
+
+  // one lookup per tag, entries of several strings are looked up in nested tables (one level per string),
+  // e.g. methodrefs.get(className).get(methodName).get(methodType),
+  // so looking up an existing entry just hashes the given strings, without building a key first
+  private final Map<String, Integer> utf8s;
+  private final Map<Integer, Integer> integers;
+  private final Map<String, Integer> classes;
+  private final Map<String, Integer> strings;
+  private final Map<String, HashMap<String, Integer>> nameAndTypes;
+  private final Map<String, HashMap<String, HashMap<String, Integer>>> fieldrefs;
+  private final Map<String, HashMap<String, HashMap<String, Integer>>> methodrefs;
+
+  /**
+   * The parsed descriptors of the entries by their index - 1, {@code null} for entries without a descriptor.
+   * Entries with the same descriptor share the parsed descriptor, e.g. a {@code Methodref} and its {@code NameAndType}.
+   */
+  private final ArrayList<ParsedDescriptor> descriptors;
+  private final Map<String, ParsedDescriptor> parsedDescriptors;
+  private final ByteWriter bytecode;
 
   
   public ConstantPool() {
-    this.idLookup = new HashMap<>();
-    this.valueLookup = new HashMap<>();
-    this.bytecode = new DynamicByteBuffer();
+    this.utf8s = new HashMap<>();
+    this.integers = new HashMap<>();
+    this.classes = new HashMap<>();
+    this.strings = new HashMap<>();
+    this.nameAndTypes = new HashMap<>();
+    this.fieldrefs = new HashMap<>();
+    this.methodrefs = new HashMap<>();
+    this.descriptors = new ArrayList<>();
+    this.parsedDescriptors = new HashMap<>();
+    this.bytecode = new ByteWriter();
   }
 
 
   public int addUtf8(String utf8) {
-    String entry = "<Utf8>" + utf8;
+    Integer existingId = utf8s.get(utf8);
+    if (existingId != null)
+      return existingId;
 
-    if (idLookup.containsKey(entry))
-      return idLookup.get(entry);
-
-    int id = getNextId();
-    addToLookups(entry, id);
+    int id = addEntry(null);
+    utf8s.put(utf8, id);
 
     bytecode.writeByte(Tags.UTF8);
     bytecode.writeUTF(utf8);
@@ -35,13 +66,12 @@ public class ConstantPool extends jvm_class_generator.specs.data_areas.ConstantP
   }
 
   public int addInteger(int value) {
-    String entry = "<Integer>" + value;
-
-    if (idLookup.containsKey(entry))
-      return idLookup.get(entry);
+    Integer existingId = integers.get(value);
+    if (existingId != null)
+      return existingId;
 
-    int id = getNextId();
-    addToLookups(entry, id);
+    int id = addEntry(Descriptor.INT);
+    integers.put(value, id);
 
     bytecode.writeByte(Tags.INTEGER);
     bytecode.writeInt(value);
@@ -49,14 +79,13 @@ public class ConstantPool extends jvm_class_generator.specs.data_areas.ConstantP
   }
 
   public int addClass(String className) {
-    String entry = "<Class>" + className;
-
-    if (idLookup.containsKey(entry))
-      return idLookup.get(entry);
+    Integer existingId = classes.get(className);
+    if (existingId != null)
+      return existingId;
 
     int nameId = addUtf8(className);
-    int id = getNextId();
-    addToLookups(entry, id);
+    int id = addEntry( (className.contains("[")) ? className : Descriptor.REFERENCE(className) );
+    classes.put(className, id);
 
     bytecode.writeByte(Tags.CLASS);
     bytecode.writeShort(nameId);
@@ -64,14 +93,13 @@ public class ConstantPool extends jvm_class_generator.specs.data_areas.ConstantP
   }
 
   public int addString(String value) {
-    String entry = "<String>" + value;
-
-    if (idLookup.containsKey(entry))
-      return idLookup.get(entry);
+    Integer existingId = strings.get(value);
+    if (existingId != null)
+      return existingId;
 
     int valueId = addUtf8(value);
-    int id = getNextId();
-    addToLookups(entry, id);
+    int id = addEntry(Descriptor.STRING);
+    strings.put(value, id);
 
     bytecode.writeByte(Tags.STRING);
     bytecode.writeShort(valueId);
@@ -79,15 +107,15 @@ public class ConstantPool extends jvm_class_generator.specs.data_areas.ConstantP
   }
 
   public int addNameAndType(String name, String type) {
-    String entry = "<NameAndType>" + name + ":" + type;
-
-    if (idLookup.containsKey(entry))
-      return idLookup.get(entry);
+    HashMap<String, Integer> types = nameAndTypes.computeIfAbsent(name, NEW_TABLE);
+    Integer existingId = types.get(type);
+    if (existingId != null)
+      return existingId;
 
     int nameId = addUtf8(name);
     int typeId = addUtf8(type);
-    int id = getNextId();
-    addToLookups(entry, id);
+    int id = addEntry(type);
+    types.put(type, id);
 
     bytecode.writeByte(Tags.NAME_AND_TYPE);
     bytecode.writeShort(nameId);
@@ -96,15 +124,15 @@ public class ConstantPool extends jvm_class_generator.specs.data_areas.ConstantP
   }
 
   public int addFieldref(String className, String fieldName, String fieldType) {
-    String entry = "<Fieldref>" + className + "." + fieldName + ":" + fieldType;
-    
-    if (idLookup.containsKey(entry))
-      return idLookup.get(entry);
+    HashMap<String, Integer> types = fieldrefs.computeIfAbsent(className, NEW_TABLES).computeIfAbsent(fieldName, NEW_TABLE);
+    Integer existingId = types.get(fieldType);
+    if (existingId != null)
+      return existingId;
 
     int classId = addClass(className);
     int nameAndTypeId = addNameAndType(fieldName, fieldType);
-    int id = getNextId();
-    addToLookups(entry, id);
+    int id = addEntry(fieldType);
+    types.put(fieldType, id);
 
     bytecode.writeByte(Tags.FIELDREF);
     bytecode.writeShort(classId);
@@ -113,15 +141,15 @@ public class ConstantPool extends jvm_class_generator.specs.data_areas.ConstantP
   }
 
   public int addMethodref(String className, String methodName, String methodType) {
-    String entry = "<Methodref>" + className + "." + methodName + ":" + methodType;
-    
-    if (idLookup.containsKey(entry))
-      return idLookup.get(entry);
+    HashMap<String, Integer> types = methodrefs.computeIfAbsent(className, NEW_TABLES).computeIfAbsent(methodName, NEW_TABLE);
+    Integer existingId = types.get(methodType);
+    if (existingId != null)
+      return existingId;
 
     int classId = addClass(className);
     int nameAndTypeId = addNameAndType(methodName, methodType);
-    int id = getNextId();
-    addToLookups(entry, id);
+    int id = addEntry(methodType);
+    types.put(methodType, id);
 
     bytecode.writeByte(Tags.METHODREF);
     bytecode.writeShort(classId);
@@ -131,46 +159,41 @@ public class ConstantPool extends jvm_class_generator.specs.data_areas.ConstantP
   
 
   public String findDescriptorByIndex(int index) {
-    String entry = valueLookup.get(index);
-
-    if (entry.startsWith("<String>")) {
-      return Descriptor.STRING;
-    }
-    else if (entry.startsWith("<Integer>")) {
-      return Descriptor.INT;
-    }
-    else if (entry.startsWith("<Class>")) {
-      return (entry.contains("[")) 
-        ? entry.replace("<Class>", "")
-        : Descriptor.REFERENCE( entry.replace("<Class>", "") );
-    }
-    else if (entry.startsWith("<NameAndType>") || entry.startsWith("<Fieldref>") || entry.startsWith("<Methodref>")) {
-      return entry.substring( entry.indexOf(":") + 1 );
-    }
-
-    throw new IllegalArgumentException("The given argument has no descriptor! Valid entry types are: String, Integer, Class, Fieldref, Methodref, and NameAndType!");
+    return findParsedDescriptorByIndex(index).descriptor;
   }
 
+  public ParsedDescriptor findParsedDescriptorByIndex(int index) {
+    ParsedDescriptor descriptor = (index > 0 && index <= descriptors.size()) ? descriptors.get(index - 1) : null;
 
-  public int size() {
-    return idLookup.size();
+    if (descriptor == null)
+      throw new IllegalArgumentException("The given argument has no descriptor! Valid entry types are: String, Integer, Class, Fieldref, Methodref, and NameAndType!");
+
+    return descriptor;
   }
 
-  public byte[] generate() {
-    return bytecode.toByteArray();
+
+  public int size() {
+    return descriptors.size();
   }
 
+  public int length() {
+    return bytecode.size();
+  }
 
-  protected void addToLookups(String entry, int id) {
-    idLookup.put(entry, id);
-    valueLookup.put(id, entry);
+  public void generate(ByteWriter bytecode) {
+    bytecode.write(this.bytecode);
   }
 
-  protected int getNextId() throws IllegalStateException {
-    if (idLookup.size() + 1 >= 0xffff)
+
+  /**
+   * Reserves the next index for an entry with the given descriptor.
+   */
+  protected int addEntry(String descriptor) throws IllegalStateException {
+    if (descriptors.size() + 1 >= 0xffff)
       throw new IllegalStateException("Constant Pool overflow, max Constant Pool size reached!");
 
-    return idLookup.size() + 1;
+    descriptors.add( (descriptor != null) ? parsedDescriptors.computeIfAbsent(descriptor, PARSE) : null );
+    return descriptors.size();
   }
 
 }
@@ -4,7 +4,7 @@ import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.Stack;
 
-import jvm_class_generator.impl.helpers.DynamicByteBuffer;
+import jvm_class_generator.impl.helpers.ByteWriter;
 import jvm_class_generator.specs.class_content.Method;
 import jvm_class_generator.specs.helpers.AccessFlags;
 import jvm_class_generator.specs.helpers.Descriptor;
@@ -38,45 +38,85 @@ public class Frame extends jvm_class_generator.specs.data_areas.Frame {
     }
   }
 
-  public byte[] generateFullFrame(int offsetDelta) {
-    DynamicByteBuffer bytecode = new DynamicByteBuffer();
-    bytecode.writeByte(Frame.FULL_FRAME);
-    bytecode.writeShort(offsetDelta);
+  public void generateFrame(ByteWriter bytecode, int offsetDelta, jvm_class_generator.specs.data_areas.Frame previous) {
+    if (previous == null) {
+      generateFullFrame(bytecode, offsetDelta);
+      return;
+    }
 
-    bytecode.writeShort(locals.size());
-    for (int idx = 0; idx < locals.size(); idx++) {
-      if (locals.get(idx).equals(Descriptor.INT)) {
-        bytecode.writeByte(VerificationTypeInfo.INTEGER);
+    int previousSize = previous.locals.size();
+    int size = locals.size();
+    int sameLocals = 0;
+    while (sameLocals < size && sameLocals < previousSize && locals.get(sameLocals).equals(previous.locals.get(sameLocals))) {
+      sameLocals++;
+    }
+
+    if (sameLocals == size && size == previousSize && stack.size() <= 1) {
+      if (stack.isEmpty()) {
+        if (offsetDelta <= MAX_COMPACT_OFFSET_DELTA) {
+          bytecode.writeByte(SAME_FRAME + offsetDelta);
+        }
+        else {
+          bytecode.writeByte(SAME_FRAME_EXTENDED);
+          bytecode.writeShort(offsetDelta);
+        }
       }
       else {
-        bytecode.writeByte(VerificationTypeInfo.OBJECT);
-        String type = locals.get(idx);
-        if (type.startsWith("L")) {
-          // substring -> remove L; from the descriptor, only the internal name is needed
-          type = type.substring( 1, type.length() - 1 );
+        if (offsetDelta <= MAX_COMPACT_OFFSET_DELTA) {
+          bytecode.writeByte(SAME_LOCALS_1_STACK_ITEM + offsetDelta);
+        }
+        else {
+          bytecode.writeByte(SAME_LOCALS_1_STACK_ITEM_EXTENDED);
+          bytecode.writeShort(offsetDelta);
         }
 
-        bytecode.writeShort( method.constantPool().addClass(type) );
+        generateVerificationType(bytecode, stack.get(0));
+      }
+    }
+    else if (stack.isEmpty() && sameLocals == previousSize && size - previousSize <= MAX_CHOPPED_OR_APPENDED_LOCALS) {
+      bytecode.writeByte(APPEND_FRAME + size - previousSize);
+      bytecode.writeShort(offsetDelta);
+
+      for (int idx = previousSize; idx < size; idx++) {
+        generateVerificationType(bytecode, locals.get(idx));
       }
     }
+    else if (stack.isEmpty() && sameLocals == size && previousSize - size <= MAX_CHOPPED_OR_APPENDED_LOCALS) {
+      bytecode.writeByte(CHOP_FRAME - (previousSize - size));
+      bytecode.writeShort(offsetDelta);
+    }
+    else {
+      generateFullFrame(bytecode, offsetDelta);
+    }
+  }
+
+  public void generateFullFrame(ByteWriter bytecode, int offsetDelta) {
+    bytecode.writeByte(Frame.FULL_FRAME);
+    bytecode.writeShort(offsetDelta);
+
+    bytecode.writeShort(locals.size());
+    for (int idx = 0; idx < locals.size(); idx++) {
+      generateVerificationType(bytecode, locals.get(idx));
+    }
 
     bytecode.writeShort(stack.size());
     for (int idx = 0; idx < stack.size(); idx++) {
-      if (stack.get(idx).equals(Descriptor.INT)) {
-        bytecode.writeByte(VerificationTypeInfo.INTEGER);
-      }
-      else {
-        bytecode.writeByte(VerificationTypeInfo.OBJECT);
-        String type = stack.get(idx);
-        if (type.startsWith("L")) {
-          // substring -> remove L; from the descriptor, only the internal name is needed
-          type = type.substring( 1, type.length() - 1 );
-        }
+      generateVerificationType(bytecode, stack.get(idx));
+    }
+  }
 
-        bytecode.writeShort( method.constantPool().addClass(type) );
-      }
+  protected void generateVerificationType(ByteWriter bytecode, String type) {
+    if (type.equals(Descriptor.INT)) {
+      bytecode.writeByte(VerificationTypeInfo.INTEGER);
     }
+    else {
+      bytecode.writeByte(VerificationTypeInfo.OBJECT);
+      if (type.startsWith("L")) {
+        // substring -> remove L; from the descriptor, only the internal name is needed
+        type = type.substring( 1, type.length() - 1 );
+      }
 
-    return bytecode.toByteArray();
+      bytecode.writeShort( method.constantPool().addClass(type) );
+    }
   }
 }
@@ -0,0 +1,197 @@
+package jvm_class_generator.impl.helpers;
+
+import java.util.Arrays;
+
+/**
+ * A growable byte array for writing class-files, all values are written big-endian like the class-file format requires.
+ * <br><br>
+ * Unlike the former {@code DynamicByteBuffer} (now the baseline of the {@code ByteWriterBenchmark}) there are no streams in between and no locking, each write puts the bytes directly into the array.
+ * Written values can be patched in place (e.g. jump offsets or length fields which are only known later)
+ * and the written bytes can be handed on without copying them first, see {@code array()} and {@code write(ByteWriter)}.
+ */
+public class ByteWriter {
+
+  protected static final int DEFAULT_CAPACITY = 64;
+
+  protected byte[] bytes;
+  protected int size;
+
+  public ByteWriter() {
+    this(DEFAULT_CAPACITY);
+  }
+
+  public ByteWriter(int capacity) {
+    this.bytes = new byte[Math.max(capacity, 1)];
+    this.size = 0;
+  }
+
+  /**
+   * Grows the array, so that at least {@code length} more bytes fit.
+   */
+  protected void ensureCapacity(int length) {
+    final int required = size + length;
+    if (required <= bytes.length) return;
+
+    bytes = Arrays.copyOf(bytes, Math.max(required, bytes.length << 1));
+  }
+
+
+
+  public ByteWriter writeByte(int value) {
+    ensureCapacity(1);
+    bytes[size++] = (byte)value;
+    return this;
+  }
+
+  public ByteWriter writeShort(int value) {
+    ensureCapacity(2);
+    bytes[size++] = (byte)(value >>> 8);
+    bytes[size++] = (byte)value;
+    return this;
+  }
+
+  public ByteWriter writeInt(int value) {
+    ensureCapacity(4);
+    bytes[size++] = (byte)(value >>> 24);
+    bytes[size++] = (byte)(value >>> 16);
+    bytes[size++] = (byte)(value >>> 8);
+    bytes[size++] = (byte)value;
+    return this;
+  }
+
+  public ByteWriter write(byte[] values) {
+    return write(values, 0, values.length);
+  }
+
+  public ByteWriter write(byte[] values, int offset, int length) {
+    ensureCapacity(length);
+    System.arraycopy(values, offset, bytes, size, length);
+    size += length;
+    return this;
+  }
+
+  /**
+   * Appends the written bytes of the other writer, they are copied directly from its array.
+   */
+  public ByteWriter write(ByteWriter other) {
+    return write(other.bytes, 0, other.size);
+  }
+
+  /**
+   * Writes the string in the modified UTF-8 encoding of the class-file format, prefixed by its length in bytes like {@code DataOutput.writeUTF}.
+   *
+   * @throws IllegalArgumentException if the encoded string is longer than 65535 bytes
+   */
+  public ByteWriter writeUTF(String value) {
+    final int length = value.length();
+    int encodedLength = 0;
+
+    for (int idx = 0; idx < length; idx++) {
+      final char c = value.charAt(idx);
+      encodedLength += (c >= 0x0001 && c <= 0x007f) ? 1 : (c <= 0x07ff) ? 2 : 3;
+    }
+
+    if (encodedLength > 0xffff)
+      throw new IllegalArgumentException("Encoded string too long: " + encodedLength + " bytes");
+
+    writeShort(encodedLength);
+    ensureCapacity(encodedLength);
+
+    for (int idx = 0; idx < length; idx++) {
+      final char c = value.charAt(idx);
+
+      if (c >= 0x0001 && c <= 0x007f) {
+        bytes[size++] = (byte)c;
+      }
+      else if (c <= 0x07ff) {
+        // also '\u0000', which is encoded with 2 bytes
+        bytes[size++] = (byte)(0xc0 | (c >> 6) & 0x1f);
+        bytes[size++] = (byte)(0x80 | c & 0x3f);
+      }
+      else {
+        bytes[size++] = (byte)(0xe0 | (c >> 12) & 0x0f);
+        bytes[size++] = (byte)(0x80 | (c >> 6) & 0x3f);
+        bytes[size++] = (byte)(0x80 | c & 0x3f);
+      }
+    }
+
+    return this;
+  }
+
+
+
+  /**
+   * Writes 4 zero bytes to be patched later, e.g. the length of a structure which is written directly afterwards.
+   *
+   * @return the position of the reserved bytes
+   */
+  public int reserveInt() {
+    final int position = size;
+    writeInt(0);
+    return position;
+  }
+
+  /**
+   * Patches the 4 bytes reserved at the position with the number of bytes written after them.
+   */
+  public ByteWriter patchLength(int position) {
+    return patchInt(position, size - position - 4);
+  }
+
+  /**
+   * Overwrites the 2 bytes at the position, which have to be written already.
+   */
+  public ByteWriter patchShort(int position, int value) {
+    checkPosition(position, 2);
+    bytes[position] = (byte)(value >>> 8);
+    bytes[position + 1] = (byte)value;
+    return this;
+  }
+
+  /**
+   * Overwrites the 4 bytes at the position, which have to be written already.
+   */
+  public ByteWriter patchInt(int position, int value) {
+    checkPosition(position, 4);
+    bytes[position] = (byte)(value >>> 24);
+    bytes[position + 1] = (byte)(value >>> 16);
+    bytes[position + 2] = (byte)(value >>> 8);
+    bytes[position + 3] = (byte)value;
+    return this;
+  }
+
+  protected void checkPosition(int position, int length) {
+    if (position < 0 || position + length > size)
+      throw new IndexOutOfBoundsException("Cannot patch " + length + " bytes at " + position + ", only " + size + " bytes are written");
+  }
+
+
+
+  /**
+   * The number of written bytes, which is also the position of the next write.
+   */
+  public int size() {
+    return size;
+  }
+
+  /**
+   * The backing array without copying it, only the first {@code size()} bytes are written.
+   * The array is replaced when the writer grows, so it is only valid until the next write.
+   */
+  public byte[] array() {
+    return bytes;
+  }
+
+  /**
+   * A copy of the written bytes.
+   */
+  public byte[] toByteArray() {
+    return Arrays.copyOf(bytes, size);
+  }
+
+  public ByteWriter reset() {
+    size = 0;
+    return this;
+  }
+
+}
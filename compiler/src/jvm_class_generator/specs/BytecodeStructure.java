@@ -1,10 +1,24 @@
 package jvm_class_generator.specs;
 
+import jvm_class_generator.impl.helpers.ByteWriter;
+
 /**
  * Provides a common interface for every structure that can generate the corresponding JVM bytecode.
+ * <br><br>
+ * Structures write their bytecode directly into the writer of the enclosing structure, 
+ * so a whole class-file is generated in a single pass without intermediate arrays.
  */
 public interface BytecodeStructure {
   
-  public byte[] generate();
+  /**
+   * Appends the bytecode of this structure to the given {@code bytecode}.
+   */
+  public void generate(ByteWriter bytecode);
+
+  public default byte[] generate() {
+    ByteWriter bytecode = new ByteWriter();
+    generate(bytecode);
+    return bytecode.toByteArray();
+  }
 
 }
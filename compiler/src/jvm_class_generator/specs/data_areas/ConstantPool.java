@@ -1,6 +1,7 @@
 package jvm_class_generator.specs.data_areas;
 
 import jvm_class_generator.specs.BytecodeStructure;
+import jvm_class_generator.specs.helpers.ParsedDescriptor;
 
 /**
  * The {@code ConstantPool} is a table of structures representing various string constants, 
@@ -185,6 +186,16 @@ public abstract class ConstantPool implements BytecodeStructure {
    */
   public abstract String findDescriptorByIndex(int index);
 
+  /**
+   * Searches the parsed descriptor of the given {@code index} in the {@code ConstantPool}, 
+   * the descriptor is parsed only once when the entry is added.
+   * 
+   * @param index ... the index in the {@code ConstantPool}
+   *
+   * @return the parsed descriptor of the entry at the given {@code index} of the {@code ConstantPool}
+   */
+  public abstract ParsedDescriptor findParsedDescriptorByIndex(int index);
+
 
   /**
    * Returns the number of {@code ConstantPool} entries.
@@ -193,4 +204,11 @@ public abstract class ConstantPool implements BytecodeStructure {
    */
   public abstract int size();
 
+  /**
+   * Returns the number of bytes of the generated {@code ConstantPool} entries, without the {@code constant_pool_count}.
+   * 
+   * @return the number of bytes of the generated {@code ConstantPool} entries
+   */
+  public abstract int length();
+
 }
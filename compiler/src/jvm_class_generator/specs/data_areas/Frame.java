@@ -3,6 +3,7 @@ package jvm_class_generator.specs.data_areas;
 import java.util.Map;
 import java.util.Stack;
 
+import jvm_class_generator.impl.helpers.ByteWriter;
 import jvm_class_generator.specs.class_content.Method;
 
 /**
@@ -20,6 +21,16 @@ import jvm_class_generator.specs.class_content.Method;
  */
 public abstract class Frame {
 
+  // Frame Types with a range of values //
+  // same (0-63) and same_locals_1_stack_item (64-127) frames are offset by the offset delta
+  public final static int SAME_FRAME = 0;
+  public final static int SAME_LOCALS_1_STACK_ITEM = 64;
+  public final static int MAX_COMPACT_OFFSET_DELTA = 63;
+  // chop frames (248-250) are 251 minus the number of chopped locals, append frames (252-254) are 251 plus the number of appended locals
+  public final static int CHOP_FRAME = 251;
+  public final static int APPEND_FRAME = 251;
+  public final static int MAX_CHOPPED_OR_APPENDED_LOCALS = 3;
+
   // Frame Types with a constant value //
   public final static int SAME_LOCALS_1_STACK_ITEM_EXTENDED = 247;
   public final static int SAME_FRAME_EXTENDED = 251;
@@ -62,15 +73,31 @@ public abstract class Frame {
 
   /**
    * Generates bytecode for the {@code FullFrame} structure.
+   * @param bytecode ... the bytecode of the enclosing {@code StackMapTable}, the frame is appended to it
    * @param offsetDelta ... the offset delta between this and the previous frame
-   * @return the bytecode for the {@code FullFrame} structure
    * 
    * @see
    * <a href="https://docs.oracle.com/javase/specs/jvms/se14/html/jvms-4.html#jvms-4.7.4-620-H.1">
    *  The JVM Specs - Full frame structure (Java SE14)
    * </a>
    */
-  public abstract byte[] generateFullFrame(int offsetDelta);
+  public abstract void generateFullFrame(ByteWriter bytecode, int offsetDelta);
+
+  /**
+   * Generates bytecode for the smallest frame structure which describes this frame relative to the previous frame, 
+   * i.e. a {@code SameFrame}, {@code SameLocals1StackItemFrame}, {@code ChopFrame} or {@code AppendFrame} if possible, 
+   * otherwise a {@code FullFrame}.
+   * @param bytecode ... the bytecode of the enclosing {@code StackMapTable}, the frame is appended to it
+   * @param offsetDelta ... the offset delta between this and the previous frame
+   * @param previous ... the previous frame of the {@code StackMapTable} (or the implicit initial frame of the method), 
+   *  {@code null} if the locals of the previous frame are unknown
+   * 
+   * @see
+   * <a href="https://docs.oracle.com/javase/specs/jvms/se14/html/jvms-4.html#jvms-4.7.4">
+   *  The JVM Specs - Attributes - StackMapTable (Java SE14)
+   * </a>
+   */
+  public abstract void generateFrame(ByteWriter bytecode, int offsetDelta, Frame previous);
 
   /**
    * The parent method of this attribute.
@@ -0,0 +1,54 @@
+package jvm_class_generator.specs.helpers;
+
+import java.util.List;
+
+/**
+ * A field or method descriptor, which is parsed once when its {@code ConstantPool} entry is added,
+ * so that instructions referencing the entry do not have to parse the descriptor again.
+ *
+ * @see
+ * <a href="https://docs.oracle.com/javase/specs/jvms/se14/html/jvms-4.html#jvms-4.3.2-200">
+ *  The JVM Specs - Field and method descriptors (Java SE14)
+ * </a>
+ */
+public class ParsedDescriptor {
+
+  /**
+   * The descriptor itself, as returned by {@code ConstantPool.findDescriptorByIndex}.
+   */
+  public final String descriptor;
+
+  /**
+   * Whether the descriptor is a method descriptor.
+   */
+  public final boolean isMethod;
+
+  /**
+   * The param descriptors of a method descriptor, empty for field descriptors.
+   */
+  public final String[] paramTypes;
+
+  /**
+   * The descriptor of the value pushed onto the operand stack, i.e. the descriptor itself for field descriptors
+   * and the return-value descriptor for method descriptors, {@code null} for {@code void} methods.
+   */
+  public final String pushedType;
+
+  public ParsedDescriptor(String descriptor) {
+    this.descriptor = descriptor;
+    this.isMethod = descriptor.startsWith("(");
+
+    if (isMethod) {
+      List<String> params = Descriptor.METHOD_PARAM_DESCRIPTORS(descriptor);
+      String returnType = Descriptor.METHOD_RETURN_DESCRIPTOR(descriptor);
+
+      this.paramTypes = params.toArray(new String[params.size()]);
+      this.pushedType = returnType.equals(Descriptor.VOID) ? null : returnType;
+    }
+    else {
+      this.paramTypes = new String[0];
+      this.pushedType = descriptor;
+    }
+  }
+
+}
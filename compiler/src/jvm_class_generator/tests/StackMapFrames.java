@@ -0,0 +1,109 @@
+package jvm_class_generator.tests;
+
+import java.io.PrintStream;
+
+import jvm_class_generator.specs.*;
+import jvm_class_generator.specs.attributes.*;
+import jvm_class_generator.specs.class_content.*;
+import jvm_class_generator.specs.data_areas.*;
+import jvm_class_generator.specs.helpers.*;
+
+/**
+ * Generates every kind of {@code StackMapTable} frame, which are checked by the verifier of the JVM when the class is loaded.
+ */
+public class StackMapFrames extends Test {
+
+  public StackMapFrames() {
+    super("StackMapFrames", "32173");
+  }
+
+  @Override
+  public void generate() {
+    JvmClass test = new jvm_class_generator.impl.JvmClass(name, Descriptor.NAME_OF(Object.class), AccessFlags.PUBLIC | AccessFlags.SUPER);
+    Method main = test.addMethod("main", Descriptor.MAIN, AccessFlags.PUBLIC | AccessFlags.STATIC);
+    generateMain((Code)main.addAttribute("Code"));
+    generate(test);
+  }
+
+  protected void generateMain(Code code) {
+    code.addStackMapTableAttribute();
+    ConstantPool consts = code.constantPool();
+    String System = Descriptor.NAME_OF(System.class);
+    String PrintStream = Descriptor.NAME_OF(PrintStream.class);
+
+    int systemOut = consts.addFieldref(System, "out", Descriptor.REFERENCE(PrintStream));
+    int outPrint = consts.addMethodref(PrintStream, "print", Descriptor.METHOD(Descriptor.VOID, Descriptor.INT));
+
+    int x = code.allocLocal(Descriptor.INT);
+    code
+      .iconst_3()
+      .istore(x, false)
+
+      // append frame, x is added to the initial frame
+      .addLabel("loop")
+      .iload(x, false)
+      .ifeq("done")
+      .getStatic(systemOut)
+      .iload(x, false)
+      .invokeVirtual(outPrint)
+      .iinc(x, -1, false)
+      .gotoLabel("loop")
+
+      // same frame
+      .addLabel("done")
+      .iload(x, false)
+      .ifne("else")
+      .bipush(7)
+      .gotoLabel("join")
+      .addLabel("else", "done")
+      .bipush(9)
+
+      // same_locals_1_stack_item frame
+      .addLabel("join")
+      .istore(x, false)
+      .getStatic(systemOut)
+      .iload(x, false)
+      .invokeVirtual(outPrint)
+      .addLabel("block");
+
+    int y = code.allocLocal(Descriptor.INT);
+    code
+      .iconst_0()
+      .istore(y, false)
+
+      // append frame, y is added
+      .addLabel("inner")
+      .iinc(y, 1, false)
+      .iload(y, false)
+      .iconst_2()
+      .if_icmplt("inner")
+
+      // chop frame, y is removed again
+      .addLabel("after", "block")
+      .iconst_1()
+      .iconst_2()
+
+      // full frame, because of the 2 stack items
+      .addLabel("two")
+      .iadd()
+      .istore(x, false);
+
+    for (int idx = 0; idx < 40; idx++) code.iconst_0().pop();
+
+    // same_frame_extended, the offset delta does not fit into the frame type
+    code.addLabel("far");
+
+    for (int idx = 0; idx < 40; idx++) code.iconst_0().pop();
+
+    // same_locals_1_stack_item_extended
+    code
+      .iload(x, false)
+      .addLabel("farItem")
+      .istore(x, false)
+      .getStatic(systemOut)
+      .iload(x, false)
+      .invokeVirtual(outPrint)
+      .vreturn();
+  }
+
+}
@@ -10,6 +10,7 @@ public class TestRunner {
     new Math(),
     new Arrays(),
     new Conditions(),
+    new StackMapFrames(),
   };
 
   public static void main(String[] args) {
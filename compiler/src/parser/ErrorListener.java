@@ -1,7 +1,8 @@
 package parser;
 
-import compiler.Compiler;
+import compiler.CompilationUnit;
 import information.CompilerError;
+import information.PathIndex;
 import org.antlr.v4.runtime.*;
 import org.antlr.v4.runtime.atn.ATNConfigSet;
 import org.antlr.v4.runtime.dfa.DFA;
@@ -12,6 +13,12 @@ import java.util.BitSet;
 public class ErrorListener extends YaplBaseListener implements ANTLRErrorListener {
 
   public ParseTree root = null;
+  protected final CompilationUnit unit;
+  protected final PathIndex paths = new PathIndex();
+
+  public ErrorListener(CompilationUnit unit) {
+    this.unit = unit;
+  }
 
   @Override
   public void syntaxError(Recognizer<?, ?> recognizer, Object offendingSymbol, int line, int column, String msg, RecognitionException ex) {
@@ -19,10 +26,10 @@ public class ErrorListener extends YaplBaseListener implements ANTLRErrorListene
 
     if (recognizer instanceof Parser) {
       ParserRuleContext context = ((Parser)recognizer).getRuleContext();
-      Compiler.errors.add(CompilerError.Syntax(msg, context, token));
+      unit.addError(CompilerError.Syntax(msg, context, token, paths));
     }
     else {
-      Compiler.errors.add(CompilerError.Lexical(msg, line, column + 1));
+      unit.addError(CompilerError.Lexical(msg, line, column + 1));
     }
   }
 
@@ -1,6 +1,5 @@
 package stdlib;
 
-import information.YaplConstants;
 import jvm_class_generator.specs.JvmClass;
 import jvm_class_generator.specs.attributes.Code;
 import jvm_class_generator.specs.class_content.Method;
@@ -10,6 +9,7 @@ import jvm_class_generator.specs.helpers.Descriptor;
 import information.Parameter;
 import information.Procedure;
 import information.Symbol;
+import information.Type;
 
 import java.io.InputStream;
 import java.io.PrintStream;
@@ -26,10 +26,10 @@ public class DefaultJvmStandardLibrary implements StandardLibrary {
 
   public Symbol[] getPredefinedSymbols() {
     Symbol[] symbols = new Symbol[4];
-    symbols[0] = new Procedure("writeint", YaplConstants.VOID, List.of(new Parameter("i", YaplConstants.INT)), true, false);
-    symbols[1] = new Procedure("writebool", YaplConstants.VOID, List.of(new Parameter("b", YaplConstants.BOOL)), true, false);
-    symbols[2] = new Procedure("writeln", YaplConstants.VOID, List.of(), true, false);
-    symbols[3] = new Procedure("readint", YaplConstants.INT, List.of(), true, false);
+    symbols[0] = new Procedure("writeint", Type.VOID, List.of(new Parameter("i", Type.INT)), true, false);
+    symbols[1] = new Procedure("writebool", Type.VOID, List.of(new Parameter("b", Type.BOOL)), true, false);
+    symbols[2] = new Procedure("writeln", Type.VOID, List.of(), true, false);
+    symbols[3] = new Procedure("readint", Type.INT, List.of(), true, false);
     return symbols;
   }
 